@@ -1,25 +1,63 @@
 package com.wujunshen.opensearch;
 
+import com.wujunshen.opensearch.api.NodeApi;
+import com.wujunshen.opensearch.api.QueryApi;
+import com.wujunshen.opensearch.batch.MgetBatcher;
+import com.wujunshen.opensearch.batch.MsearchBatcher;
+import com.wujunshen.opensearch.batch.RefreshCoalescer;
+import com.wujunshen.opensearch.bulk.BulkExecutor;
+import com.wujunshen.opensearch.bulk.BulkIngester;
+import com.wujunshen.opensearch.cache.MappingCache;
+import com.wujunshen.opensearch.cache.QueryCache;
+import com.wujunshen.opensearch.cache.SearchCoalescer;
+import com.wujunshen.opensearch.client.CompressingRestClientTransport;
+import com.wujunshen.opensearch.client.HttpClientCustomizer;
+import com.wujunshen.opensearch.client.HttpClientCustomizers;
+import com.wujunshen.opensearch.client.JdkHttpClientTransport;
+import com.wujunshen.opensearch.client.SslContexts;
+import com.wujunshen.opensearch.config.BatchConfigProperties;
+import com.wujunshen.opensearch.config.BulkConfigProperties;
+import com.wujunshen.opensearch.config.CacheConfigProperties;
+import com.wujunshen.opensearch.config.ExportConfigProperties;
 import com.wujunshen.opensearch.config.OpenSearchConfigProperties;
+import com.wujunshen.opensearch.config.SnifferConfigProperties;
 import com.wujunshen.opensearch.config.SslConfigProperties;
+import com.wujunshen.opensearch.config.TransportConfigProperties;
+import com.wujunshen.opensearch.export.CheckpointStore;
+import com.wujunshen.opensearch.export.FileCheckpointStore;
+import com.wujunshen.opensearch.export.SlicedExporter;
+import com.wujunshen.opensearch.sniff.NodeSniffer;
+import com.wujunshen.opensearch.sniff.SniffOnFailureListener;
+import java.net.Authenticator;
+import java.net.PasswordAuthentication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import javax.net.ssl.SSLContext;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.opensearch.client.RestClient;
 import org.opensearch.client.RestClientBuilder;
 import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
 import org.opensearch.client.opensearch.OpenSearchClient;
 import org.opensearch.client.transport.OpenSearchTransport;
 import org.opensearch.client.transport.rest_client.RestClientTransport;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 
 /**
  * @author frank woo(吴峻申) <br> email:<a
@@ -27,7 +65,10 @@ import org.springframework.context.annotation.Configuration;
  * @date 2022/12/14 16:39<br>
  */
 @Configuration
-@EnableConfigurationProperties({OpenSearchConfigProperties.class, SslConfigProperties.class})
+@EnableConfigurationProperties({OpenSearchConfigProperties.class, SslConfigProperties.class,
+		BulkConfigProperties.class, BatchConfigProperties.class, CacheConfigProperties.class,
+		ExportConfigProperties.class, SnifferConfigProperties.class,
+		TransportConfigProperties.class})
 public class OpenSearchAutoConfiguration {
 
 	@ConditionalOnMissingBean
@@ -42,23 +83,18 @@ public class OpenSearchAutoConfiguration {
 	}
 
 	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "opensearch.transport", name = "type",
+			havingValue = "rest-client", matchIfMissing = true)
 	@Bean
 	public RestClient restClient(OpenSearchConfigProperties openSearchConfigProperties,
-			SslConfigProperties sslConfigProperties, CredentialsProvider credentialsProvider) {
-		// 拆分地址
-		List<HttpHost> httpHostList = new ArrayList<>();
-		String[] hostArray = openSearchConfigProperties.getAddress().split(",");
-		for (String element : hostArray) {
-			String host = element.split(":")[0];
-			String port = element.split(":")[1];
-			httpHostList.add(
-					new HttpHost(host, Integer.parseInt(port), openSearchConfigProperties.getSchema()));
-		}
-
+			SslConfigProperties sslConfigProperties, CredentialsProvider credentialsProvider,
+			ObjectProvider<RestClient.FailureListener> failureListener,
+			ObjectProvider<HttpClientCustomizer> httpClientCustomizers) {
 		// 转换成 HttpHost 数组
-		HttpHost[] httpHostArray = httpHostList.toArray(new HttpHost[]{});
+		HttpHost[] httpHostArray = httpHosts(openSearchConfigProperties).toArray(new HttpHost[]{});
 		// 构建连接对象
 		RestClientBuilder builder = RestClient.builder(httpHostArray);
+		failureListener.ifAvailable(builder::setFailureListener);
 
 		// 异步连接延时配置
 		builder.setRequestConfigCallback(requestConfigBuilder -> {
@@ -69,40 +105,219 @@ public class OpenSearchAutoConfiguration {
 			return requestConfigBuilder;
 		});
 
-		// 异步连接数配置
+		// 异步连接数、IO线程和连接保活配置
+		HttpClientCustomizer customizer = HttpClientCustomizers.pool(openSearchConfigProperties)
+				.andThen(HttpClientCustomizers.ioReactor(openSearchConfigProperties))
+				.andThen(HttpClientCustomizers.keepAlive(openSearchConfigProperties));
+
+		if ("https".equals(openSearchConfigProperties.getSchema())) {
+			customizer = customizer.andThen(HttpClientCustomizers.tls(sslConfigProperties));
+		}
+		customizer = customizer.andThen(HttpClientCustomizers.auth(credentialsProvider));
+
+		// 只能设置一次callback，应用注册的定制步骤排在内置步骤之后
+		for (HttpClientCustomizer element : httpClientCustomizers.orderedStream().toList()) {
+			customizer = customizer.andThen(element);
+		}
+
+		HttpClientCustomizer chain = customizer;
 		builder.setHttpClientConfigCallback(httpClientBuilder -> {
-			httpClientBuilder.setMaxConnTotal(openSearchConfigProperties.getMaxConnectNum());
-			httpClientBuilder.setMaxConnPerRoute(openSearchConfigProperties.getMaxConnectPerRoute());
+			chain.customize(httpClientBuilder);
 			return httpClientBuilder;
 		});
 
-		if ("https".equals(openSearchConfigProperties.getSchema())) {
-			System.setProperty("javax.net.ssl.trustStore", sslConfigProperties.getPath());
-			System.setProperty("javax.net.ssl.trustStorePassword", sslConfigProperties.getPassword());
+		return builder.build();
+	}
+
+	@ConditionalOnMissingBean
+	@ConditionalOnBean(RestClient.class)
+	@ConditionalOnProperty(prefix = "opensearch.sniffer", name = "enabled", havingValue = "true")
+	@Bean
+	public SniffOnFailureListener sniffOnFailureListener() {
+		return new SniffOnFailureListener();
+	}
+
+	@ConditionalOnMissingBean
+	@ConditionalOnBean(RestClient.class)
+	@ConditionalOnProperty(prefix = "opensearch.sniffer", name = "enabled", havingValue = "true")
+	@Bean(destroyMethod = "close")
+	public NodeSniffer nodeSniffer(RestClient restClient, NodeApi nodeApi,
+			SnifferConfigProperties snifferConfigProperties,
+			SniffOnFailureListener sniffOnFailureListener) {
+		NodeSniffer nodeSniffer = new NodeSniffer(restClient, nodeApi, snifferConfigProperties);
+		sniffOnFailureListener.setSniffer(nodeSniffer);
+		return nodeSniffer;
+	}
+
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "opensearch.transport", name = "type",
+			havingValue = "rest-client", matchIfMissing = true)
+	@Bean
+	public OpenSearchTransport openSearchTransport(RestClient restClient,
+			TransportConfigProperties transportConfigProperties) {
+		if (transportConfigProperties.isCompression()) {
+			return new CompressingRestClientTransport(restClient, new JacksonJsonpMapper(),
+					transportConfigProperties.getCompressionThreshold());
+		}
+		return new RestClientTransport(restClient, new JacksonJsonpMapper());
+	}
+
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "opensearch.transport", name = "type", havingValue = "jdk")
+	@Bean(destroyMethod = "close")
+	public OpenSearchTransport jdkHttpClientTransport(
+			OpenSearchConfigProperties openSearchConfigProperties,
+			SslConfigProperties sslConfigProperties,
+			TransportConfigProperties transportConfigProperties) {
+		List<URI> hosts = httpHosts(openSearchConfigProperties).stream()
+				.map(host -> URI.create(host.toURI())).toList();
 
-			builder.setHttpClientConfigCallback(httpClientBuilder -> {
-				// 不验证hostname
-				httpClientBuilder.setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE);
+		ExecutorService executor = JdkHttpClientTransport.newExecutor();
+		HttpClient.Builder builder = HttpClient.newBuilder()
+				.version(transportConfigProperties.isHttp2() ? HttpClient.Version.HTTP_2
+						: HttpClient.Version.HTTP_1_1).executor(executor);
 
-				//设置用户名和密码访问
-				httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider);
+		if ("https".equals(openSearchConfigProperties.getSchema())) {
+			// 跳过hostname验证由SSLContext的TrustManager实现，只影响这个HttpClient
+			SSLContext sslContext = SslContexts.of(sslConfigProperties);
+			builder.sslContext(sslContext).sslParameters(sslContext.getDefaultSSLParameters());
+		}
 
-				return httpClientBuilder;
+		String userName = openSearchConfigProperties.getUserName();
+		if (StringUtils.hasText(userName)) {
+			char[] password = openSearchConfigProperties.getPassword() != null
+					? openSearchConfigProperties.getPassword().toCharArray() : new char[0];
+			builder.authenticator(new Authenticator() {
+				@Override
+				protected PasswordAuthentication getPasswordAuthentication() {
+					// 和RestClient一样，收到401质询后才发送用户名和密码
+					return new PasswordAuthentication(userName, password);
+				}
 			});
 		}
+		if (openSearchConfigProperties.getConnectTimeout() > 0) {
+			builder.connectTimeout(
+					Duration.ofMillis(openSearchConfigProperties.getConnectTimeout()));
+		}
 
-		return builder.build();
+		Duration requestTimeout = openSearchConfigProperties.getSocketTimeout() > 0
+				? Duration.ofMillis(openSearchConfigProperties.getSocketTimeout()) : null;
+
+		int compressionThreshold = transportConfigProperties.isCompression()
+				? transportConfigProperties.getCompressionThreshold()
+				: JdkHttpClientTransport.NO_COMPRESSION;
+
+		return new JdkHttpClientTransport(builder.build(), hosts, new JacksonJsonpMapper(),
+				requestTimeout, compressionThreshold, executor);
 	}
 
 	@ConditionalOnMissingBean
 	@Bean
-	public OpenSearchTransport openSearchTransport(RestClient restClient) {
-		return new RestClientTransport(restClient, new JacksonJsonpMapper());
+	public OpenSearchClient openSearchClient(OpenSearchTransport transport) {
+		return new OpenSearchClient(transport);
 	}
 
 	@ConditionalOnMissingBean
 	@Bean
-	public OpenSearchClient openSearchClient(OpenSearchTransport transport) {
-		return new OpenSearchClient(transport);
+	public OpenSearchAsyncClient openSearchAsyncClient(OpenSearchTransport transport) {
+		return new OpenSearchAsyncClient(transport);
+	}
+
+	@ConditionalOnMissingBean
+	@Bean
+	public BulkExecutor bulkExecutor(OpenSearchClient openSearchClient,
+			BulkConfigProperties bulkConfigProperties) {
+		return new BulkExecutor(openSearchClient, bulkConfigProperties);
+	}
+
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "opensearch.bulk", name = "ingester-enabled",
+			havingValue = "true")
+	@Bean(destroyMethod = "close")
+	public BulkIngester bulkIngester(OpenSearchClient openSearchClient, BulkExecutor bulkExecutor,
+			BulkConfigProperties bulkConfigProperties,
+			ObjectProvider<BulkIngester.Listener> listener, ObjectProvider<QueryCache> queryCache) {
+		return new BulkIngester(openSearchClient, bulkExecutor, bulkConfigProperties,
+				listener.getIfAvailable(), queryCache);
+	}
+
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "opensearch.cache", name = "enabled", havingValue = "true")
+	@Bean
+	public QueryCache queryCache(OpenSearchTransport transport,
+			CacheConfigProperties cacheConfigProperties) {
+		return new QueryCache(transport.jsonpMapper(), cacheConfigProperties);
+	}
+
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "opensearch.cache", name = "mapping-enabled",
+			havingValue = "true")
+	@Bean
+	public MappingCache mappingCache(CacheConfigProperties cacheConfigProperties) {
+		return new MappingCache(cacheConfigProperties);
+	}
+
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "opensearch.cache", name = "coalesce", havingValue = "true")
+	@Bean
+	public SearchCoalescer searchCoalescer(OpenSearchTransport transport) {
+		return new SearchCoalescer(transport.jsonpMapper());
+	}
+
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "opensearch.batch", name = "enabled", havingValue = "true")
+	@Bean(destroyMethod = "close")
+	public MgetBatcher mgetBatcher(OpenSearchClient openSearchClient,
+			BatchConfigProperties batchConfigProperties) {
+		return new MgetBatcher(openSearchClient, batchConfigProperties);
+	}
+
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "opensearch.batch", name = "enabled", havingValue = "true")
+	@Bean(destroyMethod = "close")
+	public MsearchBatcher msearchBatcher(QueryApi queryApi,
+			BatchConfigProperties batchConfigProperties) {
+		return new MsearchBatcher(queryApi, batchConfigProperties);
+	}
+
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "opensearch.batch", name = "refresh-coalesce",
+			havingValue = "true")
+	@Bean
+	public RefreshCoalescer refreshCoalescer(BatchConfigProperties batchConfigProperties) {
+		return new RefreshCoalescer(batchConfigProperties);
+	}
+
+	@ConditionalOnMissingBean
+	@Bean
+	public CheckpointStore checkpointStore(ExportConfigProperties exportConfigProperties) {
+		return new FileCheckpointStore(Path.of(exportConfigProperties.getCheckpointDir()));
+	}
+
+	@ConditionalOnMissingBean
+	@Bean
+	public SlicedExporter slicedExporter(OpenSearchClient openSearchClient,
+			ExportConfigProperties exportConfigProperties, CheckpointStore checkpointStore,
+			ObjectProvider<SlicedExporter.Listener> listener) {
+		return new SlicedExporter(openSearchClient, exportConfigProperties, checkpointStore,
+				listener.getIfAvailable());
+	}
+
+	/**
+	 * 拆分地址
+	 *
+	 * @param openSearchConfigProperties es配置
+	 * @return HttpHost列表
+	 */
+	private static List<HttpHost> httpHosts(OpenSearchConfigProperties openSearchConfigProperties) {
+		List<HttpHost> httpHostList = new ArrayList<>();
+		String[] hostArray = openSearchConfigProperties.getAddress().split(",");
+		for (String element : hostArray) {
+			String host = element.split(":")[0];
+			String port = element.split(":")[1];
+			httpHostList.add(
+					new HttpHost(host, Integer.parseInt(port), openSearchConfigProperties.getSchema()));
+		}
+		return httpHostList;
 	}
 }
@@ -0,0 +1,152 @@
+package com.wujunshen.opensearch.api;
+
+import com.wujunshen.opensearch.batch.MgetBatcher;
+import com.wujunshen.opensearch.cache.QueryCache;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch.core.DeleteResponse;
+import org.opensearch.client.opensearch.core.GetResponse;
+import org.opensearch.client.opensearch.core.IndexResponse;
+import org.opensearch.client.opensearch.core.MgetResponse;
+import org.opensearch.client.opensearch.core.UpdateResponse;
+import org.opensearch.client.opensearch.core.mget.MultiGetResponseItem;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * DocumentApi的异步版本，基于OpenSearchAsyncClient，不占用调用线程等待响应。
+ * 批量写入请使用BulkIngester，它本身就是非阻塞的
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 10:25<br>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AsyncDocumentApi {
+
+	private final OpenSearchAsyncClient openSearchAsyncClient;
+
+	private final ObjectProvider<MgetBatcher> mgetBatcher;
+
+	private final ObjectProvider<QueryCache> queryCache;
+
+	/**
+	 * 单个文档写入
+	 *
+	 * @param indexName 索引名
+	 * @param o         文档对象
+	 * @param <T>       文档对象泛型
+	 * @return IndexResponse对象的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<IndexResponse> addDocument(String indexName, T o)
+			throws IOException {
+		return openSearchAsyncClient.index(indexRequest -> indexRequest.index(indexName).document(o))
+				.whenComplete((response, e) -> written(indexName, response));
+	}
+
+	/**
+	 * 单个文档写入
+	 *
+	 * @param indexName 索引名
+	 * @param id        文档id
+	 * @param o         文档对象
+	 * @param <T>       文档对象泛型
+	 * @return IndexResponse对象的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<IndexResponse> addDocument(String indexName, String id, T o)
+			throws IOException {
+		return openSearchAsyncClient.index(
+						indexRequest -> indexRequest.index(indexName).id(id).document(o))
+				.whenComplete((response, e) -> written(indexName, response));
+	}
+
+	/**
+	 * 更新文档信息
+	 *
+	 * @param indexName 索引名
+	 * @param o         文档对象
+	 * @param id        要更新的文档对象id
+	 * @param clazz     要更新的文档对象class
+	 * @param <T>       文档对象泛型
+	 * @return UpdateResponse对象的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<UpdateResponse<T>> updateDocument(String indexName, T o, String id,
+			Class<T> clazz) throws IOException {
+		return openSearchAsyncClient.update(
+						updateRequest -> updateRequest.index(indexName).id(id).doc(o), clazz)
+				.whenComplete((response, e) -> written(indexName, response));
+	}
+
+	/**
+	 * 查询文档信息，启用请求合并时和合并窗口内的其它查询合并成一次mget
+	 *
+	 * @param indexName 索引名
+	 * @param id        要查询的文档对象id
+	 * @param clazz     要查询的文档对象class
+	 * @param <T>       文档对象泛型
+	 * @return GetResponse对象的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<GetResponse<T>> getDocument(String indexName, String id,
+			Class<T> clazz) throws IOException {
+		MgetBatcher batcher = mgetBatcher.getIfAvailable();
+		if (batcher != null) {
+			return batcher.getDocumentAsync(indexName, id, clazz);
+		}
+		return openSearchAsyncClient.get(getRequest -> getRequest.index(indexName).id(id), clazz);
+	}
+
+	/**
+	 * 用mget批量查询文档信息，一次请求取回所有id
+	 *
+	 * @param indexName 索引名
+	 * @param ids       要查询的文档对象id列表
+	 * @param clazz     要查询的文档对象class
+	 * @param <T>       文档对象泛型
+	 * @return MultiGetResponseItem列表的CompletableFuture，顺序和ids一致
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<MultiGetResponseItem<T>>> getDocuments(String indexName,
+			List<String> ids, Class<T> clazz) throws IOException {
+		if (ids.isEmpty()) {
+			return CompletableFuture.completedFuture(List.of());
+		}
+
+		return openSearchAsyncClient.mget(m -> m.index(indexName).ids(ids), clazz)
+				.thenApply(MgetResponse::docs);
+	}
+
+	/**
+	 * 删除文档信息
+	 *
+	 * @param indexName 索引名
+	 * @param id        要删除的文档对象id
+	 * @return DeleteResponse对象的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public CompletableFuture<DeleteResponse> deleteDocument(String indexName, String id)
+			throws IOException {
+		return openSearchAsyncClient.delete(deleteRequest -> deleteRequest.index(indexName).id(id))
+				.whenComplete((response, e) -> written(indexName, response));
+	}
+
+	/**
+	 * 写入请求结束后清掉查询结果缓存中该索引的条目，返回的future在清理之后才完成
+	 *
+	 * @param indexName 索引名
+	 * @param response  写入结果，请求失败时为null
+	 */
+	private void written(String indexName, Object response) {
+		log.info("response: {}", response);
+		queryCache.ifAvailable(cache -> cache.invalidate(indexName));
+	}
+}
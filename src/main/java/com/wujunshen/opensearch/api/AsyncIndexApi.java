@@ -0,0 +1,154 @@
+package com.wujunshen.opensearch.api;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.mapping.TypeMapping;
+import org.opensearch.client.opensearch.cat.indices.IndicesRecord;
+import org.opensearch.client.opensearch.indices.GetIndexResponse;
+import org.opensearch.client.transport.endpoints.BooleanResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * IndexApi的异步版本，基于OpenSearchAsyncClient，不占用调用线程等待响应
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 10:25<br>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AsyncIndexApi {
+
+	private final OpenSearchAsyncClient openSearchAsyncClient;
+
+	/**
+	 * 判断index是否存在
+	 *
+	 * @param indexName 索引名
+	 * @return 是否存在的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public CompletableFuture<Boolean> isExistedIndex(String indexName) throws IOException {
+		return openSearchAsyncClient.indices().exists(e -> e.index(indexName))
+				.thenApply(BooleanResponse::value);
+	}
+
+	/**
+	 * 删除index
+	 *
+	 * @param indexName 索引名
+	 * @return 是否删除成功的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public CompletableFuture<Boolean> deleteIndex(String indexName) throws IOException {
+		return openSearchAsyncClient.indices().delete(d -> d.index(indexName))
+				.thenApply(response -> {
+					log.info("{} 索引是否被删除: {}", indexName, response.acknowledged());
+					return response.acknowledged();
+				});
+	}
+
+	/**
+	 * 创建索引 - 指定mapping，索引已存在时先删除
+	 *
+	 * @param indexName   索引名
+	 * @param typeMapping mapping
+	 * @return 是否创建成功的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public CompletableFuture<Boolean> createIndexWithMapping(String indexName,
+			TypeMapping typeMapping) throws IOException {
+		return isExistedIndex(indexName)
+				.thenCompose(existed -> existed ? call(() -> deleteIndex(indexName))
+						: CompletableFuture.completedFuture(true))
+				.thenCompose(deleted -> call(() -> openSearchAsyncClient.indices()
+						.create(createIndexRequest -> createIndexRequest.index(indexName)
+								.mappings(typeMapping))))
+				.thenApply(response -> {
+					log.info("{} 索引创建是否成功: {}", indexName, response.acknowledged());
+					return response.acknowledged();
+				});
+	}
+
+	/**
+	 * 查询index
+	 *
+	 * @param indexName 索引名
+	 * @return GetIndexResponse对象的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public CompletableFuture<GetIndexResponse> queryIndex(String indexName) throws IOException {
+		return openSearchAsyncClient.indices().get(i -> i.index(indexName));
+	}
+
+	/**
+	 * 获取所有索引信息
+	 *
+	 * @return IndicesRecord列表的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public CompletableFuture<List<IndicesRecord>> getAllIndices() throws IOException {
+		return openSearchAsyncClient.cat().indices().thenApply(response -> response.valueBody());
+	}
+
+	/**
+	 * 索引refresh
+	 *
+	 * @param indexName 索引名
+	 * @return refresh是否成功的CompletableFuture，true成功 false失败
+	 * @throws IOException 异常信息
+	 */
+	public CompletableFuture<Boolean> refresh(String indexName) throws IOException {
+		return openSearchAsyncClient.indices().refresh(request -> request.index(indexName))
+				.thenApply(response -> IndexApi.doOperation(response.shards()));
+	}
+
+	/**
+	 * 索引flush
+	 *
+	 * @param indexName 索引名
+	 * @return flush是否成功的CompletableFuture，true成功 false失败
+	 * @throws IOException 异常信息
+	 */
+	public CompletableFuture<Boolean> flush(String indexName) throws IOException {
+		return openSearchAsyncClient.indices().flush(request -> request.index(indexName))
+				.thenApply(response -> IndexApi.doOperation(response.shards()));
+	}
+
+	/**
+	 * 在thenCompose中发起下一个异步请求，把发起请求时的IOException转成失败的CompletableFuture
+	 *
+	 * @param request 发起请求的方法
+	 * @param <R>     响应类型
+	 * @return 响应对象的CompletableFuture
+	 */
+	private static <R> CompletableFuture<R> call(AsyncRequest<R> request) {
+		try {
+			return request.send();
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * 发起异步请求的方法
+	 *
+	 * @param <R> 响应类型
+	 */
+	@FunctionalInterface
+	private interface AsyncRequest<R> {
+
+		/**
+		 * 发起请求
+		 *
+		 * @return 响应对象的CompletableFuture
+		 * @throws IOException 异常信息
+		 */
+		CompletableFuture<R> send() throws IOException;
+	}
+}
@@ -0,0 +1,602 @@
+package com.wujunshen.opensearch.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.aggregations.HistogramBucket;
+import org.opensearch.client.opensearch._types.query_dsl.ChildScoreMode;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch.core.GetResponse;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * QueryApi的异步版本，基于OpenSearchAsyncClient，不占用调用线程等待响应
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 10:25<br>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AsyncQueryApi {
+
+	private final OpenSearchAsyncClient openSearchAsyncClient;
+
+	/**
+	 * 字段投影，null表示返回完整的_source
+	 */
+	private Projection projection;
+
+	/**
+	 * 返回使用字段投影的AsyncQueryApi，所有查询方法只取投影中的字段
+	 *
+	 * @param projection 字段投影，null表示返回完整的_source
+	 * @return 新的AsyncQueryApi对象，当前对象不受影响
+	 */
+	public AsyncQueryApi withProjection(Projection projection) {
+		AsyncQueryApi asyncQueryApi = new AsyncQueryApi(openSearchAsyncClient);
+		asyncQueryApi.projection = projection;
+		return asyncQueryApi;
+	}
+
+	/**
+	 * 发送查询，投影中有docvalue_fields或stored_fields时先按JsonData取回再和_source合并成文档对象
+	 *
+	 * @param request 查询请求
+	 * @param clazz   文档对象class
+	 * @param <T>     文档对象泛型
+	 * @return SearchResponse对象的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	private <T> CompletableFuture<SearchResponse<T>> search(SearchRequest request, Class<T> clazz)
+			throws IOException {
+		if (projection != null && projection.hasFields()) {
+			return openSearchAsyncClient.search(request, JsonData.class).thenApply(
+					response -> Projection.project(response, clazz,
+							openSearchAsyncClient._transport().jsonpMapper()));
+		}
+		return openSearchAsyncClient.search(request, clazz);
+	}
+
+	/**
+	 * 指定id检索数据
+	 *
+	 * @param <T>       文档对象泛型
+	 * @param indexName 索引名
+	 * @param id        文档id
+	 * @param clazz     要搜索的文档对象class
+	 * @return GetResponse对象的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<GetResponse<T>> searchById(String indexName, String id,
+			Class<T> clazz) throws IOException {
+		return openSearchAsyncClient.get(
+						g -> Projection.apply(projection, g.index(indexName).id(id)), clazz)
+				.thenApply(response -> {
+					if (response.found()) {
+						return response;
+					} else {
+						log.info("not found");
+						return null;
+					}
+				});
+	}
+
+	/**
+	 * 指定id列表批量检索数据，一次mget请求取回
+	 *
+	 * @param <T>       文档对象泛型
+	 * @param indexName 索引名
+	 * @param ids       文档id列表
+	 * @param clazz     要搜索的文档对象class
+	 * @return 文档对象列表的CompletableFuture，顺序和ids一致，未找到的文档对应位置为null
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> searchByIds(String indexName, List<String> ids,
+			Class<T> clazz) throws IOException {
+		if (ids.isEmpty()) {
+			return CompletableFuture.completedFuture(new ArrayList<>());
+		}
+
+		return openSearchAsyncClient.mget(
+						m -> Projection.apply(projection, m.index(indexName).ids(ids)), clazz)
+				.thenApply(QueryApi::getMgetSources);
+	}
+
+	/**
+	 * 聚合操作
+	 *
+	 * @param indexName     索引名
+	 * @param searchText    搜索内容
+	 * @param searchField   搜索字段
+	 * @param aggsField     聚合字段
+	 * @param aggsKey       聚合key
+	 * @param intervalValue 间隔值
+	 * @return HistogramBucket列表的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public CompletableFuture<List<HistogramBucket>> aggsByHistogram(String indexName,
+			String searchText, String searchField, String aggsField, String aggsKey,
+			Double intervalValue) throws IOException {
+		return search(
+						SearchRequests.histogram(indexName, searchText, searchField, aggsField, aggsKey,
+								intervalValue), Void.class)
+				.thenApply(response -> response.aggregations().get(aggsKey).histogram().buckets().array());
+	}
+
+	/**
+	 * matchAllQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> matchAllQuery(String indexName, String sortedField,
+			int fromIndex, int pageSize, boolean isDesc, Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.matchAll();
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * matchQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param searchText  搜索内容
+	 * @param searchField 要搜索的字段
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> matchQuery(String indexName, String searchText,
+			String searchField, String sortedField, int fromIndex, int pageSize, boolean isDesc,
+			Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.match(searchText, searchField);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * multiMatchQuery方法
+	 *
+	 * @param <T>          文档对象泛型
+	 * @param indexName    索引名
+	 * @param searchText   搜索内容
+	 * @param searchFields 要搜索的字段列表
+	 * @param sortedField  要排序的字段
+	 * @param fromIndex    分页数据从第几页开始取
+	 * @param pageSize     每页取多少条数据
+	 * @param isDesc       是否降序，true降序，false升序
+	 * @param clazz        要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> multiMatchQuery(String indexName, String searchText,
+			List<String> searchFields, String sortedField, int fromIndex, int pageSize,
+			boolean isDesc, Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.multiMatch(searchText, searchFields);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * matchPhrasePrefixQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param searchText  搜索内容
+	 * @param searchField 要搜索的字段
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> matchPhrasePrefixQuery(String indexName,
+			String searchText, String searchField, String sortedField, int fromIndex,
+			int pageSize, boolean isDesc, Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.matchPhrasePrefix(searchText, searchField);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * idsQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param searchTexts 搜索内容列表
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> idsQuery(String indexName, List<String> searchTexts,
+			String sortedField, int fromIndex, int pageSize, boolean isDesc,
+			Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.ids(searchTexts);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * termQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param searchText  搜索内容
+	 * @param searchField 要搜索的字段
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> termQuery(String indexName, String searchText,
+			String searchField, String sortedField, int fromIndex, int pageSize, boolean isDesc,
+			Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.term(searchText, searchField);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * fuzzyQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param searchText  搜索内容
+	 * @param searchField 要搜索的字段
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> fuzzyQuery(String indexName, String searchText,
+			String searchField, String sortedField, int fromIndex, int pageSize, boolean isDesc,
+			Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.fuzzy(searchText, searchField);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * rangeQuery方法
+	 *
+	 * @param <T>            文档对象泛型
+	 * @param indexName      索引名
+	 * @param fromSearchText 开始搜索的内容
+	 * @param toSearchText   完成搜索的内容
+	 * @param searchField    要搜索的字段
+	 * @param sortedField    要排序的字段
+	 * @param fromIndex      分页数据从第几页开始取
+	 * @param pageSize       每页取多少条数据
+	 * @param isDesc         是否降序，true降序，false升序
+	 * @param clazz          要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> rangeQuery(String indexName, String fromSearchText,
+			String toSearchText, String searchField, String sortedField, int fromIndex,
+			int pageSize, boolean isDesc, Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.range(fromSearchText, toSearchText, searchField);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * wildcardQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param searchText  搜索内容
+	 * @param searchField 要搜索的字段
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> wildcardQuery(String indexName, String searchText,
+			String searchField, String sortedField, int fromIndex, int pageSize, boolean isDesc,
+			Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.wildcard(searchText, searchField);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * constantScoreQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param searchText  搜索内容
+	 * @param searchField 要搜索的字段
+	 * @param boost       boost计分
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> constantScoreQuery(String indexName, String searchText,
+			String searchField, float boost, String sortedField, int fromIndex, int pageSize,
+			boolean isDesc, Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.constantScore(searchText, searchField, boost);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * disMaxQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param queries     内嵌的query对象列表
+	 * @param boost       boost计分
+	 * @param tieBreaker  tieBreaker
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> disMaxQuery(String indexName, List<Query> queries,
+			float boost, double tieBreaker, String sortedField, int fromIndex, int pageSize,
+			boolean isDesc, Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.disMax(queries, boost, tieBreaker);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * queryStringQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param searchText  搜索内容
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> queryStringQuery(String indexName, String searchText,
+			String sortedField, int fromIndex, int pageSize, boolean isDesc,
+			Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.queryString(searchText);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * spanFirstQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param searchText  搜索内容
+	 * @param searchField 要搜索的字段
+	 * @param end         end
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> spanFirstQuery(String indexName, String searchText,
+			String searchField, int end, String sortedField, int fromIndex, int pageSize,
+			boolean isDesc, Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.spanFirst(searchText, searchField, end);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * spanTermQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param searchText  搜索内容
+	 * @param searchField 要搜索的字段
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> spanTermQuery(String indexName, String searchText,
+			String searchField, String sortedField, int fromIndex, int pageSize, boolean isDesc,
+			Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.spanTerm(searchText, searchField);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * boolQuery方法
+	 *
+	 * @param <T>         文档对象泛型
+	 * @param indexName   索引名
+	 * @param queries     内嵌的query对象列表
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> boolQuery(String indexName, List<Query> queries,
+			String sortedField, int fromIndex, int pageSize, boolean isDesc,
+			Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.bool(queries);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * nestedQuery方法
+	 *
+	 * @param <T>            文档对象泛型
+	 * @param indexName      索引名
+	 * @param path           path
+	 * @param query          内嵌的query对象
+	 * @param childScoreMode ChildScoreMode枚举类值
+	 * @param sortedField    要排序的字段
+	 * @param fromIndex      分页数据从第几页开始取
+	 * @param pageSize       每页取多少条数据
+	 * @param isDesc         是否降序，true降序，false升序
+	 * @param clazz          要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<T>> nestedQuery(String indexName, String path, Query query,
+			ChildScoreMode childScoreMode, String sortedField, int fromIndex, int pageSize,
+			boolean isDesc, Class<T> clazz) throws IOException {
+		Query searchQuery = SearchRequests.nested(path, query, childScoreMode);
+
+		return search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz).thenApply(QueryApi::getSources);
+	}
+
+	/**
+	 * highLightQuery方法
+	 *
+	 * @param <T>            文档对象泛型
+	 * @param indexName      索引名
+	 * @param query          内嵌的query对象
+	 * @param highlightField 高亮查询字段
+	 * @param preTags        高亮前置部分
+	 * @param postTags       高亮后置部分
+	 * @param sortedField    要排序的字段
+	 * @param fromIndex      分页数据从第几页开始取
+	 * @param pageSize       每页取多少条数据
+	 * @param isDesc         是否降序，true降序，false升序
+	 * @param clazz          要搜索的文档对象class
+	 * @return 泛型对象列表集合的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<List<Map<String, List<String>>>> highLightQuery(String indexName,
+			Query query, String highlightField, String preTags, String postTags,
+			String sortedField, int fromIndex, int pageSize, boolean isDesc,
+			Class<T> clazz) throws IOException {
+		return search(
+				SearchRequests.highlight(indexName, query, highlightField, preTags, postTags, sortedField,
+						fromIndex, pageSize, isDesc, projection), clazz)
+				.thenApply(QueryApi::getHighLights);
+	}
+
+	/**
+	 * search_after游标分页查询
+	 *
+	 * @param <T>             文档对象泛型
+	 * @param indexName       索引名
+	 * @param query           query对象
+	 * @param sortedField     要排序的字段
+	 * @param isDesc          是否降序，true降序，false升序
+	 * @param tieBreakerField 排序值相同时用来区分文档的唯一字段，必须是有doc_values的keyword或数值字段
+	 * @param pageSize        每页取多少条数据
+	 * @param cursor          上一页返回的游标，取第一页时为null
+	 * @param clazz           要搜索的文档对象class
+	 * @return 一页文档对象和下一页游标的CompletableFuture
+	 * @throws IOException 异常信息
+	 */
+	public <T> CompletableFuture<SearchPage<T>> searchAfter(String indexName, Query query,
+			String sortedField, boolean isDesc, String tieBreakerField, int pageSize, String cursor,
+			Class<T> clazz) throws IOException {
+		return search(
+						SearchRequests.searchAfter(indexName, query, sortedField, isDesc, tieBreakerField,
+								pageSize, cursor, projection), clazz)
+				.thenApply(response -> SearchPage.of(QueryApi.getHitList(response), pageSize));
+	}
+
+	/**
+	 * 把多个互不相关的查询合并成一次_msearch请求发送，每个查询可以用不同的文档class
+	 *
+	 * @param specs 查询列表
+	 * @return MultiSearchResult对象的CompletableFuture
+	 */
+	public CompletableFuture<MultiSearchResult> msearch(List<? extends SearchSpec<?>> specs) {
+		if (specs.isEmpty()) {
+			return CompletableFuture.completedFuture(new MultiSearchResult(specs, List.of()));
+		}
+
+		return openSearchAsyncClient._transport()
+				.performRequestAsync(new MsearchEndpoint.Body(specs), MsearchEndpoint.of(specs),
+						openSearchAsyncClient._transportOptions())
+				.thenApply(items -> new MultiSearchResult(specs, items));
+	}
+}
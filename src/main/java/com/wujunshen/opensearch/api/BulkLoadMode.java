@@ -0,0 +1,134 @@
+package com.wujunshen.opensearch.api;
+
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.HealthStatus;
+import org.opensearch.client.opensearch._types.Time;
+import org.opensearch.client.opensearch.cluster.HealthResponse;
+import org.opensearch.client.opensearch.indices.IndexSettings;
+import org.opensearch.client.opensearch.indices.IndexState;
+
+/**
+ * 索引的批量写入模式，进入时关闭refresh、副本数设为0，可选把translog改成异步刷盘；
+ * 关闭时恢复原来的设置，refresh后等待集群状态变绿。配合try-with-resources使用
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 18:10<br>
+ */
+@Slf4j
+public class BulkLoadMode implements AutoCloseable {
+
+	/**
+	 * 原索引没有设置refresh_interval时恢复成集群默认值
+	 */
+	private static final String DEFAULT_REFRESH_INTERVAL = "1s";
+
+	/**
+	 * 原索引没有设置translog.durability时恢复成集群默认值
+	 */
+	private static final String DEFAULT_TRANSLOG_DURABILITY = "request";
+
+	/**
+	 * 关闭时等待集群状态变绿的最长时间
+	 */
+	private static final String HEALTH_TIMEOUT = "60s";
+
+	private final OpenSearchClient openSearchClient;
+
+	private final IndexApi indexApi;
+
+	private final String indexName;
+
+	private final String replicas;
+
+	private final Time refreshInterval;
+
+	/**
+	 * 原来的translog.durability，没有修改translog时为null
+	 */
+	private final String translogDurability;
+
+	private boolean closed;
+
+	private BulkLoadMode(OpenSearchClient openSearchClient, IndexApi indexApi, String indexName,
+			IndexSettings original, boolean asyncTranslog) {
+		this.openSearchClient = openSearchClient;
+		this.indexApi = indexApi;
+		this.indexName = indexName;
+		this.replicas = original.numberOfReplicas();
+		this.refreshInterval = original.refreshInterval() != null ? original.refreshInterval()
+				: Time.of(t -> t.time(DEFAULT_REFRESH_INTERVAL));
+		this.translogDurability = !asyncTranslog ? null
+				: original.translogDurability() != null ? original.translogDurability()
+						: DEFAULT_TRANSLOG_DURABILITY;
+	}
+
+	/**
+	 * 记下索引原来的设置并进入批量写入模式
+	 *
+	 * @param openSearchClient OpenSearchClient对象
+	 * @param indexApi         IndexApi对象
+	 * @param indexName        索引名
+	 * @param asyncTranslog    是否把translog改成异步刷盘，节点宕机时可能丢失最近几秒写入的数据
+	 * @return BulkLoadMode对象
+	 * @throws IOException 异常信息
+	 */
+	static BulkLoadMode enter(OpenSearchClient openSearchClient, IndexApi indexApi,
+			String indexName, boolean asyncTranslog) throws IOException {
+		// 扁平格式的key(index.refresh_interval等)可以直接反序列化成IndexSettings的字段
+		IndexState state = openSearchClient.indices()
+				.getSettings(g -> g.index(indexName).flatSettings(true)).get(indexName);
+		if (state == null || state.settings() == null) {
+			throw new IllegalStateException("no settings of index " + indexName);
+		}
+
+		BulkLoadMode mode = new BulkLoadMode(openSearchClient, indexApi, indexName,
+				state.settings(), asyncTranslog);
+
+		openSearchClient.indices().putSettings(p -> p.index(indexName).settings(s -> {
+			s.numberOfReplicas("0").refreshInterval(t -> t.time("-1"));
+			if (asyncTranslog) {
+				s.translogDurability("async");
+			}
+			return s;
+		}));
+
+		log.info("{} 进入批量写入模式，原副本数: {}, 原refresh间隔: {}", indexName, mode.replicas,
+				mode.refreshInterval);
+
+		return mode;
+	}
+
+	/**
+	 * 恢复原来的设置，refresh后等待集群状态变绿，超时只记录日志
+	 *
+	 * @throws IOException 异常信息
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		openSearchClient.indices().putSettings(p -> p.index(indexName).settings(s -> {
+			s.numberOfReplicas(replicas).refreshInterval(refreshInterval);
+			if (translogDurability != null) {
+				s.translogDurability(translogDurability);
+			}
+			return s;
+		}));
+		indexApi.refresh(indexName);
+
+		HealthResponse health = openSearchClient.cluster().health(h -> h.index(indexName)
+				.waitForStatus(HealthStatus.Green).timeout(t -> t.time(HEALTH_TIMEOUT)));
+
+		if (health.timedOut()) {
+			log.warn("{} 退出批量写入模式后等待集群变绿超时，状态: {}", indexName, health.status());
+		} else {
+			log.info("{} 退出批量写入模式，设置已恢复", indexName);
+		}
+	}
+}
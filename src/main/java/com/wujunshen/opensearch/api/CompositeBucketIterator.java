@@ -0,0 +1,138 @@
+package com.wujunshen.opensearch.api;
+
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.aggregations.CompositeAggregate;
+import org.opensearch.client.opensearch._types.aggregations.CompositeBucket;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch.core.SearchResponse;
+
+/**
+ * 基于composite聚合after_key的桶迭代器，按需一页一页拉取，内存中只保留当前一页的桶
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 15:20<br>
+ */
+@Slf4j
+class CompositeBucketIterator implements Iterator<CompositeBucket> {
+
+	/**
+	 * 请求中composite聚合的名字
+	 */
+	static final String AGGS_KEY = "composite";
+
+	private final OpenSearchClient openSearchClient;
+
+	private final String indexName;
+
+	private final Query query;
+
+	private final List<String> fields;
+
+	private final int pageSize;
+
+	private Map<String, String> afterKey;
+
+	private Iterator<CompositeBucket> page = Collections.emptyIterator();
+
+	private boolean exhausted;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param openSearchClient OpenSearchClient对象
+	 * @param indexName        索引名
+	 * @param query            query对象
+	 * @param fields           分组字段，每个字段对应一个terms source，source名就是字段名
+	 * @param pageSize         每页取多少个桶
+	 */
+	CompositeBucketIterator(OpenSearchClient openSearchClient, String indexName, Query query,
+			List<String> fields, int pageSize) {
+		this.openSearchClient = openSearchClient;
+		this.indexName = indexName;
+		this.query = query;
+		this.fields = fields;
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * 转成顺序Stream
+	 *
+	 * @return CompositeBucket对象的Stream
+	 */
+	Stream<CompositeBucket> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!page.hasNext() && !exhausted) {
+			fetchNextPage();
+		}
+		return page.hasNext();
+	}
+
+	@Override
+	public CompositeBucket next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return page.next();
+	}
+
+	private void fetchNextPage() {
+		SearchResponse<Void> response;
+		try {
+			response = openSearchClient.search(
+					SearchRequests.composite(indexName, query, AGGS_KEY, fields, pageSize, afterKey),
+					Void.class);
+		} catch (IOException e) {
+			exhausted = true;
+			throw new UncheckedIOException(e);
+		}
+
+		CompositeAggregate composite = response.aggregations().get(AGGS_KEY).composite();
+		List<CompositeBucket> buckets = composite.buckets().array();
+		page = buckets.iterator();
+
+		// 最后一页没有after_key，或者桶数少于页大小
+		if (composite.afterKey().isEmpty() || buckets.size() < pageSize) {
+			exhausted = true;
+		} else {
+			afterKey = toAfterKey(composite.afterKey(),
+					openSearchClient._transport().jsonpMapper());
+		}
+
+		log.debug("fetched {} composite buckets of {}", buckets.size(), indexName);
+	}
+
+	/**
+	 * 请求中的after只接受字符串，数值类型的key由集群按字段类型解析
+	 */
+	private static Map<String, String> toAfterKey(Map<String, JsonData> key, JsonpMapper mapper) {
+		Map<String, String> result = new LinkedHashMap<>();
+		key.forEach((name, value) -> {
+			JsonValue json = value.toJson(mapper);
+			result.put(name, json instanceof JsonString string ? string.getString() : json.toString());
+		});
+		return result;
+	}
+}
@@ -1,22 +1,41 @@
 package com.wujunshen.opensearch.api;
 
+import com.wujunshen.opensearch.batch.MgetBatcher;
+import com.wujunshen.opensearch.bulk.BulkExecutor;
+import com.wujunshen.opensearch.bulk.BulkResult;
+import com.wujunshen.opensearch.bulk.PublisherIterator;
+import com.wujunshen.opensearch.cache.QueryCache;
+import com.wujunshen.opensearch.config.BulkConfigProperties;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.opensearch.client.opensearch.OpenSearchClient;
-import org.opensearch.client.opensearch.core.BulkRequest;
-import org.opensearch.client.opensearch.core.BulkResponse;
+import org.opensearch.client.opensearch._types.Conflicts;
+import org.opensearch.client.opensearch._types.Refresh;
+import org.opensearch.client.opensearch.cat.indices.IndicesRecord;
+import org.opensearch.client.opensearch.core.DeleteByQueryResponse;
 import org.opensearch.client.opensearch.core.DeleteResponse;
 import org.opensearch.client.opensearch.core.GetResponse;
 import org.opensearch.client.opensearch.core.IndexResponse;
-import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.MgetResponse;
+import org.opensearch.client.opensearch.core.SearchRequest;
 import org.opensearch.client.opensearch.core.UpdateResponse;
-import org.opensearch.client.opensearch.core.bulk.BulkResponseItem;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.opensearch.core.mget.MultiGetResponseItem;
 import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.tasks.GetTasksResponse;
+import org.opensearch.client.opensearch.tasks.Status;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
 
 /**
  * @author frank woo(吴峻申) <br> email:<a
@@ -28,8 +47,31 @@ import org.springframework.util.CollectionUtils;
 @RequiredArgsConstructor
 public class DocumentApi {
 
+	/**
+	 * scroll每页拉取的文档数
+	 */
+	private static final int SCROLL_SIZE = 1000;
+
+	/**
+	 * scroll上下文保留时间
+	 */
+	private static final String SCROLL_KEEP_ALIVE = "1m";
+
+	/**
+	 * 轮询后台任务状态的间隔(毫秒)
+	 */
+	private static final long TASK_POLL_INTERVAL = 1000;
+
 	private final OpenSearchClient openSearchClient;
 
+	private final BulkConfigProperties bulkConfigProperties;
+
+	private final BulkExecutor bulkExecutor;
+
+	private final ObjectProvider<QueryCache> queryCache;
+
+	private final ObjectProvider<MgetBatcher> mgetBatcher;
+
 	/**
 	 * 单个文档写入
 	 *
@@ -40,10 +82,26 @@ public class DocumentApi {
 	 * @throws IOException 异常信息
 	 */
 	public <T> IndexResponse addDocument(String indexName, T o) throws IOException {
+		return addDocument(indexName, o, (Refresh) null);
+	}
+
+	/**
+	 * 单个文档写入，用Refresh.WaitFor时等到下一次周期refresh后返回，不额外生成segment
+	 *
+	 * @param indexName 索引名
+	 * @param o         文档对象
+	 * @param refresh   refresh策略，null表示不refresh
+	 * @param <T>       文档对象泛型
+	 * @return IndexResponse对象
+	 * @throws IOException 异常信息
+	 */
+	public <T> IndexResponse addDocument(String indexName, T o, Refresh refresh)
+			throws IOException {
 		IndexResponse indexResponse = openSearchClient.index(
-				indexRequest -> indexRequest.index(indexName).document(o));
+				indexRequest -> indexRequest.index(indexName).document(o).refresh(refresh));
 
 		log.info("response: {}", indexResponse);
+		invalidateCache(indexName);
 
 		return indexResponse;
 	}
@@ -59,10 +117,27 @@ public class DocumentApi {
 	 * @throws IOException 异常信息
 	 */
 	public <T> IndexResponse addDocument(String indexName, String id, T o) throws IOException {
+		return addDocument(indexName, id, o, null);
+	}
+
+	/**
+	 * 单个文档写入，用Refresh.WaitFor时等到下一次周期refresh后返回，不额外生成segment
+	 *
+	 * @param indexName 索引名
+	 * @param id        文档id
+	 * @param o         文档对象
+	 * @param refresh   refresh策略，null表示不refresh
+	 * @param <T>       文档对象泛型
+	 * @return IndexResponse对象
+	 * @throws IOException 异常信息
+	 */
+	public <T> IndexResponse addDocument(String indexName, String id, T o, Refresh refresh)
+			throws IOException {
 		IndexResponse indexResponse = openSearchClient.index(
-				indexRequest -> indexRequest.index(indexName).id(id).document(o));
+				indexRequest -> indexRequest.index(indexName).id(id).document(o).refresh(refresh));
 
 		log.info("response: {}", indexResponse);
+		invalidateCache(indexName);
 
 		return indexResponse;
 	}
@@ -80,16 +155,35 @@ public class DocumentApi {
 	 */
 	public <T> UpdateResponse<T> updateDocument(String indexName, T o, String id, Class<T> clazz)
 			throws IOException {
+		return updateDocument(indexName, o, id, clazz, null);
+	}
+
+	/**
+	 * 更新文档信息，用Refresh.WaitFor时等到下一次周期refresh后返回
+	 *
+	 * @param indexName 索引名
+	 * @param o         文档对象
+	 * @param id        要更新的文档对象id
+	 * @param clazz     要更新的文档对象class
+	 * @param refresh   refresh策略，null表示不refresh
+	 * @param <T>       文档对象泛型
+	 * @return UpdateResponse对象
+	 * @throws IOException 异常信息
+	 */
+	public <T> UpdateResponse<T> updateDocument(String indexName, T o, String id, Class<T> clazz,
+			Refresh refresh) throws IOException {
 		UpdateResponse<T> updateResponse = openSearchClient.update(
-				updateRequest -> updateRequest.index(indexName).id(id).doc(o), clazz);
+				updateRequest -> updateRequest.index(indexName).id(id).doc(o).refresh(refresh),
+				clazz);
 
 		log.info("response: {}", updateResponse);
+		invalidateCache(indexName);
 
 		return updateResponse;
 	}
 
 	/**
-	 * 查询文档信息
+	 * 查询文档信息，启用请求合并时和合并窗口内的其它查询合并成一次mget
 	 *
 	 * @param indexName 索引名
 	 * @param id        要查询的文档对象id
@@ -100,14 +194,38 @@ public class DocumentApi {
 	 */
 	public <T> GetResponse<T> getDocument(String indexName, String id, Class<T> clazz)
 			throws IOException {
-		GetResponse<T> getResponse = openSearchClient.get(
-				getRequest -> getRequest.index(indexName).id(id), clazz);
+		MgetBatcher batcher = mgetBatcher.getIfAvailable();
+		GetResponse<T> getResponse = batcher != null ? batcher.getDocument(indexName, id, clazz)
+				: openSearchClient.get(getRequest -> getRequest.index(indexName).id(id), clazz);
 
 		log.info("document source: {}, response: {}", getResponse.source(), getResponse);
 
 		return getResponse;
 	}
 
+	/**
+	 * 用mget批量查询文档信息，一次请求取回所有id
+	 *
+	 * @param indexName 索引名
+	 * @param ids       要查询的文档对象id列表
+	 * @param clazz     要查询的文档对象class
+	 * @param <T>       文档对象泛型
+	 * @return MultiGetResponseItem列表，顺序和ids一致，未找到的文档result().found()为false
+	 * @throws IOException 异常信息
+	 */
+	public <T> List<MultiGetResponseItem<T>> getDocuments(String indexName, List<String> ids,
+			Class<T> clazz) throws IOException {
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+
+		MgetResponse<T> mgetResponse = openSearchClient.mget(m -> m.index(indexName).ids(ids), clazz);
+
+		log.info("mget {} ids from {}", ids.size(), indexName);
+
+		return mgetResponse.docs();
+	}
+
 	/**
 	 * 获取索引下所有文档信息
 	 *
@@ -118,11 +236,11 @@ public class DocumentApi {
 	 * @throws IOException 异常信息
 	 */
 	public <T> List<T> getAllDocument(String indexName, Class<T> clazz) throws IOException {
-		SearchResponse<T> searchResponse = openSearchClient.search(a -> a.index(indexName), clazz);
-
-		List<Hit<T>> hitList = getHitList(searchResponse);
-
-		return hitList.stream().map(Hit::source).toList();
+		try (Stream<T> documents = streamAllDocument(indexName, clazz)) {
+			return documents.toList();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
 	}
 
 	/**
@@ -135,11 +253,47 @@ public class DocumentApi {
 	 * @throws IOException 异常信息
 	 */
 	public <T> List<String> getAllDocumentIds(String indexName, Class<T> clazz) throws IOException {
-		SearchResponse<T> searchResponse = openSearchClient.search(a -> a.index(indexName), clazz);
+		try (Stream<String> ids = streamAllDocumentIds(indexName)) {
+			return ids.toList();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * 用scroll按_doc顺序遍历索引下所有文档，按需一页一页拉取。
+	 * 返回的Stream需要关闭(例如try-with-resources)，提前结束时才能及时清理scroll上下文，
+	 * 遍历中的IO异常以UncheckedIOException抛出
+	 *
+	 * @param indexName 索引名
+	 * @param clazz     要查询的文档对象class
+	 * @param <T>       文档对象泛型
+	 * @return 文档对象Stream
+	 */
+	public <T> Stream<T> streamAllDocument(String indexName, Class<T> clazz) {
+		SearchRequest searchRequest = SearchRequest.of(s -> s.index(indexName).size(SCROLL_SIZE)
+				.scroll(t -> t.time(SCROLL_KEEP_ALIVE))
+				// _doc顺序是最省资源的遍历顺序
+				.sort(f -> f.field(o -> o.field("_doc"))));
+
+		return new ScrollIterator<>(openSearchClient, searchRequest, clazz, SCROLL_KEEP_ALIVE).stream()
+				.map(Hit::source);
+	}
 
-		List<Hit<T>> hitList = getHitList(searchResponse);
+	/**
+	 * 用scroll遍历索引下所有文档id，不返回_source。
+	 * 返回的Stream需要关闭，遍历中的IO异常以UncheckedIOException抛出
+	 *
+	 * @param indexName 索引名
+	 * @return 文档id Stream
+	 */
+	public Stream<String> streamAllDocumentIds(String indexName) {
+		SearchRequest searchRequest = SearchRequest.of(s -> s.index(indexName).size(SCROLL_SIZE)
+				.scroll(t -> t.time(SCROLL_KEEP_ALIVE)).source(sc -> sc.fetch(false))
+				.sort(f -> f.field(o -> o.field("_doc"))));
 
-		return hitList.stream().map(Hit::id).toList();
+		return new ScrollIterator<>(openSearchClient, searchRequest, Void.class, SCROLL_KEEP_ALIVE)
+				.stream().map(Hit::id);
 	}
 
 	/**
@@ -151,16 +305,31 @@ public class DocumentApi {
 	 * @throws IOException 异常信息
 	 */
 	public DeleteResponse deleteDocument(String indexName, String id) throws IOException {
+		return deleteDocument(indexName, id, null);
+	}
+
+	/**
+	 * 删除文档信息，用Refresh.WaitFor时等到下一次周期refresh后返回
+	 *
+	 * @param indexName 索引名
+	 * @param id        要删除的文档对象id
+	 * @param refresh   refresh策略，null表示不refresh
+	 * @return DeleteResponse对象
+	 * @throws IOException 异常信息
+	 */
+	public DeleteResponse deleteDocument(String indexName, String id, Refresh refresh)
+			throws IOException {
 		DeleteResponse deleteResponse = openSearchClient.delete(
-				deleteRequest -> deleteRequest.index(indexName).id(id));
+				deleteRequest -> deleteRequest.index(indexName).id(id).refresh(refresh));
 
 		log.info("response: {}, result:{}", deleteResponse, deleteResponse.result());
+		invalidateCache(indexName);
 
 		return deleteResponse;
 	}
 
 	/**
-	 * 删除所有文档信息
+	 * 删除所有文档信息，由服务端delete_by_query完成，不再把文档id拉到客户端
 	 *
 	 * @param indexName 索引名
 	 * @param clazz     文档对象泛型的class
@@ -169,89 +338,273 @@ public class DocumentApi {
 	 * @throws IOException 异常信息
 	 */
 	public <T> boolean deleteAllDocument(String indexName, Class<T> clazz) throws IOException {
-		return batchDeleteDocument(indexName, getAllDocumentIds(indexName, clazz));
+		GetTasksResponse response = deleteAllDocument(indexName, null, null);
+
+		return response.error() == null && (response.response() == null || response.response()
+				.failures().isEmpty());
 	}
 
 	/**
-	 * 批量插入文档
+	 * 用delete_by_query在服务端删除所有文档。按主分片数切片并行删除，异步提交后轮询tasks接口直到完成，
+	 * 超过opensearch.bulk.delete-by-query-timeout还没完成时取消任务并抛出异常
+	 *
+	 * @param indexName         索引名
+	 * @param requestsPerSecond 每秒最多删除的文档数，用于限流避免影响线上流量，null表示不限流
+	 * @param progressListener  进度回调，每次轮询到任务状态时调用，可以为null
+	 * @return 任务完成时的GetTasksResponse对象
+	 * @throws IOException 异常信息，等待超时时也抛出
+	 */
+	public GetTasksResponse deleteAllDocument(String indexName, Long requestsPerSecond,
+			Consumer<Status> progressListener) throws IOException {
+		long slices = getPrimaryShards(indexName);
+
+		DeleteByQueryResponse deleteByQueryResponse = openSearchClient.deleteByQuery(
+				d -> d.index(indexName).query(q -> q.matchAll(m -> m)).slices(slices)
+						// 有并发写入时跳过版本冲突的文档，不中断整个任务
+						.conflicts(Conflicts.Proceed).requestsPerSecond(requestsPerSecond)
+						.waitForCompletion(false));
+
+		String taskId = deleteByQueryResponse.task();
+		log.info("{} delete_by_query task: {}, slices: {}", indexName, taskId, slices);
+
+		long timeout = bulkConfigProperties.getDeleteByQueryTimeout();
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		while (true) {
+			GetTasksResponse getTasksResponse = openSearchClient.tasks().get(t -> t.taskId(taskId));
+			Status status = getTasksResponse.response();
+
+			if (status != null) {
+				log.info("{} delete_by_query progress: {}/{}", indexName, status.deleted(),
+						status.total());
+				if (progressListener != null) {
+					progressListener.accept(status);
+				}
+			}
+
+			if (getTasksResponse.completed()) {
+				invalidateCache(indexName);
+				if (getTasksResponse.error() != null) {
+					log.error("{} delete_by_query failed: {}", indexName,
+							getTasksResponse.error().reason());
+				}
+				return getTasksResponse;
+			}
+
+			if (timeout > 0 && System.nanoTime() - deadline > 0) {
+				cancelTask(indexName, taskId);
+				throw new IOException("delete_by_query task " + taskId + " of " + indexName
+						+ " did not complete in " + timeout + "ms and was cancelled");
+			}
+
+			try {
+				Thread.sleep(TASK_POLL_INTERVAL);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("interrupted while polling task " + taskId);
+			}
+		}
+	}
+
+	/**
+	 * 取消超时的delete_by_query任务，已经删除的文档不会恢复，所以同样要清掉查询缓存
+	 *
+	 * @param indexName 索引名
+	 * @param taskId    任务id
+	 */
+	private void cancelTask(String indexName, String taskId) {
+		try {
+			openSearchClient.tasks().cancel(c -> c.taskId(taskId));
+		} catch (IOException | RuntimeException e) {
+			log.warn("cancel delete_by_query task {} failed", taskId, e);
+		}
+		invalidateCache(indexName);
+	}
+
+	/**
+	 * 获取索引的主分片数，delete_by_query按主分片数切片，和slices=auto的效果一致
+	 *
+	 * @param indexName 索引名
+	 * @return 主分片数
+	 * @throws IOException 异常信息
+	 */
+	private long getPrimaryShards(String indexName) throws IOException {
+		List<IndicesRecord> indicesRecords = openSearchClient.cat()
+				.indices(i -> i.index(indexName)).valueBody();
+
+		return indicesRecords.stream().map(IndicesRecord::pri).filter(Objects::nonNull)
+				.mapToLong(Long::parseLong).sum();
+	}
+
+	/**
+	 * 批量插入文档，按配置的操作数和字节数上限自动拆分成多个bulk请求
 	 *
 	 * @param indexName 索引名
 	 * @param list      批量插入的文档对象list
 	 * @param <T>       文档对象泛型
-	 * @return 批量插入是否成功
+	 * @return BulkResult对象
 	 * @throws IOException 异常信息
 	 */
-	public <T> boolean batchAddDocument(String indexName, List<T> list) throws IOException {
-		BulkRequest.Builder br = new BulkRequest.Builder();
+	public <T> BulkResult batchAddDocument(String indexName, List<T> list) throws IOException {
+		return batchAddDocument(indexName, list, null);
+	}
 
-		for (T element : list) {
-			br.operations(op -> op.index(idx -> idx.index(indexName).document(element)));
-		}
+	/**
+	 * 批量插入文档，用Refresh.WaitFor时每个bulk请求都等到下一次周期refresh后返回
+	 *
+	 * @param indexName 索引名
+	 * @param list      批量插入的文档对象list
+	 * @param refresh   refresh策略，null表示不refresh
+	 * @param <T>       文档对象泛型
+	 * @return BulkResult对象
+	 * @throws IOException 异常信息
+	 */
+	public <T> BulkResult batchAddDocument(String indexName, List<T> list, Refresh refresh)
+			throws IOException {
+		return batchAddDocumentInChunks(indexName, list, bulkConfigProperties.getMaxOperations(),
+				bulkConfigProperties.getMaxBytes(), refresh);
+	}
+
+	/**
+	 * 分块批量插入文档
+	 *
+	 * @param indexName     索引名
+	 * @param list          批量插入的文档对象list
+	 * @param maxOperations 单个bulk请求最多包含的操作数
+	 * @param maxBytes      单个bulk请求体的最大字节数，小于等于0表示不限制
+	 * @param <T>           文档对象泛型
+	 * @return BulkResult对象，逐条结果顺序和list一致
+	 * @throws IOException 异常信息
+	 */
+	public <T> BulkResult batchAddDocumentInChunks(String indexName, List<T> list,
+			int maxOperations, long maxBytes) throws IOException {
+		return batchAddDocumentInChunks(indexName, list, maxOperations, maxBytes, null);
+	}
 
-		BulkResponse bulkResponse = openSearchClient.bulk(br.build());
+	private <T> BulkResult batchAddDocumentInChunks(String indexName, List<T> list,
+			int maxOperations, long maxBytes, Refresh refresh) throws IOException {
+		Iterator<BulkOperation> operations = list.stream().map(
+						element -> BulkOperation.of(op -> op.index(idx -> idx.index(indexName).document(element))))
+				.iterator();
 
-		if (bulkResponse.errors()) {
-			log.error("Bulk had errors");
-			for (BulkResponseItem item : bulkResponse.items()) {
-				if (item.error() != null) {
-					log.error("{}", item.error().reason());
-				}
-			}
-			return false;
-		} else {
-			log.info("Bulk write success!");
-			return true;
+		try {
+			return bulkExecutor.execute(operations, maxOperations, maxBytes, refresh);
+		} finally {
+			invalidateCache(indexName);
 		}
 	}
 
 	/**
-	 * 批量删除文档
+	 * 流式批量插入文档，数据源按需拉取，在途bulk请求达到上限时暂停拉取
 	 *
 	 * @param indexName 索引名
-	 * @param ids       批量删除的文档id的列表
+	 * @param documents 文档对象流
 	 * @param <T>       文档对象泛型
-	 * @return 批量删除是否成功
+	 * @return BulkResult对象，不包含逐条结果
 	 * @throws IOException 异常信息
 	 */
-	public <T> boolean batchDeleteDocument(String indexName, List<String> ids) throws IOException {
-		BulkRequest.Builder br = new BulkRequest.Builder();
-
-		for (String id : ids) {
-			br.operations(op -> op.delete(idx -> idx.index(indexName).id(id)));
+	public <T> BulkResult streamAddDocument(String indexName, Stream<T> documents)
+			throws IOException {
+		try (documents) {
+			return streamAddDocument(indexName, documents.iterator());
 		}
+	}
 
-		BulkResponse bulkResponse = openSearchClient.bulk(br.build());
+	/**
+	 * 流式批量插入文档，数据源按需拉取，在途bulk请求达到上限时暂停拉取
+	 *
+	 * @param indexName 索引名
+	 * @param documents 文档对象迭代器
+	 * @param <T>       文档对象泛型
+	 * @return BulkResult对象，不包含逐条结果
+	 * @throws IOException 异常信息
+	 */
+	public <T> BulkResult streamAddDocument(String indexName, Iterator<T> documents)
+			throws IOException {
+		Iterator<BulkOperation> operations = new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return documents.hasNext();
+			}
 
-		if (bulkResponse.errors()) {
-			log.error("Bulk had errors");
-			for (BulkResponseItem item : bulkResponse.items()) {
-				if (item.error() != null) {
-					log.error("{}", item.error().reason());
-				}
+			@Override
+			public BulkOperation next() {
+				T element = documents.next();
+				return BulkOperation.of(op -> op.index(idx -> idx.index(indexName).document(element)));
 			}
-			return false;
-		} else {
-			log.info("Bulk delete success!");
-			return true;
+		};
+
+		try {
+			return bulkExecutor.execute(operations, bulkConfigProperties.getMaxOperations(),
+					bulkConfigProperties.getMaxBytes(), bulkConfigProperties.getMaxConcurrentRequests());
+		} finally {
+			invalidateCache(indexName);
 		}
 	}
 
 	/**
-	 * 获取Hit对象列表
+	 * 流式批量插入文档，按消费进度向publisher请求数据，在途bulk请求达到上限时不再请求
 	 *
-	 * @param response SearchResponse对象
-	 * @param <T>      文档对象泛型
-	 * @return 文档对象Hit泛型列表
+	 * @param indexName 索引名
+	 * @param documents 文档对象publisher
+	 * @param <T>       文档对象泛型
+	 * @return BulkResult对象，不包含逐条结果
+	 * @throws IOException 异常信息
 	 */
-	private <T> List<Hit<T>> getHitList(SearchResponse<T> response) {
-		log.info("consume times {} mill second", response.took());
+	public <T> BulkResult streamAddDocument(String indexName, Flow.Publisher<T> documents)
+			throws IOException {
+		PublisherIterator<T> iterator = new PublisherIterator<>(
+				bulkConfigProperties.getMaxOperations());
+		documents.subscribe(iterator);
+
+		try {
+			return streamAddDocument(indexName, iterator);
+		} catch (IOException | RuntimeException e) {
+			iterator.cancel();
+			throw e;
+		}
+	}
 
-		List<Hit<T>> hitList = response.hits().hits();
+	/**
+	 * 批量删除文档，按配置的操作数和字节数上限自动拆分成多个bulk请求
+	 *
+	 * @param indexName 索引名
+	 * @param ids       批量删除的文档id的列表
+	 * @return BulkResult对象
+	 * @throws IOException 异常信息
+	 */
+	public BulkResult batchDeleteDocument(String indexName, List<String> ids) throws IOException {
+		return batchDeleteDocument(indexName, ids, null);
+	}
 
-		if (CollectionUtils.isEmpty(hitList)) {
-			return new ArrayList<>();
+	/**
+	 * 批量删除文档，用Refresh.WaitFor时每个bulk请求都等到下一次周期refresh后返回
+	 *
+	 * @param indexName 索引名
+	 * @param ids       批量删除的文档id的列表
+	 * @param refresh   refresh策略，null表示不refresh
+	 * @return BulkResult对象
+	 * @throws IOException 异常信息
+	 */
+	public BulkResult batchDeleteDocument(String indexName, List<String> ids, Refresh refresh)
+			throws IOException {
+		Iterator<BulkOperation> operations = ids.stream()
+				.map(id -> BulkOperation.of(op -> op.delete(idx -> idx.index(indexName).id(id))))
+				.iterator();
+
+		try {
+			return bulkExecutor.execute(operations, bulkConfigProperties.getMaxOperations(),
+					bulkConfigProperties.getMaxBytes(), refresh);
+		} finally {
+			invalidateCache(indexName);
 		}
+	}
 
-		return hitList;
+	/**
+	 * 索引有写入后清掉查询结果缓存中该索引的条目
+	 *
+	 * @param indexName 索引名
+	 */
+	private void invalidateCache(String indexName) {
+		queryCache.ifAvailable(cache -> cache.invalidate(indexName));
 	}
 }
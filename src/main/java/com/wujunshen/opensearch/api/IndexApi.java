@@ -1,9 +1,13 @@
 package com.wujunshen.opensearch.api;
 
+import com.wujunshen.opensearch.batch.RefreshCoalescer;
+import com.wujunshen.opensearch.cache.MappingCache;
+import com.wujunshen.opensearch.cache.QueryCache;
 import jakarta.json.Json;
 import jakarta.json.stream.JsonParser;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,10 +24,12 @@ import org.opensearch.client.opensearch.indices.CreateIndexResponse;
 import org.opensearch.client.opensearch.indices.DeleteIndexResponse;
 import org.opensearch.client.opensearch.indices.FlushResponse;
 import org.opensearch.client.opensearch.indices.GetIndexResponse;
-import org.opensearch.client.opensearch.indices.GetMappingResponse;
 import org.opensearch.client.opensearch.indices.RefreshResponse;
+import org.opensearch.client.opensearch.indices.UpdateAliasesResponse;
 import org.opensearch.client.opensearch.indices.get_mapping.IndexMappingRecord;
+import org.opensearch.client.opensearch.indices.update_aliases.Action;
 import org.opensearch.client.transport.endpoints.BooleanResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 /**
@@ -37,13 +43,19 @@ import org.springframework.stereotype.Component;
 public class IndexApi {
 	private final OpenSearchClient openSearchClient;
 
+	private final ObjectProvider<QueryCache> queryCache;
+
+	private final ObjectProvider<MappingCache> mappingCache;
+
+	private final ObjectProvider<RefreshCoalescer> refreshCoalescer;
+
 	/**
 	 * 执行refresh或flush操作
 	 *
 	 * @param response 相应对象
 	 * @return 操作是否成功，true成功 false失败
 	 */
-	private boolean doOperation(ShardStatistics response) {
+	static boolean doOperation(ShardStatistics response) {
 		int failedShards = response.failures().size();
 		if (failedShards == response.total().intValue()) {
 			log.info("ES索引刷新失败 {}", response.failures());
@@ -56,7 +68,7 @@ public class IndexApi {
 	}
 
 	/**
-	 * 创建索引
+	 * 创建索引，索引已存在时先删除，删除到重新写完数据之间查询没有结果。线上重建索引请用IndexRebuilder
 	 *
 	 * @param indexName 索引名
 	 * @return 是否创建成功
@@ -69,6 +81,7 @@ public class IndexApi {
 		// 写法比RestHighLevelClient更加简洁
 		CreateIndexResponse createIndexResponse = openSearchClient.indices()
 				.create(c -> c.index(indexName));
+		mappingCache.ifAvailable(cache -> cache.invalidate(indexName));
 
 		log.info("{} 索引创建是否成功: {}", indexName, createIndexResponse.acknowledged());
 
@@ -102,12 +115,14 @@ public class IndexApi {
 				.delete(d -> d.index(indexName));
 
 		log.info("{} 索引是否被删除: {}", indexName, deleteIndexResponse.acknowledged());
+		queryCache.ifAvailable(cache -> cache.invalidate(indexName));
+		mappingCache.ifAvailable(cache -> cache.invalidate(indexName));
 
 		return deleteIndexResponse.acknowledged();
 	}
 
 	/**
-	 * 创建索引 - 指定mapping
+	 * 创建索引 - 指定mapping，索引已存在时先删除
 	 *
 	 * @param indexName 索引名
 	 * @return 是否创建成功
@@ -123,6 +138,7 @@ public class IndexApi {
 				.create(createIndexRequest -> createIndexRequest.index(indexName)
 						// 用 lambda 的方式 下面的 mapping 会覆盖上面的 mapping
 						.mappings(typeMapping));
+		mappingCache.ifAvailable(cache -> cache.invalidate(indexName));
 
 		log.info("{} 索引创建是否成功: {}", indexName, createIndexResponse.acknowledged());
 
@@ -130,7 +146,7 @@ public class IndexApi {
 	}
 
 	/**
-	 * 创建索引 - 用json脚本创建mapping
+	 * 创建索引 - 用json脚本创建mapping，索引已存在时先删除
 	 *
 	 * @param indexName     索引名
 	 * @param mappingScript mapping的json脚本
@@ -148,6 +164,7 @@ public class IndexApi {
 		CreateIndexResponse createIndexResponse = openSearchClient.indices().create(
 				createIndexRequest -> createIndexRequest.index(indexName)
 						.mappings(TypeMapping._DESERIALIZER.deserialize(parser, mapper)));
+		mappingCache.ifAvailable(cache -> cache.invalidate(indexName));
 
 		log.info("{} 索引创建是否成功: {}", indexName, createIndexResponse.acknowledged());
 
@@ -180,8 +197,12 @@ public class IndexApi {
 		GetIndexResponse getIndexResponse = openSearchClient.indices()
 				.get(getIndexRequest -> getIndexRequest.index(indexName));
 
-		Map<String, Property> properties = Objects.requireNonNull(
-				Objects.requireNonNull(getIndexResponse.get(indexName)).mappings()).properties();
+		TypeMapping typeMapping = Objects.requireNonNull(
+				Objects.requireNonNull(getIndexResponse.get(indexName)).mappings());
+		// 已经取到了mapping，顺便放进缓存
+		mappingCache.ifAvailable(cache -> cache.put(indexName, typeMapping));
+
+		Map<String, Property> properties = typeMapping.properties();
 
 		for (Map.Entry<String, Property> entry : properties.entrySet()) {
 			log.info("{} 索引的详细信息为: key: {}, property: {}", indexName, entry.getKey(),
@@ -205,16 +226,16 @@ public class IndexApi {
 	}
 
 	/**
-	 * 获取Mapping信息
+	 * 获取Mapping信息，只读取指定索引的mapping，启用mapping缓存时优先从缓存中取
 	 *
-	 * @param indexName 索引名
+	 * @param indexName 索引名，也可以是只指向一个索引的别名
 	 * @return TypeMapping对象
 	 * @throws IOException 异常信息
 	 */
 	public TypeMapping getMapping(String indexName) throws IOException {
-		GetMappingResponse getMappingResponse = openSearchClient.indices().getMapping();
-
-		TypeMapping typeMapping = getMappingResponse.result().get(indexName).mappings();
+		MappingCache cache = mappingCache.getIfAvailable();
+		TypeMapping typeMapping = cache != null ? cache.get(indexName, () -> loadMapping(indexName))
+				: loadMapping(indexName);
 
 		log.info("typeMapping is:{}", typeMapping);
 
@@ -222,38 +243,108 @@ public class IndexApi {
 	}
 
 	/**
-	 * 获取所有Mapping信息
+	 * 获取所有Mapping信息，启用mapping缓存时优先从缓存中取
 	 *
 	 * @return Map<String, TypeMapping>对象，key就是索引名，value是TypeMapping对象
 	 * @throws IOException 异常信息
 	 */
 	public Map<String, TypeMapping> getAllMappings() throws IOException {
-		Map<String, IndexMappingRecord> indexMappingRecordMap = openSearchClient.indices().getMapping()
-				.result();
+		MappingCache cache = mappingCache.getIfAvailable();
+		return cache != null ? cache.getAll(this::loadAllMappings) : loadAllMappings();
+	}
 
-		Map<String, TypeMapping> result = new HashMap<>(indexMappingRecordMap.size());
+	/**
+	 * 获取别名指向的所有索引
+	 *
+	 * @param alias 别名
+	 * @return 索引名列表，别名不存在时返回空列表
+	 * @throws IOException 异常信息
+	 */
+	public List<String> getAliasIndices(String alias) throws IOException {
+		if (!openSearchClient.indices().existsAlias(e -> e.name(alias)).value()) {
+			return List.of();
+		}
 
-		for (Map.Entry<String, IndexMappingRecord> entry : indexMappingRecordMap.entrySet()) {
-			String key = entry.getKey();
-			TypeMapping typeMapping = indexMappingRecordMap.get(key).mappings();
-			log.info("索引的详细信息为: key: {}, property: {}", key, typeMapping);
+		return openSearchClient.indices().getAlias(g -> g.name(alias)).result().keySet().stream()
+				.sorted().toList();
+	}
 
-			result.put(key, typeMapping);
+	/**
+	 * 把别名原子地切换到指定索引，别名原来指向的索引在同一个请求中移除别名，查询不会看到空结果。
+	 * 如果别名同名的旧索引存在(以前直接用索引名读写)，会在同一个请求中删除该索引，换成别名
+	 *
+	 * @param alias     别名
+	 * @param indexName 切换到的索引名
+	 * @return 是否切换成功
+	 * @throws IOException 异常信息
+	 */
+	public boolean switchAlias(String alias, String indexName) throws IOException {
+		List<String> current = getAliasIndices(alias);
+		boolean concreteIndex = current.isEmpty() && isExistedIndex(alias);
+
+		List<Action> actions = new ArrayList<>();
+		current.stream().filter(index -> !index.equals(indexName)).forEach(
+				index -> actions.add(Action.of(a -> a.remove(r -> r.index(index).alias(alias)))));
+		if (concreteIndex) {
+			log.warn("{} 是索引而不是别名，切换时删除该索引", alias);
+			actions.add(Action.of(a -> a.removeIndex(r -> r.index(alias))));
 		}
+		actions.add(Action.of(a -> a.add(add -> add.index(indexName).alias(alias))));
 
-		return result;
+		UpdateAliasesResponse response = openSearchClient.indices()
+				.updateAliases(u -> u.actions(actions));
+
+		log.info("别名 {} 从 {} 切换到 {}: {}", alias, current, indexName, response.acknowledged());
+		queryCache.ifAvailable(cache -> cache.invalidate(alias));
+		mappingCache.ifAvailable(cache -> cache.invalidate(alias));
+
+		return response.acknowledged();
 	}
 
 	/**
-	 * 索引refresh
+	 * 进入批量写入模式，关闭refresh、副本数设为0，关闭返回的对象时恢复原来的设置
+	 *
+	 * @param indexName 索引名
+	 * @return BulkLoadMode对象，配合try-with-resources使用
+	 * @throws IOException 异常信息
+	 */
+	public BulkLoadMode bulkLoadMode(String indexName) throws IOException {
+		return bulkLoadMode(indexName, false);
+	}
+
+	/**
+	 * 进入批量写入模式
+	 *
+	 * @param indexName     索引名
+	 * @param asyncTranslog 是否同时把translog改成异步刷盘，不再每个请求fsync，节点宕机时可能丢失最近几秒写入的数据
+	 * @return BulkLoadMode对象，配合try-with-resources使用
+	 * @throws IOException 异常信息
+	 */
+	public BulkLoadMode bulkLoadMode(String indexName, boolean asyncTranslog) throws IOException {
+		return BulkLoadMode.enter(openSearchClient, this, indexName, asyncTranslog);
+	}
+
+	/**
+	 * 索引refresh。每次refresh都会生成新的segment，启用RefreshCoalescer后同一索引的并发refresh合并成一次，
+	 * 只需要读到自己写入的文档时，写入时用Refresh.WaitFor代替
 	 *
 	 * @param indexName 索引名
 	 * @return refresh是否成功，true成功 false失败
 	 * @throws IOException 异常信息
 	 */
 	public boolean refresh(String indexName) throws IOException {
+		RefreshCoalescer coalescer = refreshCoalescer.getIfAvailable();
+		if (coalescer != null) {
+			return coalescer.refresh(indexName, () -> doRefresh(indexName));
+		}
+		return doRefresh(indexName);
+	}
+
+	private boolean doRefresh(String indexName) throws IOException {
 		RefreshResponse response = openSearchClient.indices()
 				.refresh(request -> request.index(indexName));
+		// refresh之后新写入的文档才能被查到，缓存的旧结果要清掉
+		queryCache.ifAvailable(cache -> cache.invalidate(indexName));
 
 		return doOperation(response.shards());
 	}
@@ -270,4 +361,35 @@ public class IndexApi {
 
 		return doOperation(response.shards());
 	}
+
+	/**
+	 * 读取单个索引的mapping，请求中带上索引名，不下载集群中所有索引的mapping
+	 */
+	private TypeMapping loadMapping(String indexName) throws IOException {
+		Map<String, IndexMappingRecord> result = openSearchClient.indices()
+				.getMapping(g -> g.index(indexName)).result();
+
+		// 别名查询时返回的key是实际的索引名
+		IndexMappingRecord indexMappingRecord = result.containsKey(indexName) ? result.get(indexName)
+				: result.values().iterator().next();
+
+		return indexMappingRecord.mappings();
+	}
+
+	private Map<String, TypeMapping> loadAllMappings() throws IOException {
+		Map<String, IndexMappingRecord> indexMappingRecordMap = openSearchClient.indices().getMapping()
+				.result();
+
+		Map<String, TypeMapping> result = new HashMap<>(indexMappingRecordMap.size());
+
+		for (Map.Entry<String, IndexMappingRecord> entry : indexMappingRecordMap.entrySet()) {
+			String key = entry.getKey();
+			TypeMapping typeMapping = indexMappingRecordMap.get(key).mappings();
+			log.info("索引的详细信息为: key: {}, property: {}", key, typeMapping);
+
+			result.put(key, typeMapping);
+		}
+
+		return result;
+	}
 }
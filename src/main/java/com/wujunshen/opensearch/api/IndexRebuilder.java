@@ -0,0 +1,192 @@
+package com.wujunshen.opensearch.api;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.mapping.TypeMapping;
+import org.opensearch.client.opensearch.indices.IndexSettings;
+import org.opensearch.client.opensearch.indices.IndexState;
+import org.springframework.stereotype.Component;
+
+/**
+ * 基于别名的零停机索引重建。每次重建创建一个带时间戳的新一代物理索引(别名-yyyyMMddHHmmssSSS)，
+ * 以0副本、关闭refresh的方式写入数据，恢复设置并预热后原子地把别名切换过去，旧的几代索引保留用于回滚
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 17:30<br>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndexRebuilder {
+
+	/**
+	 * 默认保留的索引代数，包括当前别名指向的一代
+	 */
+	static final int DEFAULT_KEEP_GENERATIONS = 3;
+
+	private static final DateTimeFormatter GENERATION_FORMATTER = DateTimeFormatter.ofPattern(
+			"yyyyMMddHHmmssSSS");
+
+	private final OpenSearchClient openSearchClient;
+
+	private final IndexApi indexApi;
+
+	/**
+	 * 重建别名对应的索引，保留默认代数的旧索引
+	 *
+	 * @param alias       别名，读写都使用别名
+	 * @param typeMapping 新一代索引的mapping
+	 * @param loader      向新一代索引写入数据
+	 * @return 新一代索引名
+	 * @throws IOException 异常信息
+	 */
+	public String rebuild(String alias, TypeMapping typeMapping, Loader loader)
+			throws IOException {
+		return rebuild(alias, typeMapping, loader, DEFAULT_KEEP_GENERATIONS);
+	}
+
+	/**
+	 * 重建别名对应的索引。写入失败时删除新一代索引，别名仍然指向原来的索引
+	 *
+	 * @param alias           别名，读写都使用别名
+	 * @param typeMapping     新一代索引的mapping
+	 * @param loader          向新一代索引写入数据
+	 * @param keepGenerations 保留的索引代数，包括新的一代，至少为1
+	 * @return 新一代索引名
+	 * @throws IOException 异常信息
+	 */
+	public String rebuild(String alias, TypeMapping typeMapping, Loader loader, int keepGenerations)
+			throws IOException {
+		IndexSettings previous = currentSettings(alias);
+
+		String indexName = alias + "-" + LocalDateTime.now().format(GENERATION_FORMATTER);
+
+		// 新一代沿用当前这一代的副本数和refresh间隔，批量写入模式结束时恢复的就是这些设置
+		openSearchClient.indices().create(c -> c.index(indexName).mappings(typeMapping)
+				.settings(s -> previous == null ? s
+						: s.numberOfReplicas(previous.numberOfReplicas())
+								.refreshInterval(previous.refreshInterval())));
+		log.info("{} 新一代索引 {} 创建成功", alias, indexName);
+
+		try {
+			// 写入失败时索引直接删除，不需要恢复设置，所以不用try-with-resources
+			BulkLoadMode bulkLoadMode = indexApi.bulkLoadMode(indexName);
+			loader.load(indexName);
+			bulkLoadMode.close();
+
+			warm(indexName);
+		} catch (IOException | RuntimeException e) {
+			log.error("{} 新一代索引 {} 写入失败，别名保持不变", alias, indexName, e);
+			try {
+				indexApi.deleteIndex(indexName);
+			} catch (IOException | RuntimeException deleteFailure) {
+				e.addSuppressed(deleteFailure);
+			}
+			throw e;
+		}
+
+		indexApi.switchAlias(alias, indexName);
+		deleteOldGenerations(alias, Math.max(1, keepGenerations));
+
+		return indexName;
+	}
+
+	/**
+	 * 把别名切回上一代索引
+	 *
+	 * @param alias 别名
+	 * @return 切换到的索引名
+	 * @throws IOException 异常信息
+	 */
+	public String rollback(String alias) throws IOException {
+		List<String> generations = getGenerations(alias);
+		List<String> current = indexApi.getAliasIndices(alias);
+
+		int position = current.isEmpty() ? -1 : generations.indexOf(current.get(0));
+		if (position < 1) {
+			throw new IllegalStateException("no generation of " + alias + " before " + current);
+		}
+
+		String previous = generations.get(position - 1);
+		indexApi.switchAlias(alias, previous);
+
+		return previous;
+	}
+
+	/**
+	 * 获取别名的所有代索引
+	 *
+	 * @param alias 别名
+	 * @return 按创建时间从旧到新排列的索引名
+	 * @throws IOException 异常信息
+	 */
+	public List<String> getGenerations(String alias) throws IOException {
+		Pattern pattern = Pattern.compile(Pattern.quote(alias) + "-\\d{17}");
+
+		return openSearchClient.indices().get(g -> g.index(alias + "-*")).result().keySet().stream()
+				.filter(index -> pattern.matcher(index).matches()).sorted().toList();
+	}
+
+	/**
+	 * 别名当前指向的索引设置，别名不存在时取同名索引的设置
+	 */
+	private IndexSettings currentSettings(String alias) throws IOException {
+		List<String> current = indexApi.getAliasIndices(alias);
+		String source = current.isEmpty() ? alias : current.get(0);
+		if (current.isEmpty() && !indexApi.isExistedIndex(alias)) {
+			return null;
+		}
+
+		IndexState state = openSearchClient.indices().getSettings(g -> g.index(source)).get(source);
+		if (state == null || state.settings() == null) {
+			return null;
+		}
+		IndexSettings settings = state.settings();
+		return settings.index() != null ? settings.index() : settings;
+	}
+
+	/**
+	 * 切换前先查一次，让segment和缓存加载起来
+	 */
+	private void warm(String indexName) throws IOException {
+		long count = openSearchClient.search(s -> s.index(indexName).size(0)
+				.trackTotalHits(t -> t.enabled(true)), Void.class).hits().total().value();
+
+		log.info("{} 预热完成，文档数: {}", indexName, count);
+	}
+
+	private void deleteOldGenerations(String alias, int keepGenerations) throws IOException {
+		List<String> generations = getGenerations(alias);
+		List<String> current = indexApi.getAliasIndices(alias);
+
+		List<String> expired = generations.subList(0,
+				Math.max(0, generations.size() - keepGenerations));
+		for (String index : expired) {
+			if (!current.contains(index)) {
+				indexApi.deleteIndex(index);
+			}
+		}
+	}
+
+	/**
+	 * 向新一代索引写入数据，例如用DocumentApi.streamAddDocument或BulkIngester
+	 */
+	@FunctionalInterface
+	public interface Loader {
+
+		/**
+		 * 写入数据
+		 *
+		 * @param indexName 新一代索引名
+		 * @throws IOException 异常信息
+		 */
+		void load(String indexName) throws IOException;
+	}
+}
@@ -0,0 +1,86 @@
+package com.wujunshen.opensearch.api;
+
+import jakarta.json.stream.JsonParser.Event;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.JsonpUtils;
+import org.opensearch.client.json.NdJsonpSerializable;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.msearch.MultiSearchResponseItem;
+import org.opensearch.client.opensearch.core.msearch.MultisearchHeader;
+import org.opensearch.client.transport.endpoints.SimpleEndpoint;
+
+/**
+ * _msearch请求。客户端自带的MsearchRequest请求体不支持sort、highlight等字段，响应也只能是同一种文档class，
+ * 所以这里直接把SearchRequest的请求体写成ndjson，并按每个查询自己的文档class反序列化响应
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 09:50<br>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class MsearchEndpoint {
+
+	/**
+	 * 构造msearch的endpoint，响应的反序列化方式取决于每个查询的文档class
+	 *
+	 * @param specs 查询列表
+	 * @return endpoint对象
+	 */
+	static SimpleEndpoint<Body, List<MultiSearchResponseItem<?>>> of(
+			List<? extends SearchSpec<?>> specs) {
+		List<JsonpDeserializer<? extends MultiSearchResponseItem<?>>> deserializers = specs.stream()
+				.<JsonpDeserializer<? extends MultiSearchResponseItem<?>>>map(
+						spec -> MultiSearchResponseItem.createMultiSearchResponseItemDeserializer(
+								JsonpDeserializer.of(spec.getClazz()))).toList();
+
+		JsonpDeserializer<List<MultiSearchResponseItem<?>>> responseDeserializer = JsonpDeserializer.of(
+				EnumSet.of(Event.START_OBJECT), (parser, mapper, startEvent) -> {
+					List<MultiSearchResponseItem<?>> items = new ArrayList<>(specs.size());
+
+					Event event;
+					while ((event = parser.next()) != Event.END_OBJECT) {
+						String name = JsonpUtils.expectKeyName(parser, event);
+						if (!"responses".equals(name)) {
+							JsonpUtils.skipValue(parser);
+							continue;
+						}
+
+						JsonpUtils.expectNextEvent(parser, Event.START_ARRAY);
+						while ((event = parser.next()) != Event.END_ARRAY) {
+							items.add(deserializers.get(items.size()).deserialize(parser, mapper, event));
+						}
+					}
+					return items;
+				});
+
+		return new SimpleEndpoint<>(request -> "POST", request -> "/_msearch",
+				SimpleEndpoint.emptyMap(), SimpleEndpoint.emptyMap(), true, responseDeserializer);
+	}
+
+	/**
+	 * msearch请求体，每个查询写成header和body两行
+	 *
+	 * @param specs 查询列表
+	 */
+	record Body(List<? extends SearchSpec<?>> specs) implements NdJsonpSerializable {
+
+		@Override
+		public Iterator<?> _serializables() {
+			List<Object> lines = new ArrayList<>(specs.size() * 2);
+			for (SearchSpec<?> spec : specs) {
+				SearchRequest request = spec.getRequest();
+				lines.add(MultisearchHeader.of(h -> h.index(request.index()).routing(request.routing())
+						.preference(request.preference())));
+				// SearchRequest只序列化请求体，url参数放在header里
+				lines.add(request);
+			}
+			return lines.iterator();
+		}
+	}
+}
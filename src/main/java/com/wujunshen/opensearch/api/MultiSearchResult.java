@@ -0,0 +1,79 @@
+package com.wujunshen.opensearch.api;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.msearch.MultiSearchResponseItem;
+
+/**
+ * msearch的结果，按SearchSpec取回各自类型的SearchResponse，单个查询失败不影响其它查询
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 09:40<br>
+ */
+public class MultiSearchResult {
+
+	private final Map<SearchSpec<?>, MultiSearchResponseItem<?>> items;
+
+	MultiSearchResult(List<? extends SearchSpec<?>> specs, List<MultiSearchResponseItem<?>> items) {
+		if (specs.size() != items.size()) {
+			throw new IllegalStateException(
+					"msearch returned " + items.size() + " responses for " + specs.size() + " searches");
+		}
+
+		this.items = new IdentityHashMap<>(specs.size());
+		for (int i = 0; i < specs.size(); i++) {
+			this.items.put(specs.get(i), items.get(i));
+		}
+	}
+
+	/**
+	 * 查询是否成功
+	 *
+	 * @param spec 查询
+	 * @return 成功返回true
+	 */
+	public boolean isSuccess(SearchSpec<?> spec) {
+		return item(spec).isResult();
+	}
+
+	/**
+	 * 获取查询结果
+	 *
+	 * @param spec 查询
+	 * @param <T>  文档对象泛型
+	 * @return SearchResponse对象
+	 * @throws OpenSearchException 这个查询失败
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> SearchResponse<T> get(SearchSpec<T> spec) {
+		MultiSearchResponseItem<?> item = item(spec);
+		if (item.isFailure()) {
+			throw new OpenSearchException(item.failure());
+		}
+		return (SearchResponse<T>) item.result();
+	}
+
+	/**
+	 * 获取查询结果中的文档对象
+	 *
+	 * @param spec 查询
+	 * @param <T>  文档对象泛型
+	 * @return 文档对象列表
+	 * @throws OpenSearchException 这个查询失败
+	 */
+	public <T> List<T> getSources(SearchSpec<T> spec) {
+		return QueryApi.getSources(get(spec));
+	}
+
+	private MultiSearchResponseItem<?> item(SearchSpec<?> spec) {
+		MultiSearchResponseItem<?> item = items.get(spec);
+		if (item == null) {
+			throw new IllegalArgumentException("search spec is not part of this msearch");
+		}
+		return item;
+	}
+}
@@ -0,0 +1,208 @@
+package com.wujunshen.opensearch.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch.core.GetRequest;
+import org.opensearch.client.opensearch.core.MgetRequest;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+
+/**
+ * 查询结果的字段投影，只让集群返回需要的字段，减少传输和反序列化的数据量。
+ * 配合只包含这些字段的轻量class(例如record)使用，列表页不必解析完整的文档
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 14:10<br>
+ */
+@Value
+@Builder
+public class Projection {
+
+	/**
+	 * _source中要返回的字段，支持通配符，为空表示全部
+	 */
+	@Singular
+	List<String> includes;
+
+	/**
+	 * _source中不返回的字段，支持通配符
+	 */
+	@Singular
+	List<String> excludes;
+
+	/**
+	 * 从doc_values读取的字段(docvalue_fields)，不需要解析_source
+	 */
+	@Singular
+	List<String> docvalueFields;
+
+	/**
+	 * mapping中store为true的字段(stored_fields)
+	 */
+	@Singular
+	List<String> storedFields;
+
+	/**
+	 * 是否返回_source，只需要docvalue_fields或stored_fields时设为false
+	 */
+	@Builder.Default
+	boolean fetchSource = true;
+
+	/**
+	 * 只返回_source中的指定字段
+	 *
+	 * @param includes 要返回的字段
+	 * @return Projection对象
+	 */
+	public static Projection includes(String... includes) {
+		return Projection.builder().includes(List.of(includes)).build();
+	}
+
+	/**
+	 * 不返回_source，只从doc_values读取指定字段，适合keyword、数值、日期等字段
+	 *
+	 * @param docvalueFields 要读取的字段
+	 * @return Projection对象
+	 */
+	public static Projection docvalueFields(String... docvalueFields) {
+		return Projection.builder().docvalueFields(List.of(docvalueFields)).fetchSource(false)
+				.build();
+	}
+
+	/**
+	 * 是否需要把hit中的fields合并进文档对象
+	 *
+	 * @return 指定了docvalue_fields或stored_fields返回true
+	 */
+	boolean hasFields() {
+		return !docvalueFields.isEmpty() || !storedFields.isEmpty();
+	}
+
+	/**
+	 * 把投影设置到查询请求上
+	 *
+	 * @param builder 查询请求builder
+	 */
+	void apply(SearchRequest.Builder builder) {
+		if (!fetchSource) {
+			builder.source(s -> s.fetch(false));
+		} else if (!includes.isEmpty() || !excludes.isEmpty()) {
+			builder.source(s -> s.filter(f -> f.includes(includes).excludes(excludes)));
+		}
+
+		docvalueFields.forEach(field -> builder.docvalueFields(f -> f.field(field)));
+
+		if (!storedFields.isEmpty()) {
+			// 指定stored_fields后_source默认不再返回，需要时显式加上_source
+			builder.storedFields(fetchSource ? concat(storedFields, "_source") : storedFields);
+		}
+	}
+
+	/**
+	 * 把投影中的_source过滤设置到get请求上，get不支持docvalue_fields，stored_fields只在GetResult.fields()中返回
+	 *
+	 * @param projection 字段投影，null时不做处理
+	 * @param builder    get请求builder
+	 * @return get请求builder
+	 */
+	static GetRequest.Builder apply(Projection projection, GetRequest.Builder builder) {
+		if (projection != null) {
+			if (!projection.fetchSource) {
+				builder.source(s -> s.fetch(false));
+			}
+			builder.sourceIncludes(projection.includes).sourceExcludes(projection.excludes)
+					.storedFields(projection.storedFields);
+		}
+		return builder;
+	}
+
+	/**
+	 * 把投影中的_source过滤设置到mget请求上，和get请求的处理方式相同
+	 *
+	 * @param projection 字段投影，null时不做处理
+	 * @param builder    mget请求builder
+	 * @return mget请求builder
+	 */
+	static MgetRequest.Builder apply(Projection projection, MgetRequest.Builder builder) {
+		if (projection != null) {
+			if (!projection.fetchSource) {
+				builder.source(s -> s.fetch(false));
+			}
+			builder.sourceIncludes(projection.includes).sourceExcludes(projection.excludes)
+					.storedFields(projection.storedFields);
+		}
+		return builder;
+	}
+
+	/**
+	 * 把按JsonData查询得到的结果转换成文档对象，hit中的fields合并到_source里再反序列化
+	 *
+	 * @param response 按JsonData查询得到的结果
+	 * @param clazz    文档对象class
+	 * @param mapper   JsonpMapper对象
+	 * @param <T>      文档对象泛型
+	 * @return 文档对象的SearchResponse
+	 */
+	static <T> SearchResponse<T> project(SearchResponse<JsonData> response, Class<T> clazz,
+			JsonpMapper mapper) {
+		List<Hit<T>> hits = response.hits().hits().stream().map(hit -> Hit.<T>of(
+				h -> h.index(hit.index()).id(hit.id()).score(hit.score()).sort(hit.sort())
+						.highlight(hit.highlight()).fields(hit.fields()).routing(hit.routing())
+						.source(toDocument(hit, clazz, mapper)))).toList();
+
+		return SearchResponse.searchResponseOf(r -> r.took(response.took())
+				.timedOut(response.timedOut()).shards(response.shards())
+				.aggregations(response.aggregations()).scrollId(response.scrollId())
+				.hits(h -> h.total(response.hits().total()).maxScore(response.hits().maxScore())
+						.hits(hits)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T toDocument(Hit<JsonData> hit, Class<T> clazz, JsonpMapper mapper) {
+		Map<String, Object> document = new LinkedHashMap<>();
+		// 用具体类型转换，Map或Object会直接拿到jakarta的JsonValue
+		if (hit.source() != null) {
+			document.putAll(hit.source().to(LinkedHashMap.class, mapper));
+		}
+
+		hit.fields().forEach((name, value) -> {
+			// fields的值总是数组，单值字段取出唯一的元素
+			List<Object> values = value.to(ArrayList.class, mapper);
+			Object field = values.size() == 1 ? values.get(0) : values;
+			put(document, name.split("\\."), 0, field);
+		});
+
+		return JsonData.of(document).to(clazz, mapper);
+	}
+
+	/**
+	 * 按点号拆开的字段路径放进嵌套对象，例如skus.skuName放到skus对象的skuName字段
+	 */
+	@SuppressWarnings("unchecked")
+	private static void put(Map<String, Object> object, String[] path, int depth, Object value) {
+		if (depth == path.length - 1) {
+			object.putIfAbsent(path[depth], value);
+			return;
+		}
+
+		Object child = object.computeIfAbsent(path[depth], key -> new LinkedHashMap<>());
+		// 路径上已经是非对象的值，以_source为准
+		if (child instanceof Map<?, ?> nested) {
+			put((Map<String, Object>) nested, path, depth + 1, value);
+		}
+	}
+
+	private static List<String> concat(List<String> list, String element) {
+		return Stream.concat(list.stream(), Stream.of(element)).toList();
+	}
+}
@@ -1,24 +1,29 @@
 package com.wujunshen.opensearch.api;
 
+import com.wujunshen.opensearch.cache.QueryCache;
+import com.wujunshen.opensearch.cache.SearchCoalescer;
+import com.wujunshen.opensearch.cache.SearchLoader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.opensearch.client.json.JsonData;
 import org.opensearch.client.opensearch.OpenSearchClient;
-import org.opensearch.client.opensearch._types.FieldValue;
-import org.opensearch.client.opensearch._types.SortOrder;
+import org.opensearch.client.opensearch._types.aggregations.CompositeBucket;
 import org.opensearch.client.opensearch._types.aggregations.HistogramBucket;
 import org.opensearch.client.opensearch._types.query_dsl.ChildScoreMode;
-import org.opensearch.client.opensearch._types.query_dsl.DisMaxQuery;
-import org.opensearch.client.opensearch._types.query_dsl.MatchQuery;
 import org.opensearch.client.opensearch._types.query_dsl.Query;
-import org.opensearch.client.opensearch._types.query_dsl.QueryBuilders;
 import org.opensearch.client.opensearch.core.GetResponse;
+import org.opensearch.client.opensearch.core.MgetResponse;
+import org.opensearch.client.opensearch.core.SearchRequest;
 import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.mget.MultiGetResponseItem;
+import org.opensearch.client.opensearch.core.msearch.MultiSearchResponseItem;
 import org.opensearch.client.opensearch.core.search.Hit;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -36,6 +41,59 @@ public class QueryApi {
 
 	private final OpenSearchClient openSearchClient;
 
+	private final ObjectProvider<QueryCache> queryCache;
+
+	private final ObjectProvider<SearchCoalescer> searchCoalescer;
+
+	/**
+	 * 字段投影，null表示返回完整的_source
+	 */
+	private Projection projection;
+
+	/**
+	 * 返回使用字段投影的QueryApi，所有查询方法只取投影中的字段，文档对象可以是只包含这些字段的轻量class
+	 *
+	 * @param projection 字段投影，null表示返回完整的_source
+	 * @return 新的QueryApi对象，当前对象不受影响
+	 */
+	public QueryApi withProjection(Projection projection) {
+		QueryApi queryApi = new QueryApi(openSearchClient, queryCache, searchCoalescer);
+		queryApi.projection = projection;
+		return queryApi;
+	}
+
+	/**
+	 * 执行查询，启用了查询结果缓存时优先从缓存中取，缓存未命中时再经过相同查询合并，
+	 * 缓存条目过期瞬间的大量相同查询只会有一个发到集群
+	 *
+	 * @param request 查询请求
+	 * @param clazz   文档对象class
+	 * @param <T>     文档对象泛型
+	 * @return SearchResponse对象
+	 * @throws IOException 异常信息
+	 */
+	private <T> SearchResponse<T> search(SearchRequest request, Class<T> clazz) throws IOException {
+		if (projection != null && projection.hasFields()) {
+			// docvalue_fields和stored_fields不在_source里，先按JsonData取回再和_source合并成文档对象
+			return Projection.project(execute(request, JsonData.class), clazz,
+					openSearchClient._transport().jsonpMapper());
+		}
+		return execute(request, clazz);
+	}
+
+	private <T> SearchResponse<T> execute(SearchRequest request, Class<T> clazz)
+			throws IOException {
+		SearchCoalescer coalescer = searchCoalescer.getIfAvailable();
+		SearchLoader<T> loader = coalescer == null ? () -> openSearchClient.search(request, clazz)
+				: () -> coalescer.search(request, clazz, () -> openSearchClient.search(request, clazz));
+
+		QueryCache cache = queryCache.getIfAvailable();
+		if (cache == null) {
+			return loader.load();
+		}
+		return cache.get(request, clazz, loader);
+	}
+
 	/**
 	 * 获取Hit对象中source字符串
 	 *
@@ -43,7 +101,7 @@ public class QueryApi {
 	 * @param <T>      文档对象泛型
 	 * @return 文档对象泛型列表
 	 */
-	private <T> List<T> getSources(SearchResponse<T> response) {
+	static <T> List<T> getSources(SearchResponse<T> response) {
 		List<T> result = new ArrayList<>();
 		for (Hit<T> hit : getHitList(response)) {
 			result.add(hit.source());
@@ -58,10 +116,30 @@ public class QueryApi {
 	 * @param <T>      文档对象泛型
 	 * @return 文档对象HighLight的Map列表, key为HighLight字段名，value为HighLight内容
 	 */
-	private <T> List<Map<String, List<String>>> getHighLights(SearchResponse<T> response) {
+	static <T> List<Map<String, List<String>>> getHighLights(SearchResponse<T> response) {
 		return getHitList(response).stream().map(Hit::highlight).toList();
 	}
 
+	/**
+	 * 获取mget结果中的source，未找到的文档对应位置为null
+	 *
+	 * @param response MgetResponse对象
+	 * @param <T>      文档对象泛型
+	 * @return 文档对象泛型列表
+	 */
+	static <T> List<T> getMgetSources(MgetResponse<T> response) {
+		List<T> result = new ArrayList<>(response.docs().size());
+		for (MultiGetResponseItem<T> item : response.docs()) {
+			if (item.isResult() && item.result().found()) {
+				result.add(item.result().source());
+			} else {
+				log.info("not found");
+				result.add(null);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * 获取Hit对象列表
 	 *
@@ -69,7 +147,7 @@ public class QueryApi {
 	 * @param <T>      文档对象泛型
 	 * @return 文档对象Hit泛型列表
 	 */
-	private <T> List<Hit<T>> getHitList(SearchResponse<T> response) {
+	static <T> List<Hit<T>> getHitList(SearchResponse<T> response) {
 		log.info("consume times {} mill second", response.took());
 
 		List<Hit<T>> hitList = response.hits().hits();
@@ -93,7 +171,8 @@ public class QueryApi {
 	 */
 	public <T> GetResponse<T> searchById(String indexName, String id, Class<T> clazz)
 			throws IOException {
-		GetResponse<T> response = openSearchClient.get(g -> g.index(indexName).id(id), clazz);
+		GetResponse<T> response = openSearchClient.get(
+				g -> Projection.apply(projection, g.index(indexName).id(id)), clazz);
 		if (response.found()) {
 			return response;
 		} else {
@@ -102,6 +181,28 @@ public class QueryApi {
 		}
 	}
 
+	/**
+	 * 指定id列表批量检索数据，一次mget请求取回
+	 *
+	 * @param <T>       文档对象泛型
+	 * @param indexName 索引名
+	 * @param ids       文档id列表
+	 * @param clazz     要搜索的文档对象class
+	 * @return 文档对象列表，顺序和ids一致，未找到的文档对应位置为null
+	 * @throws IOException 异常信息
+	 */
+	public <T> List<T> searchByIds(String indexName, List<String> ids, Class<T> clazz)
+			throws IOException {
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		MgetResponse<T> response = openSearchClient.mget(
+				m -> Projection.apply(projection, m.index(indexName).ids(ids)), clazz);
+
+		return getMgetSources(response);
+	}
+
 	/**
 	 * 聚合操作
 	 *
@@ -117,16 +218,42 @@ public class QueryApi {
 	public List<HistogramBucket> aggsByHistogram(String indexName, String searchText,
 			String searchField, String aggsField, String aggsKey, Double intervalValue)
 			throws IOException {
-		Query query = MatchQuery.of(m -> m.field(searchField).query(FieldValue.of(searchText)))
-				._toQuery();
-
-		SearchResponse<Void> response = openSearchClient.search(
-				b -> b.index(indexName).size(0).query(query).aggregations(aggsKey,
-						a -> a.histogram(h -> h.field(aggsField).interval(intervalValue))), Void.class);
+		SearchResponse<Void> response = search(
+				SearchRequests.histogram(indexName, searchText, searchField, aggsField, aggsKey,
+						intervalValue), Void.class);
 
 		return response.aggregations().get(aggsKey).histogram().buckets().array();
 	}
 
+	/**
+	 * 用composite聚合按after_key分页遍历所有分组的桶，适合基数很大的分组字段，例如导出全部品牌、类目的文档数。
+	 * 返回的Stream按需一页一页拉取，不会一次把所有桶放进协调节点和本地内存，遍历中的IO异常以UncheckedIOException抛出
+	 *
+	 * @param indexName 索引名
+	 * @param query     query对象，只统计匹配的文档
+	 * @param fields    分组字段，桶的key中以字段名取各字段的值
+	 * @param pageSize  每页取多少个桶
+	 * @return CompositeBucket对象的Stream
+	 */
+	public Stream<CompositeBucket> streamCompositeBuckets(String indexName, Query query,
+			List<String> fields, int pageSize) {
+		return new CompositeBucketIterator(openSearchClient, indexName, query, fields, pageSize)
+				.stream();
+	}
+
+	/**
+	 * 用composite聚合遍历索引下所有文档的分组桶
+	 *
+	 * @param indexName 索引名
+	 * @param fields    分组字段
+	 * @param pageSize  每页取多少个桶
+	 * @return CompositeBucket对象的Stream
+	 */
+	public Stream<CompositeBucket> streamCompositeBuckets(String indexName, List<String> fields,
+			int pageSize) {
+		return streamCompositeBuckets(indexName, SearchRequests.matchAll(), fields, pageSize);
+	}
+
 	/**
 	 * matchAllQuery方法
 	 *
@@ -142,13 +269,11 @@ public class QueryApi {
 	 */
 	public <T> List<T> matchAllQuery(String indexName, String sortedField, int fromIndex,
 			int pageSize, boolean isDesc, Class<T> clazz) throws IOException {
-		SearchResponse<T> response = openSearchClient.search(
-				s -> s.index(indexName).query(q -> q.matchAll(t -> t))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(f -> f.field(
-								o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))), clazz);
+		Query searchQuery = SearchRequests.matchAll();
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -171,14 +296,11 @@ public class QueryApi {
 	public <T> List<T> matchQuery(String indexName, String searchText, String searchField,
 			String sortedField, int fromIndex, int pageSize, boolean isDesc, Class<T> clazz)
 			throws IOException {
-		SearchResponse<T> response = openSearchClient.search(s -> s.index(indexName)
-						.query(q -> q.match(t -> t.field(searchField).query(FieldValue.of(searchText))))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(
-								f -> f.field(o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))),
-				clazz);
+		Query searchQuery = SearchRequests.match(searchText, searchField);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -201,14 +323,11 @@ public class QueryApi {
 	public <T> List<T> multiMatchQuery(String indexName, String searchText, List<String> searchFields,
 			String sortedField, int fromIndex, int pageSize, boolean isDesc, Class<T> clazz)
 			throws IOException {
-		SearchResponse<T> response = openSearchClient.search(s -> s.index(indexName)
-						.query(q -> q.multiMatch(t -> t.fields(searchFields).query(searchText)))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(
-								f -> f.field(o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))),
-				clazz);
+		Query searchQuery = SearchRequests.multiMatch(searchText, searchFields);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -231,14 +350,11 @@ public class QueryApi {
 	public <T> List<T> matchPhrasePrefixQuery(String indexName, String searchText, String searchField,
 			String sortedField, int fromIndex, int pageSize, boolean isDesc, Class<T> clazz)
 			throws IOException {
-		SearchResponse<T> response = openSearchClient.search(s -> s.index(indexName)
-						.query(q -> q.matchPhrasePrefix(t -> t.field(searchField).query(searchText)))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(
-								f -> f.field(o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))),
-				clazz);
+		Query searchQuery = SearchRequests.matchPhrasePrefix(searchText, searchField);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -259,13 +375,11 @@ public class QueryApi {
 	 */
 	public <T> List<T> idsQuery(String indexName, List<String> searchTexts, String sortedField,
 			int fromIndex, int pageSize, boolean isDesc, Class<T> clazz) throws IOException {
-		SearchResponse<T> response = openSearchClient.search(
-				s -> s.index(indexName).query(q -> q.ids(t -> t.values(searchTexts)))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(f -> f.field(
-								o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))), clazz);
+		Query searchQuery = SearchRequests.ids(searchTexts);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -288,14 +402,11 @@ public class QueryApi {
 	public <T> List<T> termQuery(String indexName, String searchText, String searchField,
 			String sortedField, int fromIndex, int pageSize, boolean isDesc, Class<T> clazz)
 			throws IOException {
-		SearchResponse<T> response = openSearchClient.search(s -> s.index(indexName)
-						.query(q -> q.term(t -> t.field(searchField).value(FieldValue.of(searchText))))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(
-								f -> f.field(o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))),
-				clazz);
+		Query searchQuery = SearchRequests.term(searchText, searchField);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -318,14 +429,11 @@ public class QueryApi {
 	public <T> List<T> fuzzyQuery(String indexName, String searchText, String searchField,
 			String sortedField, int fromIndex, int pageSize, boolean isDesc, Class<T> clazz)
 			throws IOException {
-		SearchResponse<T> response = openSearchClient.search(s -> s.index(indexName)
-						.query(q -> q.fuzzy(t -> t.field(searchField).value(FieldValue.of(searchText))))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(
-								f -> f.field(o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))),
-				clazz);
+		Query searchQuery = SearchRequests.fuzzy(searchText, searchField);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -349,14 +457,11 @@ public class QueryApi {
 	public <T> List<T> rangeQuery(String indexName, String fromSearchText, String toSearchText,
 			String searchField, String sortedField, int fromIndex, int pageSize, boolean isDesc,
 			Class<T> clazz) throws IOException {
-		SearchResponse<T> response = openSearchClient.search(s -> s.index(indexName).query(q -> q.range(
-								t -> t.field(searchField).from(JsonData.of(fromSearchText)).to(JsonData.of(toSearchText))))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(
-								f -> f.field(o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))),
-				clazz);
+		Query searchQuery = SearchRequests.range(fromSearchText, toSearchText, searchField);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -379,13 +484,11 @@ public class QueryApi {
 	public <T> List<T> wildcardQuery(String indexName, String searchText, String searchField,
 			String sortedField, int fromIndex, int pageSize, boolean isDesc, Class<T> clazz)
 			throws IOException {
-		SearchResponse<T> response = openSearchClient.search(
-				s -> s.index(indexName).query(q -> q.wildcard(t -> t.field(searchField).value(searchText)))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(f -> f.field(
-								o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))), clazz);
+		Query searchQuery = SearchRequests.wildcard(searchText, searchField);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -409,16 +512,11 @@ public class QueryApi {
 	public <T> List<T> constantScoreQuery(String indexName, String searchText, String searchField,
 			float boost, String sortedField, int fromIndex, int pageSize, boolean isDesc, Class<T> clazz)
 			throws IOException {
-		SearchResponse<T> response = openSearchClient.search(
-				s -> s.index(indexName).query(q -> q.constantScore(
-								// 包裹查询, 高于设定分数, 不计算相关性
-								p -> p.filter(e -> e.term(t -> t.field(searchField).value(FieldValue.of(searchText))))
-										.boost(boost)))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(f -> f.field(
-								o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))), clazz);
+		Query searchQuery = SearchRequests.constantScore(searchText, searchField, boost);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -442,17 +540,11 @@ public class QueryApi {
 	public <T> List<T> disMaxQuery(String indexName, List<Query> queries, float boost,
 			double tieBreaker, String sortedField, int fromIndex, int pageSize, boolean isDesc,
 			Class<T> clazz) throws IOException {
-		DisMaxQuery.Builder builder = QueryBuilders.disMax();
-		builder.queries(queries);
-		builder.boost(boost).tieBreaker(tieBreaker);
-
-		SearchResponse<T> response = openSearchClient.search(
-				s -> s.index(indexName).query(q -> q.disMax(builder.build()))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(f -> f.field(
-								o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))), clazz);
+		Query searchQuery = SearchRequests.disMax(queries, boost, tieBreaker);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -473,13 +565,11 @@ public class QueryApi {
 	 */
 	public <T> List<T> queryStringQuery(String indexName, String searchText, String sortedField,
 			int fromIndex, int pageSize, boolean isDesc, Class<T> clazz) throws IOException {
-		SearchResponse<T> response = openSearchClient.search(
-				s -> s.index(indexName).query(q -> q.queryString(t -> t.query(searchText)))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(f -> f.field(
-								o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))), clazz);
+		Query searchQuery = SearchRequests.queryString(searchText);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -503,15 +593,11 @@ public class QueryApi {
 	public <T> List<T> spanFirstQuery(String indexName, String searchText, String searchField,
 			int end, String sortedField, int fromIndex, int pageSize, boolean isDesc, Class<T> clazz)
 			throws IOException {
-		SearchResponse<T> response = openSearchClient.search(s -> s.index(indexName).query(
-								q -> q.spanFirst(
-										t -> t.match(e -> e.spanTerm(g -> g.field(searchField).value(searchText))).end(end)))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(
-								f -> f.field(o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))),
-				clazz);
+		Query searchQuery = SearchRequests.spanFirst(searchText, searchField, end);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -534,13 +620,12 @@ public class QueryApi {
 	public <T> List<T> spanTermQuery(String indexName, String searchText, String searchField,
 			String sortedField, int fromIndex, int pageSize, boolean isDesc, Class<T> clazz)
 			throws IOException {
-		SearchResponse<T> response = openSearchClient.search(
-				s -> s.index(indexName).query(q -> q.spanTerm(g -> g.field(searchField).value(searchText)))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(f -> f.field(
-								o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))), clazz);
+		Query searchQuery = SearchRequests.spanTerm(searchText, searchField);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
+
 		return getSources(response);
 	}
 
@@ -560,13 +645,11 @@ public class QueryApi {
 	 */
 	public <T> List<T> boolQuery(String indexName, List<Query> queries, String sortedField,
 			int fromIndex, int pageSize, boolean isDesc, Class<T> clazz) throws IOException {
-		SearchResponse<T> response = openSearchClient.search(
-				s -> s.index(indexName).query(q -> q.bool(t -> t.must(queries)))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(f -> f.field(
-								o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))), clazz);
+		Query searchQuery = SearchRequests.bool(queries);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -590,14 +673,11 @@ public class QueryApi {
 	public <T> List<T> nestedQuery(String indexName, String path, Query query,
 			ChildScoreMode childScoreMode, String sortedField, int fromIndex, int pageSize,
 			boolean isDesc, Class<T> clazz) throws IOException {
-		SearchResponse<T> response = openSearchClient.search(s -> s.index(indexName)
-						.query(q -> q.nested(t -> t.path(path).query(query).scoreMode(childScoreMode)))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(
-								f -> f.field(o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))),
-				clazz);
+		Query searchQuery = SearchRequests.nested(path, query, childScoreMode);
+
+		SearchResponse<T> response = search(
+				SearchRequests.page(indexName, searchQuery, sortedField, fromIndex, pageSize, isDesc,
+						projection), clazz);
 
 		return getSources(response);
 	}
@@ -622,15 +702,57 @@ public class QueryApi {
 	public <T> List<Map<String, List<String>>> highLightQuery(String indexName, Query query,
 			String highlightField, String preTags, String postTags, String sortedField, int fromIndex,
 			int pageSize, boolean isDesc, Class<T> clazz) throws IOException {
-		SearchResponse<T> response = openSearchClient.search(s -> s.index(indexName).query(query)
-						.highlight(h -> h.fields(highlightField, f -> f.preTags(preTags).postTags(postTags)))
-						// 分页查询，从第fromIndex页开始查询pageSize个document
-						.from(fromIndex).size(pageSize)
-						// 按要排序字段进行降序排序
-						.sort(
-								f -> f.field(o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))),
-				clazz);
+		SearchResponse<T> response = search(
+				SearchRequests.highlight(indexName, query, highlightField, preTags, postTags, sortedField,
+						fromIndex, pageSize, isDesc, projection), clazz);
 
 		return getHighLights(response);
 	}
+
+	/**
+	 * search_after游标分页查询，每页开销固定，不受max_result_window限制。
+	 * 游标只记录上一页最后一条的排序值，两次翻页之间写入的数据会按排序位置出现在后续页中
+	 *
+	 * @param <T>             文档对象泛型
+	 * @param indexName       索引名
+	 * @param query           query对象
+	 * @param sortedField     要排序的字段
+	 * @param isDesc          是否降序，true降序，false升序
+	 * @param tieBreakerField 排序值相同时用来区分文档的唯一字段，必须是有doc_values的keyword或数值字段
+	 * @param pageSize        每页取多少条数据
+	 * @param cursor          上一页返回的游标，取第一页时为null
+	 * @param clazz           要搜索的文档对象class
+	 * @return 一页文档对象和下一页的游标
+	 * @throws IOException 异常信息
+	 */
+	public <T> SearchPage<T> searchAfter(String indexName, Query query, String sortedField,
+			boolean isDesc, String tieBreakerField, int pageSize, String cursor, Class<T> clazz)
+			throws IOException {
+		SearchResponse<T> response = search(
+				SearchRequests.searchAfter(indexName, query, sortedField, isDesc, tieBreakerField,
+						pageSize, cursor, projection), clazz);
+
+		return SearchPage.of(getHitList(response), pageSize);
+	}
+
+	/**
+	 * 把多个互不相关的查询合并成一次_msearch请求发送，每个查询可以用不同的文档class
+	 *
+	 * @param specs 查询列表
+	 * @return 按SearchSpec取各自结果的MultiSearchResult对象
+	 * @throws IOException 异常信息
+	 */
+	public MultiSearchResult msearch(List<? extends SearchSpec<?>> specs) throws IOException {
+		if (specs.isEmpty()) {
+			return new MultiSearchResult(specs, List.of());
+		}
+
+		List<MultiSearchResponseItem<?>> items = openSearchClient._transport()
+				.performRequest(new MsearchEndpoint.Body(specs), MsearchEndpoint.of(specs),
+						openSearchClient._transportOptions());
+
+		log.info("msearch {} searches in one request", specs.size());
+
+		return new MultiSearchResult(specs, items);
+	}
 }
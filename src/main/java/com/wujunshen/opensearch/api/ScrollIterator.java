@@ -0,0 +1,127 @@
+package com.wujunshen.opensearch.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+
+/**
+ * 基于scroll的Hit迭代器，按需一页一页拉取，遍历完或关闭时清理scroll上下文
+ *
+ * @param <T> 文档对象泛型
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/16 16:02<br>
+ */
+@Slf4j
+class ScrollIterator<T> implements Iterator<Hit<T>>, Closeable {
+
+	private final OpenSearchClient openSearchClient;
+
+	private final SearchRequest searchRequest;
+
+	private final Class<T> clazz;
+
+	private final String keepAlive;
+
+	private String scrollId;
+
+	private Iterator<Hit<T>> page = Collections.emptyIterator();
+
+	private boolean started;
+
+	private boolean exhausted;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param openSearchClient OpenSearchClient对象
+	 * @param searchRequest    第一页的查询请求，需要带上scroll参数
+	 * @param clazz            文档对象class
+	 * @param keepAlive        scroll上下文保留时间，例如1m
+	 */
+	ScrollIterator(OpenSearchClient openSearchClient, SearchRequest searchRequest, Class<T> clazz,
+			String keepAlive) {
+		this.openSearchClient = openSearchClient;
+		this.searchRequest = searchRequest;
+		this.clazz = clazz;
+		this.keepAlive = keepAlive;
+	}
+
+	/**
+	 * 转成顺序Stream，Stream关闭时清理scroll上下文
+	 *
+	 * @return Hit对象的Stream
+	 */
+	Stream<Hit<T>> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+				Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!page.hasNext() && !exhausted) {
+			fetchNextPage();
+		}
+		return page.hasNext();
+	}
+
+	@Override
+	public Hit<T> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return page.next();
+	}
+
+	@Override
+	public void close() {
+		exhausted = true;
+
+		if (scrollId == null) {
+			return;
+		}
+
+		String id = scrollId;
+		scrollId = null;
+		try {
+			openSearchClient.clearScroll(c -> c.scrollId(id));
+		} catch (IOException e) {
+			log.warn("clear scroll {} failed", id, e);
+		}
+	}
+
+	private void fetchNextPage() {
+		SearchResponse<T> response;
+		try {
+			if (started) {
+				response = openSearchClient.scroll(
+						s -> s.scrollId(scrollId).scroll(t -> t.time(keepAlive)), clazz);
+			} else {
+				started = true;
+				response = openSearchClient.search(searchRequest, clazz);
+			}
+		} catch (IOException e) {
+			close();
+			throw new UncheckedIOException(e);
+		}
+
+		scrollId = response.scrollId();
+		page = response.hits().hits().iterator();
+
+		if (!page.hasNext()) {
+			close();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.wujunshen.opensearch.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.Value;
+import org.opensearch.client.opensearch.core.search.Hit;
+
+/**
+ * search_after游标分页的一页结果
+ *
+ * @param <T> 文档对象泛型
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 14:20<br>
+ */
+@Value
+public class SearchPage<T> {
+
+	private static final String SEPARATOR = ".";
+
+	/**
+	 * 本页文档对象列表
+	 */
+	List<T> documents;
+
+	/**
+	 * 取下一页时传回的游标，没有下一页时为null
+	 */
+	String cursor;
+
+	/**
+	 * 是否还有下一页
+	 *
+	 * @return 有下一页返回true
+	 */
+	public boolean hasNext() {
+		return cursor != null;
+	}
+
+	/**
+	 * 根据本页命中结果构造分页结果，不足一页说明已经取完，不再返回游标
+	 *
+	 * @param hits     本页命中结果
+	 * @param pageSize 每页取多少条数据
+	 * @param <T>      文档对象泛型
+	 * @return 分页结果
+	 */
+	static <T> SearchPage<T> of(List<Hit<T>> hits, int pageSize) {
+		List<T> documents = hits.stream().map(Hit::source).toList();
+		if (hits.size() < pageSize) {
+			return new SearchPage<>(documents, null);
+		}
+
+		return new SearchPage<>(documents, encode(hits.get(hits.size() - 1).sort()));
+	}
+
+	/**
+	 * 把最后一条命中的排序值编码成游标，每个排序值单独做url安全的base64编码，所以排序值里的任意字符都不会影响解码
+	 *
+	 * @param sortValues 排序值列表，包括排序字段和tiebreaker
+	 * @return 游标字符串
+	 */
+	static String encode(List<String> sortValues) {
+		Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+		return sortValues.stream()
+				.map(value -> encoder.encodeToString(value.getBytes(StandardCharsets.UTF_8)))
+				.collect(Collectors.joining(SEPARATOR));
+	}
+
+	/**
+	 * 把游标解码成search_after需要的排序值
+	 *
+	 * @param cursor 游标字符串
+	 * @return 排序值列表
+	 * @throws IllegalArgumentException 游标格式错误
+	 */
+	static List<String> decode(String cursor) {
+		Base64.Decoder decoder = Base64.getUrlDecoder();
+		return Arrays.stream(cursor.split("\\" + SEPARATOR, -1))
+				.map(value -> new String(decoder.decode(value), StandardCharsets.UTF_8)).toList();
+	}
+}
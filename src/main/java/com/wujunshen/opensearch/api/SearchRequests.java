@@ -0,0 +1,250 @@
+package com.wujunshen.opensearch.api;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.opensearch._types.FieldValue;
+import org.opensearch.client.opensearch._types.SortOrder;
+import org.opensearch.client.opensearch._types.aggregations.CompositeAggregationSource;
+import org.opensearch.client.opensearch._types.query_dsl.ChildScoreMode;
+import org.opensearch.client.opensearch._types.query_dsl.DisMaxQuery;
+import org.opensearch.client.opensearch._types.query_dsl.MatchQuery;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch._types.query_dsl.QueryBuilders;
+import org.opensearch.client.opensearch.core.SearchRequest;
+
+/**
+ * QueryApi和AsyncQueryApi共用的查询请求构造方法，同步和异步接口发出的请求完全一致
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 09:40<br>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class SearchRequests {
+
+	/**
+	 * 分页排序查询请求
+	 *
+	 * @param indexName   索引名
+	 * @param query       query对象
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param projection  字段投影，null表示返回完整的_source
+	 * @return SearchRequest对象
+	 */
+	static SearchRequest page(String indexName, Query query, String sortedField, int fromIndex,
+			int pageSize, boolean isDesc, Projection projection) {
+		return SearchRequest.of(s -> project(s.index(indexName).query(query)
+				// 分页查询，从第fromIndex页开始查询pageSize个document
+				.from(fromIndex).size(pageSize)
+				// 按要排序字段进行降序排序
+				.sort(f -> f.field(
+						o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))),
+				projection));
+	}
+
+	/**
+	 * search_after游标分页查询请求，按排序字段加tiebreaker字段排序，保证排序值唯一，翻页不会漏数据也不会重复
+	 *
+	 * @param indexName       索引名
+	 * @param query           query对象
+	 * @param sortedField     要排序的字段
+	 * @param isDesc          是否降序，true降序，false升序
+	 * @param tieBreakerField 排序值相同时用来区分文档的唯一字段，不能是_id
+	 * @param pageSize        每页取多少条数据
+	 * @param cursor          上一页返回的游标，取第一页时为null
+	 * @param projection      字段投影，null表示返回完整的_source
+	 * @return SearchRequest对象
+	 */
+	static SearchRequest searchAfter(String indexName, Query query, String sortedField,
+			boolean isDesc, String tieBreakerField, int pageSize, String cursor,
+			Projection projection) {
+		// _id没有doc_values，按它排序要把fielddata加载到堆内存里
+		if (tieBreakerField == null || "_id".equals(tieBreakerField)) {
+			throw new IllegalArgumentException(
+					"tie breaker must be a unique keyword or numeric field with doc values, not "
+							+ tieBreakerField);
+		}
+		SortOrder sortOrder = isDesc ? SortOrder.Desc : SortOrder.Asc;
+
+		return SearchRequest.of(s -> {
+			s.index(indexName).query(query).size(pageSize)
+					// 总数只统计到一页的数量，省掉每页的精确计数开销。不能完全关闭，客户端要求响应里有hits.total
+					.trackTotalHits(t -> t.count(pageSize))
+					.sort(f -> f.field(o -> o.field(sortedField).order(sortOrder)))
+					.sort(f -> f.field(o -> o.field(tieBreakerField).order(sortOrder)));
+			if (cursor != null) {
+				s.searchAfter(SearchPage.decode(cursor));
+			}
+			return project(s, projection);
+		});
+	}
+
+	/**
+	 * 高亮分页排序查询请求
+	 *
+	 * @param indexName      索引名
+	 * @param query          query对象
+	 * @param highlightField 高亮查询字段
+	 * @param preTags        高亮前置部分
+	 * @param postTags       高亮后置部分
+	 * @param sortedField    要排序的字段
+	 * @param fromIndex      分页数据从第几页开始取
+	 * @param pageSize       每页取多少条数据
+	 * @param isDesc         是否降序，true降序，false升序
+	 * @param projection     字段投影，null表示返回完整的_source
+	 * @return SearchRequest对象
+	 */
+	static SearchRequest highlight(String indexName, Query query, String highlightField,
+			String preTags, String postTags, String sortedField, int fromIndex, int pageSize,
+			boolean isDesc, Projection projection) {
+		return SearchRequest.of(s -> project(s.index(indexName).query(query)
+				.highlight(h -> h.fields(highlightField, f -> f.preTags(preTags).postTags(postTags)))
+				// 分页查询，从第fromIndex页开始查询pageSize个document
+				.from(fromIndex).size(pageSize)
+				// 按要排序字段进行降序排序
+				.sort(f -> f.field(
+						o -> o.field(sortedField).order(isDesc ? SortOrder.Desc : SortOrder.Asc))),
+				projection));
+	}
+
+	/**
+	 * 设置字段投影
+	 *
+	 * @param builder    查询请求builder
+	 * @param projection 字段投影，null时不做处理
+	 * @return 查询请求builder
+	 */
+	private static SearchRequest.Builder project(SearchRequest.Builder builder,
+			Projection projection) {
+		if (projection != null) {
+			projection.apply(builder);
+		}
+		return builder;
+	}
+
+	/**
+	 * 直方图聚合请求，不返回文档
+	 *
+	 * @param indexName     索引名
+	 * @param searchText    搜索内容
+	 * @param searchField   搜索字段
+	 * @param aggsField     聚合字段
+	 * @param aggsKey       聚合key
+	 * @param intervalValue 间隔值
+	 * @return SearchRequest对象
+	 */
+	static SearchRequest histogram(String indexName, String searchText, String searchField,
+			String aggsField, String aggsKey, Double intervalValue) {
+		Query query = MatchQuery.of(m -> m.field(searchField).query(FieldValue.of(searchText)))
+				._toQuery();
+
+		return SearchRequest.of(b -> b.index(indexName).size(0).query(query).aggregations(aggsKey,
+				a -> a.histogram(h -> h.field(aggsField).interval(intervalValue))));
+	}
+
+	/**
+	 * composite聚合分页请求，不返回文档
+	 *
+	 * @param indexName 索引名
+	 * @param query     query对象
+	 * @param aggsKey   聚合key
+	 * @param fields    分组字段，每个字段对应一个terms source
+	 * @param pageSize  每页取多少个桶
+	 * @param afterKey  上一页的after_key，第一页为null
+	 * @return SearchRequest对象
+	 */
+	static SearchRequest composite(String indexName, Query query, String aggsKey,
+			List<String> fields, int pageSize, Map<String, String> afterKey) {
+		List<Map<String, CompositeAggregationSource>> sources = fields.stream()
+				.map(field -> Map.of(field,
+						CompositeAggregationSource.of(c -> c.terms(t -> t.field(field))))).toList();
+
+		return SearchRequest.of(b -> b.index(indexName).size(0).query(query).aggregations(aggsKey,
+				a -> a.composite(c -> {
+					c.sources(sources).size(pageSize);
+					if (afterKey != null) {
+						c.after(afterKey);
+					}
+					return c;
+				})));
+	}
+
+	static Query matchAll() {
+		return Query.of(q -> q.matchAll(t -> t));
+	}
+
+	static Query match(String searchText, String searchField) {
+		return Query.of(q -> q.match(t -> t.field(searchField).query(FieldValue.of(searchText))));
+	}
+
+	static Query multiMatch(String searchText, List<String> searchFields) {
+		return Query.of(q -> q.multiMatch(t -> t.fields(searchFields).query(searchText)));
+	}
+
+	static Query matchPhrasePrefix(String searchText, String searchField) {
+		return Query.of(q -> q.matchPhrasePrefix(t -> t.field(searchField).query(searchText)));
+	}
+
+	static Query ids(List<String> searchTexts) {
+		return Query.of(q -> q.ids(t -> t.values(searchTexts)));
+	}
+
+	static Query term(String searchText, String searchField) {
+		return Query.of(q -> q.term(t -> t.field(searchField).value(FieldValue.of(searchText))));
+	}
+
+	static Query fuzzy(String searchText, String searchField) {
+		return Query.of(q -> q.fuzzy(t -> t.field(searchField).value(FieldValue.of(searchText))));
+	}
+
+	static Query range(String fromSearchText, String toSearchText, String searchField) {
+		return Query.of(q -> q.range(
+				t -> t.field(searchField).from(JsonData.of(fromSearchText)).to(JsonData.of(toSearchText))));
+	}
+
+	static Query wildcard(String searchText, String searchField) {
+		return Query.of(q -> q.wildcard(t -> t.field(searchField).value(searchText)));
+	}
+
+	static Query constantScore(String searchText, String searchField, float boost) {
+		return Query.of(q -> q.constantScore(
+				// 包裹查询, 高于设定分数, 不计算相关性
+				p -> p.filter(e -> e.term(t -> t.field(searchField).value(FieldValue.of(searchText))))
+						.boost(boost)));
+	}
+
+	static Query disMax(List<Query> queries, float boost, double tieBreaker) {
+		DisMaxQuery.Builder builder = QueryBuilders.disMax();
+		builder.queries(queries);
+		builder.boost(boost).tieBreaker(tieBreaker);
+
+		return Query.of(q -> q.disMax(builder.build()));
+	}
+
+	static Query queryString(String searchText) {
+		return Query.of(q -> q.queryString(t -> t.query(searchText)));
+	}
+
+	static Query spanFirst(String searchText, String searchField, int end) {
+		return Query.of(q -> q.spanFirst(
+				t -> t.match(e -> e.spanTerm(g -> g.field(searchField).value(searchText))).end(end)));
+	}
+
+	static Query spanTerm(String searchText, String searchField) {
+		return Query.of(q -> q.spanTerm(g -> g.field(searchField).value(searchText)));
+	}
+
+	static Query bool(List<Query> queries) {
+		return Query.of(q -> q.bool(t -> t.must(queries)));
+	}
+
+	static Query nested(String path, Query query, ChildScoreMode childScoreMode) {
+		return Query.of(q -> q.nested(t -> t.path(path).query(query).scoreMode(childScoreMode)));
+	}
+}
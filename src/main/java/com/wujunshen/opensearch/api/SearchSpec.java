@@ -0,0 +1,105 @@
+package com.wujunshen.opensearch.api;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch.core.SearchRequest;
+
+/**
+ * msearch中的一个查询，每个查询可以有不同的文档class。
+ * 同一个SearchSpec对象只能在一次msearch中使用一次，结果按对象本身查找
+ *
+ * @param <T> 文档对象泛型
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 09:30<br>
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SearchSpec<T> {
+
+	/**
+	 * 查询请求，只使用索引名、routing、preference和请求体
+	 */
+	private final SearchRequest request;
+
+	/**
+	 * 文档对象class
+	 */
+	private final Class<T> clazz;
+
+	/**
+	 * 任意查询请求
+	 *
+	 * @param request 查询请求
+	 * @param clazz   文档对象class
+	 * @param <T>     文档对象泛型
+	 * @return SearchSpec对象
+	 */
+	public static <T> SearchSpec<T> of(SearchRequest request, Class<T> clazz) {
+		return new SearchSpec<>(request, clazz);
+	}
+
+	/**
+	 * 和QueryApi各个查询方法相同的分页排序查询
+	 *
+	 * @param indexName   索引名
+	 * @param query       query对象
+	 * @param sortedField 要排序的字段
+	 * @param fromIndex   分页数据从第几页开始取
+	 * @param pageSize    每页取多少条数据
+	 * @param isDesc      是否降序，true降序，false升序
+	 * @param clazz       文档对象class
+	 * @param <T>         文档对象泛型
+	 * @return SearchSpec对象
+	 */
+	public static <T> SearchSpec<T> page(String indexName, Query query, String sortedField,
+			int fromIndex, int pageSize, boolean isDesc, Class<T> clazz) {
+		return new SearchSpec<>(
+				SearchRequests.page(indexName, query, sortedField, fromIndex, pageSize, isDesc, null),
+				clazz);
+	}
+
+	/**
+	 * 和QueryApi.highLightQuery相同的高亮查询
+	 *
+	 * @param indexName      索引名
+	 * @param query          query对象
+	 * @param highlightField 高亮查询字段
+	 * @param preTags        高亮前置部分
+	 * @param postTags       高亮后置部分
+	 * @param sortedField    要排序的字段
+	 * @param fromIndex      分页数据从第几页开始取
+	 * @param pageSize       每页取多少条数据
+	 * @param isDesc         是否降序，true降序，false升序
+	 * @param clazz          文档对象class
+	 * @param <T>            文档对象泛型
+	 * @return SearchSpec对象
+	 */
+	public static <T> SearchSpec<T> highlight(String indexName, Query query, String highlightField,
+			String preTags, String postTags, String sortedField, int fromIndex, int pageSize,
+			boolean isDesc, Class<T> clazz) {
+		return new SearchSpec<>(
+				SearchRequests.highlight(indexName, query, highlightField, preTags, postTags,
+						sortedField, fromIndex, pageSize, isDesc, null), clazz);
+	}
+
+	/**
+	 * 和QueryApi.aggsByHistogram相同的直方图聚合，不返回文档
+	 *
+	 * @param indexName     索引名
+	 * @param searchText    搜索内容
+	 * @param searchField   搜索字段
+	 * @param aggsField     聚合字段
+	 * @param aggsKey       聚合key
+	 * @param intervalValue 间隔值
+	 * @return SearchSpec对象
+	 */
+	public static SearchSpec<Void> histogram(String indexName, String searchText,
+			String searchField, String aggsField, String aggsKey, Double intervalValue) {
+		return new SearchSpec<>(
+				SearchRequests.histogram(indexName, searchText, searchField, aggsField, aggsKey,
+						intervalValue), Void.class);
+	}
+}
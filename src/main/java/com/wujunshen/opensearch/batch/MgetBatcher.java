@@ -0,0 +1,234 @@
+package com.wujunshen.opensearch.batch;
+
+import com.wujunshen.opensearch.config.BatchConfigProperties;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch.core.GetResponse;
+import org.opensearch.client.opensearch.core.MgetResponse;
+import org.opensearch.client.opensearch.core.get.GetResult;
+import org.opensearch.client.opensearch.core.mget.MultiGetResponseItem;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 把合并窗口内同一索引、同一文档class的并发单id查询合并成一次mget请求。
+ * 计时线程只负责窗口到期，mget在单独的线程池里执行，慢请求不会推迟其它窗口的发送
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/16 17:18<br>
+ */
+@Slf4j
+public class MgetBatcher implements AutoCloseable {
+
+	private final OpenSearchClient openSearchClient;
+
+	private final long window;
+
+	private final int maxBatchSize;
+
+	/**
+	 * 合并窗口计时
+	 */
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * 执行mget请求
+	 */
+	private final ExecutorService executor;
+
+	private final Map<BatchKey, Batch> batches = new HashMap<>();
+
+	/**
+	 * 构造方法
+	 *
+	 * @param openSearchClient      OpenSearchClient对象
+	 * @param batchConfigProperties 请求合并配置
+	 */
+	public MgetBatcher(OpenSearchClient openSearchClient,
+			BatchConfigProperties batchConfigProperties) {
+		this.openSearchClient = openSearchClient;
+		this.window = batchConfigProperties.getWindow();
+		this.maxBatchSize = batchConfigProperties.getMaxBatchSize();
+
+		CustomizableThreadFactory timerThreadFactory = new CustomizableThreadFactory(
+				"opensearch-mget-timer-");
+		timerThreadFactory.setDaemon(true);
+		this.scheduler = new ScheduledThreadPoolExecutor(1, timerThreadFactory);
+
+		CustomizableThreadFactory workerThreadFactory = new CustomizableThreadFactory(
+				"opensearch-mget-batcher-");
+		workerThreadFactory.setDaemon(true);
+		this.executor = Executors.newFixedThreadPool(batchConfigProperties.getThreads(),
+				workerThreadFactory);
+	}
+
+	/**
+	 * 查询文档信息，和窗口内的其它查询合并发送，阻塞直到结果返回
+	 *
+	 * @param indexName 索引名
+	 * @param id        要查询的文档对象id
+	 * @param clazz     要查询的文档对象class
+	 * @param <T>       文档对象泛型
+	 * @return GetResponse对象，未找到时found()为false
+	 * @throws IOException 异常信息
+	 */
+	public <T> GetResponse<T> getDocument(String indexName, String id, Class<T> clazz)
+			throws IOException {
+		try {
+			return getDocumentAsync(indexName, id, clazz).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while waiting for mget", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * 查询文档信息，和窗口内的其它查询合并发送
+	 *
+	 * @param indexName 索引名
+	 * @param id        要查询的文档对象id
+	 * @param clazz     要查询的文档对象class
+	 * @param <T>       文档对象泛型
+	 * @return GetResponse对象的CompletableFuture
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<GetResponse<T>> getDocumentAsync(String indexName, String id,
+			Class<T> clazz) {
+		BatchKey key = new BatchKey(indexName, clazz);
+		CompletableFuture<GetResult<?>> future = new CompletableFuture<>();
+
+		Batch full = null;
+		synchronized (batches) {
+			Batch batch = batches.get(key);
+			if (batch == null) {
+				Batch created = new Batch();
+				batches.put(key, created);
+				scheduler.schedule(() -> flush(key, created), window, TimeUnit.MILLISECONDS);
+				batch = created;
+			}
+
+			batch.pending.add(new Pending(id, future));
+
+			if (batch.pending.size() >= maxBatchSize) {
+				batches.remove(key);
+				full = batch;
+			}
+		}
+
+		if (full != null) {
+			submit(key, full);
+		}
+
+		return future.thenApply(result -> toGetResponse((GetResult<T>) result));
+	}
+
+	/**
+	 * 立即发送所有未发送的合并请求并停止线程池
+	 */
+	@Override
+	public void close() {
+		List<Map.Entry<BatchKey, Batch>> remaining;
+		synchronized (batches) {
+			remaining = new ArrayList<>(batches.entrySet());
+			batches.clear();
+		}
+
+		remaining.forEach(entry -> execute(entry.getKey(), entry.getValue()));
+		scheduler.shutdown();
+		executor.shutdown();
+	}
+
+	/**
+	 * 合并窗口结束时发送，如果已经因为达到数量上限被发送则跳过
+	 */
+	private void flush(BatchKey key, Batch batch) {
+		synchronized (batches) {
+			if (!batches.remove(key, batch)) {
+				return;
+			}
+		}
+		submit(key, batch);
+	}
+
+	/**
+	 * 交给执行线程池，已经关闭时直接让等待的调用方失败
+	 */
+	private void submit(BatchKey key, Batch batch) {
+		try {
+			executor.execute(() -> execute(key, batch));
+		} catch (RejectedExecutionException e) {
+			batch.pending.forEach(pending -> pending.future().completeExceptionally(e));
+		}
+	}
+
+	private void execute(BatchKey key, Batch batch) {
+		List<String> ids = new ArrayList<>(
+				new LinkedHashSet<>(batch.pending.stream().map(Pending::id).toList()));
+
+		try {
+			MgetResponse<?> mgetResponse = openSearchClient.mget(
+					m -> m.index(key.indexName()).ids(ids), key.clazz());
+
+			Map<String, MultiGetResponseItem<?>> items = new HashMap<>(ids.size());
+			for (MultiGetResponseItem<?> item : mgetResponse.docs()) {
+				items.put(item.isResult() ? item.result().id() : item.failure().id(), item);
+			}
+
+			log.debug("merged {} gets into one mget of {} ids", batch.pending.size(), ids.size());
+
+			for (Pending pending : batch.pending) {
+				MultiGetResponseItem<?> item = items.get(pending.id());
+				if (item != null && item.isResult()) {
+					pending.future().complete(item.result());
+				} else {
+					String reason = item == null ? "missing in mget response"
+							: item.failure().error().reason();
+					pending.future().completeExceptionally(
+							new IOException("mget " + pending.id() + " failed: " + reason));
+				}
+			}
+		} catch (Exception e) {
+			batch.pending.forEach(pending -> pending.future().completeExceptionally(e));
+		}
+	}
+
+	/**
+	 * mget返回的GetResult和get返回的GetResponse字段相同，转换后调用方不用关心是否经过合并
+	 */
+	private static <T> GetResponse<T> toGetResponse(GetResult<T> result) {
+		return GetResponse.of(g -> g.index(result.index()).id(result.id()).found(result.found())
+				.source(result.source()).version(result.version()).seqNo(result.seqNo())
+				.primaryTerm(result.primaryTerm()).routing(result.routing())
+				.fields(result.fields()));
+	}
+
+	private record BatchKey(String indexName, Class<?> clazz) {
+	}
+
+	private record Pending(String id, CompletableFuture<GetResult<?>> future) {
+	}
+
+	private static final class Batch {
+
+		private final List<Pending> pending = new ArrayList<>();
+	}
+}
@@ -0,0 +1,209 @@
+package com.wujunshen.opensearch.batch;
+
+import com.wujunshen.opensearch.api.MultiSearchResult;
+import com.wujunshen.opensearch.api.QueryApi;
+import com.wujunshen.opensearch.api.SearchSpec;
+import com.wujunshen.opensearch.config.BatchConfigProperties;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 把合并窗口内不同线程发出的单个查询合并成一次_msearch请求，查询可以是不同索引、不同文档class。
+ * 计时线程只负责窗口到期，msearch在单独的线程池里执行，慢请求不会推迟其它窗口的发送
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 10:20<br>
+ */
+@Slf4j
+public class MsearchBatcher implements AutoCloseable {
+
+	private final QueryApi queryApi;
+
+	private final long window;
+
+	private final int maxBatchSize;
+
+	/**
+	 * 合并窗口计时
+	 */
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * 执行msearch请求
+	 */
+	private final ExecutorService executor;
+
+	private final Object lock = new Object();
+
+	private Batch current;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param queryApi              QueryApi对象
+	 * @param batchConfigProperties 请求合并配置
+	 */
+	public MsearchBatcher(QueryApi queryApi, BatchConfigProperties batchConfigProperties) {
+		this.queryApi = queryApi;
+		this.window = batchConfigProperties.getWindow();
+		this.maxBatchSize = batchConfigProperties.getMaxBatchSize();
+
+		CustomizableThreadFactory timerThreadFactory = new CustomizableThreadFactory(
+				"opensearch-msearch-timer-");
+		timerThreadFactory.setDaemon(true);
+		this.scheduler = new ScheduledThreadPoolExecutor(1, timerThreadFactory);
+
+		CustomizableThreadFactory workerThreadFactory = new CustomizableThreadFactory(
+				"opensearch-msearch-batcher-");
+		workerThreadFactory.setDaemon(true);
+		this.executor = Executors.newFixedThreadPool(batchConfigProperties.getThreads(),
+				workerThreadFactory);
+	}
+
+	/**
+	 * 执行查询，和窗口内的其它查询合并发送，阻塞直到结果返回
+	 *
+	 * @param request 查询请求
+	 * @param clazz   文档对象class
+	 * @param <T>     文档对象泛型
+	 * @return SearchResponse对象
+	 * @throws IOException 异常信息
+	 */
+	public <T> SearchResponse<T> search(SearchRequest request, Class<T> clazz) throws IOException {
+		try {
+			return searchAsync(request, clazz).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while waiting for msearch", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * 执行查询，和窗口内的其它查询合并发送
+	 *
+	 * @param request 查询请求
+	 * @param clazz   文档对象class
+	 * @param <T>     文档对象泛型
+	 * @return SearchResponse对象的CompletableFuture
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> CompletableFuture<SearchResponse<T>> searchAsync(SearchRequest request,
+			Class<T> clazz) {
+		CompletableFuture<SearchResponse<?>> future = new CompletableFuture<>();
+
+		Batch full = null;
+		synchronized (lock) {
+			if (current == null) {
+				Batch created = new Batch();
+				current = created;
+				scheduler.schedule(() -> flush(created), window, TimeUnit.MILLISECONDS);
+			}
+
+			current.pending.add(new Pending(SearchSpec.of(request, clazz), future));
+
+			if (current.pending.size() >= maxBatchSize) {
+				full = current;
+				current = null;
+			}
+		}
+
+		if (full != null) {
+			submit(full);
+		}
+
+		return future.thenApply(response -> (SearchResponse<T>) response);
+	}
+
+	/**
+	 * 立即发送未发送的合并请求并停止线程池
+	 */
+	@Override
+	public void close() {
+		Batch remaining;
+		synchronized (lock) {
+			remaining = current;
+			current = null;
+		}
+
+		if (remaining != null) {
+			execute(remaining);
+		}
+		scheduler.shutdown();
+		executor.shutdown();
+	}
+
+	/**
+	 * 合并窗口结束时发送，如果已经因为达到数量上限被发送则跳过
+	 */
+	private void flush(Batch batch) {
+		synchronized (lock) {
+			if (current != batch) {
+				return;
+			}
+			current = null;
+		}
+		submit(batch);
+	}
+
+	/**
+	 * 交给执行线程池，已经关闭时直接让等待的调用方失败
+	 */
+	private void submit(Batch batch) {
+		try {
+			executor.execute(() -> execute(batch));
+		} catch (RejectedExecutionException e) {
+			batch.pending.forEach(pending -> pending.future().completeExceptionally(e));
+		}
+	}
+
+	private void execute(Batch batch) {
+		List<SearchSpec<?>> specs = batch.pending.stream().<SearchSpec<?>>map(Pending::spec)
+				.toList();
+
+		try {
+			MultiSearchResult result = queryApi.msearch(specs);
+
+			log.debug("merged {} searches into one msearch", specs.size());
+
+			for (Pending pending : batch.pending) {
+				try {
+					pending.future().complete(result.get(pending.spec()));
+				} catch (RuntimeException e) {
+					pending.future().completeExceptionally(e);
+				}
+			}
+		} catch (Exception e) {
+			batch.pending.forEach(pending -> pending.future().completeExceptionally(e));
+		}
+	}
+
+	private record Pending(SearchSpec<?> spec, CompletableFuture<SearchResponse<?>> future) {
+	}
+
+	private static final class Batch {
+
+		private final List<Pending> pending = new ArrayList<>();
+	}
+}
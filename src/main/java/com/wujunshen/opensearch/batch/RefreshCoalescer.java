@@ -0,0 +1,205 @@
+package com.wujunshen.opensearch.batch;
+
+import com.wujunshen.opensearch.config.BatchConfigProperties;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 合并同一索引的并发refresh，每个索引在一个间隔内最多执行一次refresh。
+ * 调用方返回时，一定有一次在它调用之后才开始的refresh已经完成，所以它之前的写入都可以查到。
+ * 正在执行的refresh不能满足后到的调用方，后到的调用方合并成下一次refresh，
+ * 由其中第一个调用方等上一次完成并且距上一次开始满一个间隔后在自己的线程里执行
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 19:10<br>
+ */
+@Slf4j
+public class RefreshCoalescer {
+
+	private final long intervalNanos;
+
+	private final ConcurrentMap<String, IndexState> states = new ConcurrentHashMap<>();
+
+	private final LongAdder refreshes = new LongAdder();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	public RefreshCoalescer(BatchConfigProperties batchConfigProperties) {
+		this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(
+				batchConfigProperties.getRefreshInterval());
+	}
+
+	/**
+	 * 执行refresh，已经有还没开始的refresh在等待时合并进去，阻塞直到它完成
+	 *
+	 * @param indexName 索引名
+	 * @param refresher 真正发送refresh请求的方法
+	 * @return refresh是否成功，true成功 false失败
+	 * @throws IOException 异常信息
+	 */
+	public boolean refresh(String indexName, Refresher refresher) throws IOException {
+		IndexState state = states.computeIfAbsent(indexName, k -> new IndexState());
+
+		CompletableFuture<Boolean> next;
+		CompletableFuture<Boolean> running;
+		boolean leader;
+		synchronized (state) {
+			leader = state.next == null;
+			if (leader) {
+				state.next = new CompletableFuture<>();
+			}
+			next = state.next;
+			running = state.running;
+		}
+
+		if (!leader) {
+			coalesced.increment();
+			return await(next);
+		}
+
+		try {
+			// 上一次refresh开始前的写入不一定包含当前调用方的写入，要等它结束再发新的refresh
+			if (running != null) {
+				awaitQuietly(running);
+			}
+			sleep(state);
+		} catch (IOException e) {
+			synchronized (state) {
+				state.next = null;
+			}
+			next.completeExceptionally(e);
+			throw e;
+		}
+
+		synchronized (state) {
+			state.next = null;
+			state.running = next;
+			state.lastStart = System.nanoTime();
+			state.started = true;
+		}
+
+		refreshes.increment();
+		try {
+			boolean result = refresher.refresh();
+			next.complete(result);
+			return result;
+		} catch (IOException | RuntimeException e) {
+			next.completeExceptionally(e);
+			throw e;
+		} finally {
+			synchronized (state) {
+				if (state.running == next) {
+					state.running = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 实际发送到集群的refresh次数
+	 *
+	 * @return refresh次数
+	 */
+	public long getRefreshes() {
+		return refreshes.sum();
+	}
+
+	/**
+	 * 被合并、没有单独发送到集群的refresh次数
+	 *
+	 * @return 合并次数
+	 */
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * 距上一次refresh开始不满一个间隔时等到间隔结束，等待期间到达的调用方都合并进来
+	 */
+	private void sleep(IndexState state) throws InterruptedIOException {
+		long delay;
+		synchronized (state) {
+			delay = state.started ? state.lastStart + intervalNanos - System.nanoTime() : 0;
+		}
+		if (delay <= 0) {
+			return;
+		}
+
+		try {
+			TimeUnit.NANOSECONDS.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for coalesced refresh");
+		}
+	}
+
+	private void awaitQuietly(CompletableFuture<Boolean> future) throws InterruptedIOException {
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for running refresh");
+		} catch (ExecutionException e) {
+			// 上一次refresh的失败由它自己的调用方处理
+			log.debug("previous refresh failed", e.getCause());
+		}
+	}
+
+	private boolean await(CompletableFuture<Boolean> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for coalesced refresh");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException ioException) {
+				throw ioException;
+			}
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * 真正向集群发送refresh请求的方法
+	 */
+	@FunctionalInterface
+	public interface Refresher {
+
+		/**
+		 * 发送refresh请求
+		 *
+		 * @return refresh是否成功
+		 * @throws IOException 异常信息
+		 */
+		boolean refresh() throws IOException;
+	}
+
+	private static final class IndexState {
+
+		/**
+		 * 还没开始的下一次refresh，新到的调用方合并进来
+		 */
+		private CompletableFuture<Boolean> next;
+
+		/**
+		 * 正在执行的refresh
+		 */
+		private CompletableFuture<Boolean> running;
+
+		private long lastStart;
+
+		private boolean started;
+	}
+}
@@ -0,0 +1,341 @@
+package com.wujunshen.opensearch.bulk;
+
+import com.wujunshen.opensearch.config.BulkConfigProperties;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.opensearch._types.Refresh;
+import org.opensearch.client.opensearch.core.BulkResponse;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.opensearch.core.bulk.BulkResponseItem;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * bulk请求执行器，只对被集群拒绝(429)的条目按指数退避加随机抖动重试，其它失败视为永久失败不重试
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/16 13:12<br>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BulkExecutor {
+
+	private static final int TOO_MANY_REQUESTS = 429;
+
+	private final OpenSearchClient openSearchClient;
+
+	private final BulkConfigProperties bulkConfigProperties;
+
+	/**
+	 * 判断bulk条目失败后是否可以重试
+	 *
+	 * @param item bulk条目结果
+	 * @return 被集群拒绝返回true
+	 */
+	public static boolean isRetryable(BulkResponseItem item) {
+		if (item.error() == null) {
+			return false;
+		}
+		return item.status() == TOO_MANY_REQUESTS || (item.error().type() != null && item.error()
+				.type().endsWith("rejected_execution_exception"));
+	}
+
+	/**
+	 * 按操作数和字节数上限把bulk操作拆分成多个请求依次执行，同一时刻只持有一个分块的操作
+	 *
+	 * @param operations    bulk操作迭代器
+	 * @param maxOperations 单个bulk请求最多包含的操作数
+	 * @param maxBytes      单个bulk请求体的最大字节数，小于等于0表示不限制
+	 * @return 所有分块合并后的结果
+	 * @throws IOException 异常信息
+	 */
+	public BulkResult execute(Iterator<BulkOperation> operations, int maxOperations, long maxBytes)
+			throws IOException {
+		return execute(operations, maxOperations, maxBytes, (Refresh) null);
+	}
+
+	/**
+	 * 按操作数和字节数上限把bulk操作拆分成多个请求依次执行，每个请求都带上refresh策略
+	 *
+	 * @param operations    bulk操作迭代器
+	 * @param maxOperations 单个bulk请求最多包含的操作数
+	 * @param maxBytes      单个bulk请求体的最大字节数，小于等于0表示不限制
+	 * @param refresh       refresh策略，null表示不refresh
+	 * @return 所有分块合并后的结果
+	 * @throws IOException 异常信息
+	 */
+	public BulkResult execute(Iterator<BulkOperation> operations, int maxOperations, long maxBytes,
+			Refresh refresh) throws IOException {
+		long start = System.nanoTime();
+
+		BulkResult result = new BulkResult();
+		forEachChunk(operations, maxOperations, maxBytes,
+				(chunk, chunkBytes) -> result.merge(execute(chunk, chunkBytes, refresh)));
+
+		result.setWallTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		log.info("bulk result: {}", result);
+
+		return result;
+	}
+
+	/**
+	 * 流式执行bulk操作，边拉取边分块，最多maxConcurrentRequests个请求同时在途。
+	 * 在途请求满了之后停止从operations拉取，所以内存占用只和分块大小及并发数有关，和数据源大小无关。
+	 * 返回结果不保留逐条结果，只保留统计数据和失败条目
+	 *
+	 * @param operations            bulk操作迭代器，按需拉取
+	 * @param maxOperations         单个bulk请求最多包含的操作数
+	 * @param maxBytes              单个bulk请求体的最大字节数，小于等于0表示不限制
+	 * @param maxConcurrentRequests 同时在途的bulk请求数上限
+	 * @return 所有分块合并后的结果
+	 * @throws IOException 异常信息
+	 */
+	public BulkResult execute(Iterator<BulkOperation> operations, int maxOperations, long maxBytes,
+			int maxConcurrentRequests) throws IOException {
+		long start = System.nanoTime();
+
+		BulkResult result = new BulkResult();
+		Semaphore inFlightRequests = new Semaphore(maxConcurrentRequests);
+		AtomicReference<IOException> failure = new AtomicReference<>();
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"opensearch-bulk-stream-");
+		threadFactory.setDaemon(true);
+		ExecutorService executor = Executors.newFixedThreadPool(maxConcurrentRequests,
+				threadFactory);
+
+		try {
+			forEachChunk(operations, maxOperations, maxBytes, (chunk, chunkBytes) -> {
+				acquire(inFlightRequests, 1);
+				// 前面的请求失败后不再继续拉取数据
+				if (failure.get() != null) {
+					inFlightRequests.release();
+					throw failure.get();
+				}
+
+				executor.execute(() -> {
+					try {
+						BulkResult chunkResult = execute(chunk, chunkBytes);
+						synchronized (result) {
+							result.mergeSummary(chunkResult);
+						}
+					} catch (IOException e) {
+						failure.compareAndSet(null, e);
+					} catch (RuntimeException e) {
+						failure.compareAndSet(null, new IOException(e));
+					} finally {
+						inFlightRequests.release();
+					}
+				});
+			});
+		} finally {
+			// 拿到全部许可说明所有在途请求都已结束
+			inFlightRequests.acquireUninterruptibly(maxConcurrentRequests);
+			executor.shutdown();
+		}
+
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+
+		result.setWallTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		log.info("bulk result: {}", result);
+
+		return result;
+	}
+
+	/**
+	 * 按操作数和字节数上限把bulk操作切分成分块，同一时刻只持有一个分块的操作
+	 *
+	 * @param operations    bulk操作迭代器
+	 * @param maxOperations 单个bulk请求最多包含的操作数
+	 * @param maxBytes      单个bulk请求体的最大字节数，小于等于0表示不限制
+	 * @param consumer      分块处理方法
+	 * @throws IOException 异常信息
+	 */
+	private void forEachChunk(Iterator<BulkOperation> operations, int maxOperations, long maxBytes,
+			ChunkConsumer consumer) throws IOException {
+		JsonpMapper mapper = openSearchClient._transport().jsonpMapper();
+
+		List<BulkOperation> chunk = new ArrayList<>();
+		long chunkBytes = 0;
+
+		while (operations.hasNext()) {
+			BulkOperation operation = operations.next();
+			long operationBytes = maxBytes > 0 ? BulkSizeEstimator.estimate(operation, mapper) : 0;
+
+			// 再加入当前操作就会超限时，先把已经攒下的操作发出去
+			if (!chunk.isEmpty() && (chunk.size() >= maxOperations
+					|| maxBytes > 0 && chunkBytes + operationBytes > maxBytes)) {
+				consumer.accept(chunk, chunkBytes);
+				chunk = new ArrayList<>();
+				chunkBytes = 0;
+			}
+
+			chunk.add(operation);
+			chunkBytes += operationBytes;
+		}
+
+		if (!chunk.isEmpty()) {
+			consumer.accept(chunk, chunkBytes);
+		}
+	}
+
+	private void acquire(Semaphore semaphore, int permits) throws InterruptedIOException {
+		try {
+			semaphore.acquire(permits);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for bulk request slot");
+		}
+	}
+
+	/**
+	 * 执行单个bulk请求，被拒绝的条目在重试预算内单独重发
+	 *
+	 * @param operations   bulk操作列表
+	 * @param requestBytes 估算的请求体字节数
+	 * @return 执行结果，逐条结果顺序和operations一致
+	 * @throws IOException 异常信息
+	 */
+	public BulkResult execute(List<BulkOperation> operations, long requestBytes)
+			throws IOException {
+		return execute(operations, requestBytes, null);
+	}
+
+	/**
+	 * 执行单个bulk请求，被拒绝的条目在重试预算内单独重发，每次发送都带上refresh策略
+	 *
+	 * @param operations   bulk操作列表
+	 * @param requestBytes 估算的请求体字节数
+	 * @param refresh      refresh策略，null表示不refresh
+	 * @return 执行结果，逐条结果顺序和operations一致
+	 * @throws IOException 异常信息
+	 */
+	public BulkResult execute(List<BulkOperation> operations, long requestBytes, Refresh refresh)
+			throws IOException {
+		long start = System.nanoTime();
+
+		BulkResult result = new BulkResult();
+		result.setRequestBytes(requestBytes);
+
+		BulkResponseItem[] items = new BulkResponseItem[operations.size()];
+		List<Integer> pending = IntStream.range(0, operations.size()).boxed().toList();
+		int attempt = 0;
+
+		while (!pending.isEmpty()) {
+			List<BulkOperation> pendingOperations = pending.stream().map(operations::get).toList();
+
+			BulkResponse bulkResponse;
+			try {
+				bulkResponse = openSearchClient.bulk(
+						br -> br.operations(pendingOperations).refresh(refresh));
+			} catch (OpenSearchException e) {
+				// 整个请求被拒绝时，重发这一批中所有未完成的条目
+				if (e.status() != TOO_MANY_REQUESTS || attempt >= bulkConfigProperties.getMaxRetries()) {
+					throw e;
+				}
+				backoff(attempt++, pending.size());
+				continue;
+			}
+			result.addRequest(bulkResponse.took());
+
+			List<Integer> rejected = new ArrayList<>();
+			List<BulkResponseItem> responseItems = bulkResponse.items();
+			for (int i = 0; i < pending.size(); i++) {
+				BulkResponseItem item = responseItems.get(i);
+				items[pending.get(i)] = item;
+				if (isRetryable(item)) {
+					rejected.add(pending.get(i));
+				}
+			}
+
+			if (rejected.isEmpty() || attempt >= bulkConfigProperties.getMaxRetries()) {
+				break;
+			}
+
+			backoff(attempt++, rejected.size());
+			pending = rejected;
+		}
+
+		for (BulkResponseItem item : items) {
+			result.addItem(item);
+		}
+		result.setWallTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+		logFailures(result, attempt);
+
+		return result;
+	}
+
+	/**
+	 * 按指数退避计算等待时间并休眠，等待时间在[上限/2, 上限]之间随机，避免多个客户端同时重试
+	 *
+	 * @param attempt 已重试次数
+	 * @param size    要重试的条目数
+	 * @throws InterruptedIOException 休眠被中断
+	 */
+	private void backoff(int attempt, int size) throws InterruptedIOException {
+		long ceiling = Math.min(bulkConfigProperties.getMaxBackoff(),
+				bulkConfigProperties.getInitialBackoff() << Math.min(attempt, 30));
+		long delay = ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+
+		log.warn("{} bulk items rejected, retry {} after {} mill second", size, attempt + 1, delay);
+
+		try {
+			Thread.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while backing off bulk retry");
+		}
+	}
+
+	/**
+	 * 分别记录重试耗尽的条目和永久失败的条目
+	 *
+	 * @param result  执行结果
+	 * @param retries 实际重试次数
+	 */
+	private void logFailures(BulkResult result, int retries) {
+		for (BulkFailure failure : result.getFailures()) {
+			if (failure.isRetryable()) {
+				log.warn("rejected after {} retries, id: {}, reason: {}", retries, failure.getId(),
+						failure.getReason());
+			} else {
+				log.error("permanent failure, id: {}, type: {}, reason: {}", failure.getId(),
+						failure.getType(), failure.getReason());
+			}
+		}
+	}
+
+	/**
+	 * 分块处理方法
+	 */
+	@FunctionalInterface
+	private interface ChunkConsumer {
+
+		/**
+		 * 处理一个分块
+		 *
+		 * @param chunk      bulk操作列表
+		 * @param chunkBytes 估算的请求体字节数
+		 * @throws IOException 异常信息
+		 */
+		void accept(List<BulkOperation> chunk, long chunkBytes) throws IOException;
+	}
+}
@@ -0,0 +1,44 @@
+package com.wujunshen.opensearch.bulk;
+
+import lombok.Value;
+
+/**
+ * bulk中单个失败条目的信息
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/16 14:02<br>
+ */
+@Value
+public class BulkFailure {
+
+	/**
+	 * 索引名
+	 */
+	String index;
+
+	/**
+	 * 文档id
+	 */
+	String id;
+
+	/**
+	 * http状态码
+	 */
+	int status;
+
+	/**
+	 * 错误类型，例如mapper_parsing_exception
+	 */
+	String type;
+
+	/**
+	 * 错误原因
+	 */
+	String reason;
+
+	/**
+	 * 是否是被集群拒绝且重试耗尽的条目，false表示永久失败
+	 */
+	boolean retryable;
+}
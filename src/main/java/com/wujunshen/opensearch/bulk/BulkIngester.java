@@ -0,0 +1,393 @@
+package com.wujunshen.opensearch.bulk;
+
+import com.wujunshen.opensearch.cache.QueryCache;
+import com.wujunshen.opensearch.config.BulkConfigProperties;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.opensearch.core.bulk.BulkOperationBase;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 后台bulk写入器，缓存单条index/update/delete操作，达到操作数、字节数或时间间隔任一阈值时异步flush
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/16 11:05<br>
+ */
+@Slf4j
+public class BulkIngester implements AutoCloseable {
+
+	private final BulkExecutor bulkExecutor;
+
+	private final JsonpMapper mapper;
+
+	private final int maxOperations;
+
+	private final long maxBytes;
+
+	private final int maxConcurrentRequests;
+
+	private final Listener listener;
+
+	private final ObjectProvider<QueryCache> queryCache;
+
+	/**
+	 * 限制同时在途的bulk请求数，满了之后提交方阻塞等待
+	 */
+	private final Semaphore inFlightRequests;
+
+	private final ExecutorService executor;
+
+	private final ScheduledExecutorService scheduler;
+
+	private List<BulkOperation> buffer = new ArrayList<>();
+
+	private long bufferBytes;
+
+	/**
+	 * 和buffer共用一把锁，关闭后的最后一次drain之后不会再有操作进入缓存
+	 */
+	private boolean closed;
+
+	/**
+	 * 已经从缓存取出、还没交给线程池的批次数，和buffer共用一把锁。
+	 * close要等这些批次提交后才能关闭线程池，否则调用方已经返回的写入会被丢掉
+	 */
+	private int pendingSubmits;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param openSearchClient     OpenSearchClient对象
+	 * @param bulkExecutor         bulk请求执行器，负责重试被拒绝的条目
+	 * @param bulkConfigProperties bulk配置
+	 * @param listener             bulk执行结果监听器，可以为null
+	 * @param queryCache           查询结果缓存，每个bulk请求结束后清掉涉及索引的条目
+	 */
+	public BulkIngester(OpenSearchClient openSearchClient, BulkExecutor bulkExecutor,
+			BulkConfigProperties bulkConfigProperties, Listener listener,
+			ObjectProvider<QueryCache> queryCache) {
+		this.bulkExecutor = bulkExecutor;
+		this.mapper = openSearchClient._transport().jsonpMapper();
+		this.maxOperations = bulkConfigProperties.getMaxOperations();
+		this.maxBytes = bulkConfigProperties.getMaxBytes();
+		this.maxConcurrentRequests = bulkConfigProperties.getMaxConcurrentRequests();
+		this.listener = listener != null ? listener : new Listener() {
+		};
+		this.queryCache = queryCache;
+		this.inFlightRequests = new Semaphore(maxConcurrentRequests);
+
+		CustomizableThreadFactory workerThreadFactory = new CustomizableThreadFactory(
+				"opensearch-bulk-ingester-");
+		workerThreadFactory.setDaemon(true);
+		this.executor = Executors.newFixedThreadPool(maxConcurrentRequests, workerThreadFactory);
+
+		CustomizableThreadFactory flushThreadFactory = new CustomizableThreadFactory(
+				"opensearch-bulk-flush-");
+		flushThreadFactory.setDaemon(true);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(flushThreadFactory);
+
+		long flushInterval = bulkConfigProperties.getFlushInterval();
+		if (flushInterval > 0) {
+			scheduler.scheduleWithFixedDelay(this::flushOnInterval, flushInterval, flushInterval,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * 写入文档，由服务端生成id
+	 *
+	 * @param indexName 索引名
+	 * @param o         文档对象
+	 * @param <T>       文档对象泛型
+	 */
+	public <T> void index(String indexName, T o) {
+		add(BulkOperation.of(op -> op.index(idx -> idx.index(indexName).document(o))));
+	}
+
+	/**
+	 * 写入文档
+	 *
+	 * @param indexName 索引名
+	 * @param id        文档id
+	 * @param o         文档对象
+	 * @param <T>       文档对象泛型
+	 */
+	public <T> void index(String indexName, String id, T o) {
+		add(BulkOperation.of(op -> op.index(idx -> idx.index(indexName).id(id).document(o))));
+	}
+
+	/**
+	 * 局部更新文档
+	 *
+	 * @param indexName 索引名
+	 * @param id        要更新的文档对象id
+	 * @param o         包含要更新字段的文档对象
+	 * @param <T>       文档对象泛型
+	 */
+	public <T> void update(String indexName, String id, T o) {
+		add(BulkOperation.of(
+				op -> op.update(u -> u.index(indexName).id(id).document(Map.of("doc", o)))));
+	}
+
+	/**
+	 * 删除文档
+	 *
+	 * @param indexName 索引名
+	 * @param id        要删除的文档对象id
+	 */
+	public void delete(String indexName, String id) {
+		add(BulkOperation.of(op -> op.delete(d -> d.index(indexName).id(id))));
+	}
+
+	/**
+	 * 添加任意bulk操作，缓存达到阈值时触发flush，在途请求已满时阻塞等待
+	 *
+	 * @param operation bulk操作
+	 */
+	public void add(BulkOperation operation) {
+		long operationBytes = maxBytes > 0 ? BulkSizeEstimator.estimate(operation, mapper) : 0;
+
+		Batch batch = null;
+		synchronized (this) {
+			if (closed) {
+				throw new IllegalStateException("bulk ingester is closed");
+			}
+			buffer.add(operation);
+			bufferBytes += operationBytes;
+
+			if (buffer.size() >= maxOperations || maxBytes > 0 && bufferBytes >= maxBytes) {
+				batch = drain();
+			}
+		}
+
+		if (batch != null) {
+			submit(batch);
+		}
+	}
+
+	/**
+	 * 立即把缓存中的操作发出去
+	 */
+	public void flush() {
+		Batch batch;
+		synchronized (this) {
+			batch = drain();
+		}
+
+		if (!batch.operations().isEmpty()) {
+			submit(batch);
+		}
+	}
+
+	/**
+	 * 停止定时flush，发出剩余操作并等待所有在途请求完成
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+
+		// 不能中断正在执行的定时flush，它可能已经取出缓存、正阻塞在等待在途请求许可上
+		scheduler.shutdown();
+		awaitTermination(scheduler);
+		flush();
+
+		awaitPendingSubmits();
+
+		// 拿到全部许可说明所有在途请求都已结束
+		inFlightRequests.acquireUninterruptibly(maxConcurrentRequests);
+		inFlightRequests.release(maxConcurrentRequests);
+
+		executor.shutdown();
+		log.info("bulk ingester closed");
+	}
+
+	/**
+	 * 取出缓存中的所有操作，调用方需持有锁
+	 *
+	 * @return 缓存中的操作
+	 */
+	private Batch drain() {
+		Batch batch = new Batch(buffer, bufferBytes);
+		buffer = new ArrayList<>();
+		bufferBytes = 0;
+		if (!batch.operations().isEmpty()) {
+			pendingSubmits++;
+		}
+		return batch;
+	}
+
+	/**
+	 * 等待其它线程取出的批次都交给线程池，期间被中断时保留中断状态继续等待
+	 */
+	private synchronized void awaitPendingSubmits() {
+		boolean interrupted = false;
+		while (pendingSubmits > 0) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private synchronized void submitted() {
+		if (--pendingSubmits == 0) {
+			notifyAll();
+		}
+	}
+
+	/**
+	 * 等待线程池中的任务执行完，期间被中断时保留中断状态继续等待
+	 *
+	 * @param executorService 已经shutdown的线程池
+	 */
+	private static void awaitTermination(ExecutorService executorService) {
+		boolean interrupted = false;
+		boolean terminated = false;
+		while (!terminated) {
+			try {
+				terminated = executorService.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void flushOnInterval() {
+		try {
+			flush();
+		} catch (Exception e) {
+			log.error("bulk ingester interval flush failed", e);
+		}
+	}
+
+	/**
+	 * 异步提交一个bulk请求
+	 *
+	 * @param batch 待发送的操作
+	 */
+	private void submit(Batch batch) {
+		try {
+			try {
+				inFlightRequests.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while waiting for bulk request slot",
+						e);
+			}
+
+			try {
+				executor.execute(() -> {
+					try {
+						execute(batch);
+					} finally {
+						inFlightRequests.release();
+					}
+				});
+			} catch (RuntimeException e) {
+				inFlightRequests.release();
+				throw e;
+			}
+		} finally {
+			submitted();
+		}
+	}
+
+	private void execute(Batch batch) {
+		List<BulkOperation> operations = batch.operations();
+		listener.beforeBulk(operations);
+
+		try {
+			listener.afterBulk(operations, bulkExecutor.execute(operations, batch.bytes()));
+		} catch (Exception e) {
+			log.error("bulk request of {} operations failed", operations.size(), e);
+			listener.afterBulk(operations, e);
+		} finally {
+			// 请求失败时也可能有部分条目已写入
+			queryCache.ifAvailable(cache -> indexNames(operations).forEach(cache::invalidate));
+		}
+	}
+
+	/**
+	 * bulk操作涉及的索引名
+	 *
+	 * @param operations bulk操作列表
+	 * @return 去重后的索引名
+	 */
+	private static Set<String> indexNames(List<BulkOperation> operations) {
+		Set<String> indexNames = new LinkedHashSet<>();
+		for (BulkOperation operation : operations) {
+			String indexName = ((BulkOperationBase) operation._get()).index();
+			if (indexName != null) {
+				indexNames.add(indexName);
+			}
+		}
+		return indexNames;
+	}
+
+	/**
+	 * 一次flush取出的操作及其估算字节数
+	 *
+	 * @param operations bulk操作列表
+	 * @param bytes      估算的请求体字节数
+	 */
+	private record Batch(List<BulkOperation> operations, long bytes) {
+	}
+
+	/**
+	 * bulk执行结果监听器
+	 */
+	public interface Listener {
+
+		/**
+		 * bulk请求发送前回调
+		 *
+		 * @param operations 本次请求的bulk操作
+		 */
+		default void beforeBulk(List<BulkOperation> operations) {
+		}
+
+		/**
+		 * bulk请求返回后回调，被拒绝的条目已经重试过，结果中可能仍包含失败的条目
+		 *
+		 * @param operations 本次请求的bulk操作
+		 * @param result     执行结果，逐条结果顺序和operations一致
+		 */
+		default void afterBulk(List<BulkOperation> operations, BulkResult result) {
+		}
+
+		/**
+		 * bulk请求整体失败时回调
+		 *
+		 * @param operations 本次请求的bulk操作
+		 * @param failure    异常信息
+		 */
+		default void afterBulk(List<BulkOperation> operations, Throwable failure) {
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.wujunshen.opensearch.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.ToString;
+import org.opensearch.client.opensearch.core.bulk.BulkResponseItem;
+
+/**
+ * 批量操作结果，包含逐条结果以及调整批次大小需要的吞吐数据
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/16 14:06<br>
+ */
+@Getter
+@ToString(exclude = {"items", "failures"})
+public class BulkResult {
+
+	/**
+	 * 逐条结果，顺序和提交的操作一致
+	 */
+	private final List<BulkResponseItem> items = new ArrayList<>();
+
+	/**
+	 * 失败条目
+	 */
+	private final List<BulkFailure> failures = new ArrayList<>();
+
+	/**
+	 * 成功条数
+	 */
+	private long succeeded;
+
+	/**
+	 * 服务端返回的took合计(毫秒)
+	 */
+	private long took;
+
+	/**
+	 * 客户端耗时(毫秒)
+	 */
+	private long wallTime;
+
+	/**
+	 * 估算的请求体字节数，不含重试，没有字节数上限时不估算，为0
+	 */
+	private long requestBytes;
+
+	/**
+	 * 实际发送的bulk请求数，包括重试
+	 */
+	private int requests;
+
+	/**
+	 * 失败条数
+	 *
+	 * @return 失败条数
+	 */
+	public long getFailed() {
+		return failures.size();
+	}
+
+	/**
+	 * 是否全部成功
+	 *
+	 * @return 没有失败条目返回true
+	 */
+	public boolean isSuccess() {
+		return failures.isEmpty();
+	}
+
+	/**
+	 * 被集群拒绝且重试耗尽的失败条目，稍后重新提交可能成功
+	 *
+	 * @return 失败条目列表
+	 */
+	public List<BulkFailure> getRetryableFailures() {
+		return failures.stream().filter(BulkFailure::isRetryable).toList();
+	}
+
+	/**
+	 * 永久失败的条目，例如mapping错误，重新提交也不会成功
+	 *
+	 * @return 失败条目列表
+	 */
+	public List<BulkFailure> getPermanentFailures() {
+		return failures.stream().filter(failure -> !failure.isRetryable()).toList();
+	}
+
+	/**
+	 * 记录一次bulk请求的返回
+	 *
+	 * @param took 服务端took(毫秒)
+	 */
+	void addRequest(long took) {
+		this.requests++;
+		this.took += took;
+	}
+
+	/**
+	 * 记录最终的逐条结果
+	 *
+	 * @param item bulk条目结果
+	 */
+	void addItem(BulkResponseItem item) {
+		items.add(item);
+
+		if (item.error() == null) {
+			succeeded++;
+		} else {
+			failures.add(new BulkFailure(item.index(), item.id(), item.status(), item.error().type(),
+					item.error().reason(), BulkExecutor.isRetryable(item)));
+		}
+	}
+
+	/**
+	 * 合并另一个分块的结果，不包括客户端耗时
+	 *
+	 * @param other 另一个分块的结果
+	 */
+	void merge(BulkResult other) {
+		items.addAll(other.items);
+		mergeSummary(other);
+	}
+
+	/**
+	 * 合并另一个分块的统计数据和失败条目，不保留逐条结果，用于流式写入
+	 *
+	 * @param other 另一个分块的结果
+	 */
+	void mergeSummary(BulkResult other) {
+		failures.addAll(other.failures);
+		succeeded += other.succeeded;
+		took += other.took;
+		requestBytes += other.requestBytes;
+		requests += other.requests;
+	}
+
+	void setRequestBytes(long requestBytes) {
+		this.requestBytes = requestBytes;
+	}
+
+	void setWallTime(long wallTime) {
+		this.wallTime = wallTime;
+	}
+}
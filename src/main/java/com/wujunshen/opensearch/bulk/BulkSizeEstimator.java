@@ -0,0 +1,67 @@
+package com.wujunshen.opensearch.bulk;
+
+import jakarta.json.stream.JsonGenerator;
+import java.io.OutputStream;
+import java.util.Iterator;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.JsonpSerializable;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+
+/**
+ * bulk请求体大小估算工具
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/16 10:28<br>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BulkSizeEstimator {
+
+	/**
+	 * 估算单个bulk操作序列化成ndjson后的字节数，包括action行和文档行。
+	 * 估算就是完整序列化一次只是不保存结果，发送时还要再序列化一次，只在需要按字节数切分时调用
+	 *
+	 * @param operation bulk操作
+	 * @param mapper    序列化用的JsonpMapper
+	 * @return 字节数
+	 */
+	public static long estimate(BulkOperation operation, JsonpMapper mapper) {
+		CountingOutputStream out = new CountingOutputStream();
+
+		Iterator<?> iterator = operation._serializables();
+		while (iterator.hasNext()) {
+			Object element = iterator.next();
+			try (JsonGenerator generator = mapper.jsonProvider().createGenerator(out)) {
+				if (element instanceof JsonpSerializable serializable) {
+					serializable.serialize(generator, mapper);
+				} else {
+					mapper.serialize(element, generator);
+				}
+			}
+			// ndjson每行结尾的换行符
+			out.write('\n');
+		}
+
+		return out.count;
+	}
+
+	/**
+	 * 只计数不保存内容的OutputStream
+	 */
+	private static final class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
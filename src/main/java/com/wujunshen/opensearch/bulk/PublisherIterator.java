@@ -0,0 +1,112 @@
+package com.wujunshen.opensearch.bulk;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 把Flow.Publisher转成阻塞的Iterator，每被消费batchSize个元素才向上游再请求batchSize个，
+ * 消费方停止拉取时上游也就停止推送，缓存的元素最多batchSize个
+ *
+ * @param <T> 元素泛型
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/16 15:20<br>
+ */
+public class PublisherIterator<T> implements Iterator<T>, Flow.Subscriber<T> {
+
+	private static final Object COMPLETE = new Object();
+
+	private final int batchSize;
+
+	private final BlockingQueue<Object> queue;
+
+	private volatile Flow.Subscription subscription;
+
+	private volatile Throwable error;
+
+	private Object next;
+
+	private int consumed;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param batchSize 每次向上游请求的元素个数
+	 */
+	public PublisherIterator(int batchSize) {
+		this.batchSize = batchSize;
+		this.queue = new LinkedBlockingQueue<>(batchSize + 1);
+	}
+
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+		this.subscription = subscription;
+		subscription.request(batchSize);
+	}
+
+	@Override
+	public void onNext(T item) {
+		queue.offer(item);
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		error = throwable;
+		queue.offer(COMPLETE);
+	}
+
+	@Override
+	public void onComplete() {
+		queue.offer(COMPLETE);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null) {
+			try {
+				next = queue.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				cancel();
+				throw new IllegalStateException("interrupted while waiting for publisher", e);
+			}
+		}
+
+		if (next == COMPLETE) {
+			if (error != null) {
+				throw new IllegalStateException("publisher failed", error);
+			}
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		T item = (T) next;
+		next = null;
+
+		if (++consumed == batchSize) {
+			consumed = 0;
+			subscription.request(batchSize);
+		}
+		return item;
+	}
+
+	/**
+	 * 取消订阅，消费方提前结束时调用
+	 */
+	public void cancel() {
+		if (subscription != null) {
+			subscription.cancel();
+		}
+	}
+}
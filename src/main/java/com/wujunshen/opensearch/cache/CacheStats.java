@@ -0,0 +1,49 @@
+package com.wujunshen.opensearch.cache;
+
+import lombok.Value;
+
+/**
+ * 查询结果缓存统计数据
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 16:12<br>
+ */
+@Value
+public class CacheStats {
+
+	/**
+	 * 命中次数
+	 */
+	long hits;
+
+	/**
+	 * 未命中次数
+	 */
+	long misses;
+
+	/**
+	 * 因超过权重上限被淘汰的条目数
+	 */
+	long evictions;
+
+	/**
+	 * 当前条目数
+	 */
+	int size;
+
+	/**
+	 * 当前总权重，即缓存的响应体总字节数
+	 */
+	long weight;
+
+	/**
+	 * 命中率
+	 *
+	 * @return 命中次数占总查询次数的比例，没有查询时为0
+	 */
+	public double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+}
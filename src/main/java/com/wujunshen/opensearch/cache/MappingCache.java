@@ -0,0 +1,166 @@
+package com.wujunshen.opensearch.cache;
+
+import com.wujunshen.opensearch.config.CacheConfigProperties;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.opensearch._types.mapping.TypeMapping;
+
+/**
+ * 索引mapping缓存，按索引名缓存，条目超过存活时间后重新读取。
+ * 创建、删除索引和切换别名时清掉对应的条目，动态mapping新增的字段在存活时间之后可见。
+ * get按调用方传入的名字缓存，名字可能是别名；getAll单独保存集群返回的全部索引，别名不会混进去
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 18:40<br>
+ */
+@Slf4j
+public class MappingCache {
+
+	private final long ttlNanos;
+
+	private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * getAll读取的全部mapping，key都是实际的索引名，没有读取过或有失效操作后为null
+	 */
+	private Map<String, TypeMapping> all;
+
+	/**
+	 * 全部mapping的过期时间
+	 */
+	private long allExpireAt;
+
+	/**
+	 * 每次失效操作加一，读取期间发生过失效操作的结果不放进缓存
+	 */
+	private long invalidations;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param cacheConfigProperties 缓存配置，使用其中的mapping存活时间
+	 */
+	public MappingCache(CacheConfigProperties cacheConfigProperties) {
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(cacheConfigProperties.getMappingTtl());
+	}
+
+	/**
+	 * 取索引的mapping，未命中或已过期时读取并放进缓存
+	 *
+	 * @param indexName 索引名
+	 * @param loader    读取单个索引mapping的方法
+	 * @return TypeMapping对象
+	 * @throws IOException 异常信息
+	 */
+	public TypeMapping get(String indexName, Loader<TypeMapping> loader) throws IOException {
+		CacheEntry entry = entries.get(indexName);
+		if (entry != null && entry.expireAt() - System.nanoTime() > 0) {
+			return entry.mapping();
+		}
+
+		long invalidationsBefore;
+		synchronized (this) {
+			invalidationsBefore = invalidations;
+		}
+
+		TypeMapping mapping = loader.load();
+		synchronized (this) {
+			if (invalidations == invalidationsBefore) {
+				put(indexName, mapping);
+			}
+		}
+
+		return mapping;
+	}
+
+	/**
+	 * 取所有索引的mapping，缓存的全部mapping过期或有失效操作后重新读取
+	 *
+	 * @param loader 读取所有索引mapping的方法
+	 * @return key是索引名，value是TypeMapping对象
+	 * @throws IOException 异常信息
+	 */
+	public Map<String, TypeMapping> getAll(Loader<Map<String, TypeMapping>> loader)
+			throws IOException {
+		long invalidationsBefore;
+		synchronized (this) {
+			if (all != null && allExpireAt - System.nanoTime() > 0) {
+				return new HashMap<>(all);
+			}
+			invalidationsBefore = invalidations;
+		}
+
+		Map<String, TypeMapping> mappings = loader.load();
+		synchronized (this) {
+			if (invalidations != invalidationsBefore || ttlNanos <= 0) {
+				return mappings;
+			}
+			mappings.forEach(this::put);
+			all = Collections.unmodifiableMap(new HashMap<>(mappings));
+			allExpireAt = System.nanoTime() + ttlNanos;
+		}
+
+		return mappings;
+	}
+
+	/**
+	 * 放进缓存，存活时间小于等于0时不缓存
+	 *
+	 * @param indexName 索引名
+	 * @param mapping   TypeMapping对象
+	 */
+	public synchronized void put(String indexName, TypeMapping mapping) {
+		if (ttlNanos > 0 && mapping != null) {
+			entries.put(indexName, new CacheEntry(mapping, System.nanoTime() + ttlNanos));
+		}
+	}
+
+	/**
+	 * 清掉索引的mapping，索引集合可能已经变化，下次getAll重新读取
+	 *
+	 * @param indexName 索引名
+	 */
+	public synchronized void invalidate(String indexName) {
+		invalidations++;
+		entries.remove(indexName);
+		all = null;
+
+		log.debug("invalidate cached mapping of {}", indexName);
+	}
+
+	/**
+	 * 清空缓存
+	 */
+	public synchronized void invalidateAll() {
+		invalidations++;
+		entries.clear();
+		all = null;
+	}
+
+	/**
+	 * 真正向集群读取mapping的方法
+	 *
+	 * @param <V> 读取结果泛型
+	 */
+	@FunctionalInterface
+	public interface Loader<V> {
+
+		/**
+		 * 读取mapping
+		 *
+		 * @return 读取结果
+		 * @throws IOException 异常信息
+		 */
+		V load() throws IOException;
+	}
+
+	private record CacheEntry(TypeMapping mapping, long expireAt) {
+
+	}
+}
@@ -0,0 +1,214 @@
+package com.wujunshen.opensearch.cache;
+
+import com.wujunshen.opensearch.config.CacheConfigProperties;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+
+/**
+ * 客户端查询结果缓存，key是索引名、文档class和序列化后的请求体(query、sort、分页等)。
+ * 条目超过存活时间后失效，缓存的响应体总字节数超过上限时淘汰最久未访问的条目，索引有写入或refresh时清掉该索引的所有条目。
+ * 缓存不知道别名指向哪些索引，查询的索引名无法从结果确认是具体索引时(比如别名)，任何索引的写入都会清掉这个条目。
+ * 缓存里存的是序列化后的响应体，每次命中都反序列化出新的对象，调用方修改返回结果不会影响其它调用方
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 16:10<br>
+ */
+@Slf4j
+public class QueryCache {
+
+	private final JsonpMapper jsonpMapper;
+
+	private final long ttlNanos;
+
+	private final long maxWeight;
+
+	/**
+	 * 按访问顺序排列，第一个就是最久未访问的条目
+	 */
+	private final LinkedHashMap<SearchKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private long weight;
+
+	/**
+	 * 每次失效操作加一，查询期间发生过失效操作的结果不放进缓存，避免缓存写入前的旧数据
+	 */
+	private long invalidations;
+
+	public QueryCache(JsonpMapper jsonpMapper, CacheConfigProperties cacheConfigProperties) {
+		this.jsonpMapper = jsonpMapper;
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(cacheConfigProperties.getTtl());
+		this.maxWeight = cacheConfigProperties.getMaxWeight();
+	}
+
+	/**
+	 * 优先从缓存中取查询结果，未命中或已过期时执行查询并放进缓存
+	 *
+	 * @param request 查询请求
+	 * @param clazz   文档对象class
+	 * @param loader  未命中时执行的查询
+	 * @param <T>     文档对象泛型
+	 * @return 查询结果
+	 * @throws IOException 异常信息
+	 */
+	public <T> SearchResponse<T> get(SearchRequest request, Class<T> clazz, SearchLoader<T> loader)
+			throws IOException {
+		SearchKey key = SearchKey.of(request, clazz, jsonpMapper);
+		long now = System.nanoTime();
+
+		byte[] cached = null;
+		long invalidationsBefore;
+		synchronized (this) {
+			CacheEntry entry = entries.get(key);
+			if (entry != null && entry.expireAt() - now > 0) {
+				cached = entry.body();
+			} else if (entry != null) {
+				remove(key);
+			}
+			invalidationsBefore = invalidations;
+		}
+		if (cached != null) {
+			hits.increment();
+			return deserialize(cached, clazz);
+		}
+
+		misses.increment();
+		SearchResponse<T> response = loader.load();
+
+		byte[] body = serialize(response);
+		long entryWeight = body.length;
+		if (entryWeight > maxWeight) {
+			return response;
+		}
+
+		Set<String> concreteIndices = response.hits().hits().stream().map(Hit::index)
+				.filter(Objects::nonNull).collect(Collectors.toSet());
+		synchronized (this) {
+			if (invalidations == invalidationsBefore) {
+				CacheEntry previous = entries.put(key, new CacheEntry(body, entryWeight,
+						System.nanoTime() + ttlNanos, concreteIndices,
+						key.resolvedBy(concreteIndices)));
+				if (previous != null) {
+					weight -= previous.weight();
+				}
+				weight += entryWeight;
+				evict();
+			}
+		}
+
+		// 调用方拿到的是查询返回的对象，缓存里只留序列化后的副本
+		return response;
+	}
+
+	/**
+	 * 清掉和索引相关的所有条目，通配符查询、结果里有这个索引的文档以及索引名无法确认的条目也会被清掉
+	 *
+	 * @param indexName 索引名
+	 */
+	public synchronized void invalidate(String indexName) {
+		invalidations++;
+
+		int removed = 0;
+		Iterator<Map.Entry<SearchKey, CacheEntry>> iterator = entries.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<SearchKey, CacheEntry> entry = iterator.next();
+			if (entry.getValue().affectedBy(indexName) || entry.getKey().covers(indexName)) {
+				weight -= entry.getValue().weight();
+				iterator.remove();
+				removed++;
+			}
+		}
+
+		log.debug("invalidate {} cached queries of {}", removed, indexName);
+	}
+
+	/**
+	 * 清空缓存
+	 */
+	public synchronized void invalidateAll() {
+		invalidations++;
+		entries.clear();
+		weight = 0;
+	}
+
+	/**
+	 * 缓存统计数据
+	 *
+	 * @return CacheStats对象
+	 */
+	public synchronized CacheStats getStats() {
+		return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weight);
+	}
+
+	private byte[] serialize(SearchResponse<?> response) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (JsonGenerator generator = jsonpMapper.jsonProvider().createGenerator(out)) {
+			response.serialize(generator, jsonpMapper);
+		}
+		return out.toByteArray();
+	}
+
+	private <T> SearchResponse<T> deserialize(byte[] body, Class<T> clazz) {
+		try (JsonParser parser = jsonpMapper.jsonProvider()
+				.createParser(new ByteArrayInputStream(body))) {
+			return SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.of(clazz))
+					.deserialize(parser, jsonpMapper);
+		}
+	}
+
+	private void remove(SearchKey key) {
+		CacheEntry entry = entries.remove(key);
+		if (entry != null) {
+			weight -= entry.weight();
+		}
+	}
+
+	private void evict() {
+		Iterator<CacheEntry> iterator = entries.values().iterator();
+		while (weight > maxWeight && iterator.hasNext()) {
+			weight -= iterator.next().weight();
+			iterator.remove();
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * 缓存条目
+	 *
+	 * @param body            序列化后的响应体
+	 * @param weight          权重，即响应体字节数
+	 * @param expireAt        过期时间(System.nanoTime)
+	 * @param concreteIndices 结果里文档所在的具体索引，查询别名时就是别名指向的索引
+	 * @param resolved        查询的索引名是否都确认是具体索引
+	 */
+	private record CacheEntry(byte[] body, long weight, long expireAt,
+			Set<String> concreteIndices, boolean resolved) {
+
+		private boolean affectedBy(String indexName) {
+			return !resolved || concreteIndices.contains(indexName);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.wujunshen.opensearch.cache;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+
+/**
+ * 合并同时在途的相同查询(single-flight)。第一个调用方真正发送请求，请求返回前到达的相同查询不再发请求，
+ * 直接等待并共享同一个结果或异常。请求返回后立即移除，不缓存结果，所以不会返回旧数据。
+ * 共享的SearchResponse和其中的文档对象是同一个实例，调用方不要修改
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 17:35<br>
+ */
+@Slf4j
+public class SearchCoalescer {
+
+	private final JsonpMapper jsonpMapper;
+
+	private final ConcurrentMap<SearchKey, CompletableFuture<SearchResponse<?>>> inFlight =
+			new ConcurrentHashMap<>();
+
+	private final LongAdder calls = new LongAdder();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	public SearchCoalescer(JsonpMapper jsonpMapper) {
+		this.jsonpMapper = jsonpMapper;
+	}
+
+	/**
+	 * 执行查询，已经有相同查询在途时等待它的结果
+	 *
+	 * @param request 查询请求
+	 * @param clazz   文档对象class
+	 * @param loader  真正发送查询的方法
+	 * @param <T>     文档对象泛型
+	 * @return 查询结果
+	 * @throws IOException 异常信息
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> SearchResponse<T> search(SearchRequest request, Class<T> clazz, SearchLoader<T> loader)
+			throws IOException {
+		SearchKey key = SearchKey.of(request, clazz, jsonpMapper);
+
+		CompletableFuture<SearchResponse<?>> future = new CompletableFuture<>();
+		CompletableFuture<SearchResponse<?>> existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			coalesced.increment();
+			return (SearchResponse<T>) await(existing);
+		}
+
+		calls.increment();
+		try {
+			SearchResponse<T> response = loader.load();
+			future.complete(response);
+			return response;
+		} catch (IOException | RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, future);
+		}
+	}
+
+	/**
+	 * 实际发送到集群的查询次数
+	 *
+	 * @return 查询次数
+	 */
+	public long getCalls() {
+		return calls.sum();
+	}
+
+	/**
+	 * 被合并、没有发送到集群的查询次数
+	 *
+	 * @return 合并次数
+	 */
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	private SearchResponse<?> await(CompletableFuture<SearchResponse<?>> future)
+			throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for coalesced search");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException ioException) {
+				throw ioException;
+			}
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IOException(cause);
+		}
+	}
+}
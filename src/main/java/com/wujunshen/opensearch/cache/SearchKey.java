@@ -0,0 +1,69 @@
+package com.wujunshen.opensearch.cache;
+
+import jakarta.json.stream.JsonGenerator;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch.core.SearchRequest;
+
+/**
+ * 查询请求的规范化形式，索引名、文档class和请求体都相同的两次查询得到相等的key
+ *
+ * @param indices   索引名列表
+ * @param className 文档对象class名
+ * @param body      序列化后的请求体，包括query、sort、分页等
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 17:30<br>
+ */
+public record SearchKey(List<String> indices, String className, String body) {
+
+	/**
+	 * 根据查询请求生成key，builder生成的字段顺序是固定的，相同的查询序列化成相同的字符串
+	 *
+	 * @param request     查询请求
+	 * @param clazz       文档对象class
+	 * @param jsonpMapper 序列化请求体用的JsonpMapper
+	 * @return SearchKey对象
+	 */
+	public static SearchKey of(SearchRequest request, Class<?> clazz, JsonpMapper jsonpMapper) {
+		StringWriter writer = new StringWriter();
+		try (JsonGenerator generator = jsonpMapper.jsonProvider().createGenerator(writer)) {
+			request.serialize(generator, jsonpMapper);
+		}
+		return new SearchKey(request.index(), clazz.getName(), writer.toString());
+	}
+
+	/**
+	 * 判断这个查询是否会查到索引中的数据，没有指定索引、_all和匹配的通配符都算，逗号分隔的多个索引逐个比较
+	 *
+	 * @param indexName 索引名
+	 * @return 会查到返回true
+	 */
+	public boolean covers(String indexName) {
+		return indices.isEmpty() || names().anyMatch(
+				index -> index.equals(indexName) || "_all".equals(index) || (index.contains("*")
+						&& indexName.matches(index.replace(".", "\\.").replace("*", ".*"))));
+	}
+
+	/**
+	 * 判断查询里的每个索引名是否都确认是具体索引。别名、日期表达式、排除表达式和没有查到文档的索引都无法确认，
+	 * 这样的查询可能查到任何索引的数据
+	 *
+	 * @param concreteIndices 查询结果里文档所在的具体索引
+	 * @return 都能确认返回true，通配符和_all按名称匹配，不需要确认
+	 */
+	public boolean resolvedBy(Set<String> concreteIndices) {
+		return names().allMatch(index -> "_all".equals(index)
+				|| (index.contains("*") && !index.startsWith("-"))
+				|| concreteIndices.contains(index));
+	}
+
+	private Stream<String> names() {
+		return indices.stream().flatMap(index -> Arrays.stream(index.split(",")))
+				.map(String::trim).filter(index -> !index.isEmpty());
+	}
+}
@@ -0,0 +1,24 @@
+package com.wujunshen.opensearch.cache;
+
+import java.io.IOException;
+import org.opensearch.client.opensearch.core.SearchResponse;
+
+/**
+ * 真正向集群发送查询的方法
+ *
+ * @param <T> 文档对象泛型
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 17:30<br>
+ */
+@FunctionalInterface
+public interface SearchLoader<T> {
+
+	/**
+	 * 执行查询
+	 *
+	 * @return 查询结果
+	 * @throws IOException 异常信息
+	 */
+	SearchResponse<T> load() throws IOException;
+}
@@ -0,0 +1,170 @@
+package com.wujunshen.opensearch.client;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.opensearch.client.Request;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.Response;
+import org.opensearch.client.ResponseListener;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.transport.Endpoint;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.opensearch.client.transport.TransportOptions;
+import org.opensearch.client.transport.rest_client.RestClientOptions;
+import org.opensearch.client.util.OpenSearchRequestBodyBuffer;
+
+/**
+ * 基于RestClient、请求体达到阈值时gzip压缩的OpenSearchTransport，同时要求服务端压缩响应，
+ * 压缩的响应由RestClient解压。RestClient自带的压缩开关不区分大小一律压缩，
+ * HttpAsyncClient的拦截器又换不掉已经交给它的请求体，所以在序列化请求体时压缩
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 22:10<br>
+ */
+public class CompressingRestClientTransport implements OpenSearchTransport {
+
+	private static final String GZIP = "gzip";
+
+	/**
+	 * 和RestClientTransport一样，这些状态码不让RestClient抛出ResponseException，由错误响应解析
+	 */
+	private static final String IGNORED_STATUS = "400,401,403,404,405";
+
+	private final RestClient restClient;
+
+	private final JsonpMapper mapper;
+
+	private final int compressionThreshold;
+
+	private final RestClientOptions transportOptions;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param restClient           RestClient对象
+	 * @param mapper               JsonpMapper对象
+	 * @param compressionThreshold 请求体达到这个字节数时gzip压缩
+	 */
+	public CompressingRestClientTransport(RestClient restClient, JsonpMapper mapper,
+			int compressionThreshold) {
+		this.restClient = restClient;
+		this.mapper = mapper;
+		this.compressionThreshold = compressionThreshold;
+		this.transportOptions = new RestClientOptions(RequestOptions.DEFAULT);
+	}
+
+	@Override
+	public <RequestT, ResponseT, ErrorT> ResponseT performRequest(RequestT request,
+			Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options)
+			throws IOException {
+		Response response = restClient.performRequest(prepareLowLevelRequest(request, endpoint,
+				options));
+		return decode(response, endpoint);
+	}
+
+	@Override
+	public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
+			RequestT request, Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+			TransportOptions options) {
+		Request lowLevelRequest;
+		try {
+			lowLevelRequest = prepareLowLevelRequest(request, endpoint, options);
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+
+		CompletableFuture<ResponseT> future = new CompletableFuture<>();
+		restClient.performRequestAsync(lowLevelRequest, new ResponseListener() {
+			@Override
+			public void onSuccess(Response response) {
+				try {
+					future.complete(decode(response, endpoint));
+				} catch (Exception e) {
+					future.completeExceptionally(e);
+				}
+			}
+
+			@Override
+			public void onFailure(Exception exception) {
+				future.completeExceptionally(exception);
+			}
+		});
+
+		return future;
+	}
+
+	@Override
+	public JsonpMapper jsonpMapper() {
+		return mapper;
+	}
+
+	@Override
+	public TransportOptions options() {
+		return transportOptions;
+	}
+
+	@Override
+	public void close() throws IOException {
+		restClient.close();
+	}
+
+	private <RequestT> Request prepareLowLevelRequest(RequestT request,
+			Endpoint<RequestT, ?, ?> endpoint, TransportOptions options) throws IOException {
+		Request lowLevelRequest = new Request(endpoint.method(request),
+				endpoint.requestUrl(request));
+
+		Map<String, String> params = new LinkedHashMap<>(endpoint.queryParameters(request));
+		RequestOptions.Builder requestOptions;
+		if (options == null) {
+			requestOptions = transportOptions.restClientRequestOptions().toBuilder();
+		} else if (options instanceof RestClientOptions restClientOptions) {
+			requestOptions = restClientOptions.restClientRequestOptions().toBuilder();
+		} else {
+			requestOptions = RequestOptions.DEFAULT.toBuilder();
+			params.putAll(options.queryParameters());
+			options.headers().forEach(header -> requestOptions.addHeader(header.getKey(),
+					header.getValue()));
+			if (options.onWarnings() != null) {
+				requestOptions.setWarningsHandler(warnings -> options.onWarnings().apply(warnings));
+			}
+		}
+		endpoint.headers(request).forEach(requestOptions::addHeader);
+		requestOptions.addHeader(HttpHeaders.ACCEPT_ENCODING, GZIP);
+		lowLevelRequest.setOptions(requestOptions);
+		lowLevelRequest.addParameters(params);
+
+		if (endpoint.hasRequestBody()) {
+			OpenSearchRequestBodyBuffer buffer = new OpenSearchRequestBodyBuffer(mapper,
+					compressionThreshold);
+			buffer.addContent(request);
+			buffer.close();
+
+			ByteArrayEntity entity = new ByteArrayEntity(buffer.getByteArray(),
+					ContentType.parse(buffer.getContentType()));
+			// RequestContent根据请求体的编码加上Content-Encoding请求头
+			entity.setContentEncoding(buffer.getContentEncoding());
+			lowLevelRequest.setEntity(entity);
+		}
+		lowLevelRequest.addParameter("ignore", IGNORED_STATUS);
+
+		return lowLevelRequest;
+	}
+
+	private <ResponseT, ErrorT> ResponseT decode(Response response,
+			Endpoint<?, ResponseT, ErrorT> endpoint) throws IOException {
+		HttpEntity entity = response.getEntity();
+		byte[] body = entity != null ? EntityUtils.toByteArray(entity) : null;
+
+		return ResponseDecoder.decode(response.getStatusLine().getStatusCode(), body, endpoint,
+				mapper);
+	}
+}
@@ -0,0 +1,36 @@
+package com.wujunshen.opensearch.client;
+
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+
+/**
+ * RestClient底层http客户端的定制步骤。RestClientBuilder只能设置一个HttpClientConfigCallback，
+ * 后设置的会覆盖先设置的，所以连接池、TLS、认证等配置都拆成定制步骤，在同一个callback里依次执行。
+ * 应用注册的HttpClientCustomizer bean按@Order顺序排在内置步骤之后执行，可以覆盖内置配置
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 20:30<br>
+ */
+@FunctionalInterface
+public interface HttpClientCustomizer {
+
+	/**
+	 * 定制http客户端
+	 *
+	 * @param httpClientBuilder HttpAsyncClientBuilder对象
+	 */
+	void customize(HttpAsyncClientBuilder httpClientBuilder);
+
+	/**
+	 * 先执行当前步骤，再执行next
+	 *
+	 * @param next 下一个定制步骤
+	 * @return 组合后的定制步骤
+	 */
+	default HttpClientCustomizer andThen(HttpClientCustomizer next) {
+		return httpClientBuilder -> {
+			customize(httpClientBuilder);
+			next.customize(httpClientBuilder);
+		};
+	}
+}
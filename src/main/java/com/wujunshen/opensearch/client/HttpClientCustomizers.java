@@ -0,0 +1,108 @@
+package com.wujunshen.opensearch.client;
+
+import com.wujunshen.opensearch.config.OpenSearchConfigProperties;
+import com.wujunshen.opensearch.config.SslConfigProperties;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+
+/**
+ * 内置的http客户端定制步骤
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 20:35<br>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class HttpClientCustomizers {
+
+	/**
+	 * 连接池大小
+	 *
+	 * @param openSearchConfigProperties es配置
+	 * @return 定制步骤
+	 */
+	public static HttpClientCustomizer pool(OpenSearchConfigProperties openSearchConfigProperties) {
+		return httpClientBuilder -> {
+			httpClientBuilder.setMaxConnTotal(openSearchConfigProperties.getMaxConnectNum());
+			httpClientBuilder.setMaxConnPerRoute(openSearchConfigProperties.getMaxConnectPerRoute());
+		};
+	}
+
+	/**
+	 * IO reactor线程数和socket参数
+	 *
+	 * @param openSearchConfigProperties es配置
+	 * @return 定制步骤
+	 */
+	public static HttpClientCustomizer ioReactor(
+			OpenSearchConfigProperties openSearchConfigProperties) {
+		return httpClientBuilder -> httpClientBuilder.setDefaultIOReactorConfig(
+				IOReactorConfig.custom()
+						.setIoThreadCount(openSearchConfigProperties.getIoThreadCount())
+						.setTcpNoDelay(openSearchConfigProperties.isTcpNoDelay())
+						.setSoKeepAlive(openSearchConfigProperties.isSoKeepAlive())
+						.setSndBufSize(openSearchConfigProperties.getSendBufferSize())
+						.setRcvBufSize(openSearchConfigProperties.getReceiveBufferSize()).build());
+	}
+
+	/**
+	 * 空闲连接保留时间和连接最长存活时间
+	 *
+	 * @param openSearchConfigProperties es配置
+	 * @return 定制步骤
+	 */
+	public static HttpClientCustomizer keepAlive(
+			OpenSearchConfigProperties openSearchConfigProperties) {
+		long keepAlive = openSearchConfigProperties.getKeepAlive();
+		long connectionTtl = openSearchConfigProperties.getConnectionTtl();
+
+		return httpClientBuilder -> {
+			if (keepAlive > 0) {
+				httpClientBuilder.setKeepAliveStrategy((response, context) -> {
+					// 服务端没有返回Keep-Alive时为-1
+					long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+							.getKeepAliveDuration(response, context);
+					return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+				});
+			}
+			if (connectionTtl > 0) {
+				httpClientBuilder.setConnectionTimeToLive(connectionTtl, TimeUnit.MILLISECONDS);
+			}
+		};
+	}
+
+	/**
+	 * https连接使用配置的trust store，配置了跳过hostname验证时才不验证hostname。
+	 * SSLContext只设置在这个客户端上，不修改系统属性
+	 *
+	 * @param sslConfigProperties trust store配置
+	 * @return 定制步骤
+	 */
+	public static HttpClientCustomizer tls(SslConfigProperties sslConfigProperties) {
+		SSLContext sslContext = SslContexts.of(sslConfigProperties);
+
+		return httpClientBuilder -> {
+			httpClientBuilder.setSSLContext(sslContext);
+			if (sslConfigProperties.isSkipHostnameVerification()) {
+				httpClientBuilder.setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE);
+			}
+		};
+	}
+
+	/**
+	 * 用户名和密码访问
+	 *
+	 * @param credentialsProvider CredentialsProvider对象
+	 * @return 定制步骤
+	 */
+	public static HttpClientCustomizer auth(CredentialsProvider credentialsProvider) {
+		return httpClientBuilder -> httpClientBuilder.setDefaultCredentialsProvider(
+				credentialsProvider);
+	}
+}
@@ -0,0 +1,283 @@
+package com.wujunshen.opensearch.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.transport.Endpoint;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.opensearch.client.transport.TransportOptions;
+import org.opensearch.client.util.OpenSearchRequestBodyBuffer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 基于JDK HttpClient的OpenSearchTransport，和RestClientTransport一样处理请求体、错误响应和BooleanEndpoint，
+ * 可以直接替换给OpenSearchClient和OpenSearchAsyncClient使用。服务端支持时使用HTTP/2，可以开启gzip压缩，
+ * 多个节点轮询发送，只在连接失败时换下一个节点重试，请求已经发出后失败不重试，避免bulk等非幂等请求重复执行
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 21:00<br>
+ */
+@Slf4j
+public class JdkHttpClientTransport implements OpenSearchTransport {
+
+	/**
+	 * 不压缩请求体，也不要求服务端压缩响应
+	 */
+	public static final int NO_COMPRESSION = Integer.MAX_VALUE;
+
+	private static final String GZIP = "gzip";
+
+	private final HttpClient httpClient;
+
+	private final List<URI> hosts;
+
+	private final JsonpMapper mapper;
+
+	private final TransportOptions transportOptions;
+
+	private final Duration requestTimeout;
+
+	private final int compressionThreshold;
+
+	private final ExecutorService executor;
+
+	private final AtomicInteger nextHost = new AtomicInteger();
+
+	/**
+	 * 构造方法，不压缩
+	 *
+	 * @param httpClient     HttpClient对象，executor应当和这里传入的是同一个
+	 * @param hosts          节点地址，例如http://127.0.0.1:9200
+	 * @param mapper         JsonpMapper对象
+	 * @param requestTimeout 单个请求从发送到收到响应头的超时时间，null表示不限制
+	 * @param executor       异步请求解析响应使用的线程池，关闭transport时一起关闭
+	 */
+	public JdkHttpClientTransport(HttpClient httpClient, List<URI> hosts, JsonpMapper mapper,
+			Duration requestTimeout, ExecutorService executor) {
+		this(httpClient, hosts, mapper, requestTimeout, NO_COMPRESSION, executor);
+	}
+
+	/**
+	 * 构造方法
+	 *
+	 * @param httpClient           HttpClient对象，executor应当和这里传入的是同一个
+	 * @param hosts                节点地址，例如http://127.0.0.1:9200
+	 * @param mapper               JsonpMapper对象
+	 * @param requestTimeout       单个请求从发送到收到响应头的超时时间，null表示不限制
+	 * @param compressionThreshold 请求体达到这个字节数时gzip压缩，NO_COMPRESSION表示不压缩
+	 * @param executor             异步请求解析响应使用的线程池，关闭transport时一起关闭
+	 */
+	public JdkHttpClientTransport(HttpClient httpClient, List<URI> hosts, JsonpMapper mapper,
+			Duration requestTimeout, int compressionThreshold, ExecutorService executor) {
+		if (hosts.isEmpty()) {
+			throw new IllegalArgumentException("at least one host is required");
+		}
+		this.httpClient = httpClient;
+		this.hosts = List.copyOf(hosts);
+		this.mapper = mapper;
+		this.transportOptions = TransportOptions.builder().build();
+		this.requestTimeout = requestTimeout;
+		this.compressionThreshold = compressionThreshold;
+		this.executor = executor;
+	}
+
+	/**
+	 * 创建执行阻塞任务的线程池，运行在Java 21及以上时使用虚拟线程，否则使用守护线程的缓存线程池。
+	 * 通过反射调用，Java 17也能编译和运行
+	 *
+	 * @return ExecutorService对象
+	 */
+	public static ExecutorService newExecutor() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			ExecutorService executor = (ExecutorService) method.invoke(null);
+			log.info("jdk http client transport uses virtual threads");
+			return executor;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// Java 21以前没有这个方法，Java 19/20没有开启预览特性时调用会失败
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+					"opensearch-jdk-transport-");
+			threadFactory.setDaemon(true);
+			return Executors.newCachedThreadPool(threadFactory);
+		}
+	}
+
+	@Override
+	public <RequestT, ResponseT, ErrorT> ResponseT performRequest(RequestT request,
+			Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options)
+			throws IOException {
+		RequestParts parts = prepareRequest(request, endpoint, options);
+
+		int start = nextHost.getAndIncrement();
+		for (int i = 0; ; i++) {
+			URI host = hosts.get(Math.floorMod(start + i, hosts.size()));
+			try {
+				HttpResponse<byte[]> response = httpClient.send(parts.toHttpRequest(host),
+						HttpResponse.BodyHandlers.ofByteArray());
+				return decode(response, endpoint);
+			} catch (ConnectException | HttpConnectTimeoutException e) {
+				if (i + 1 >= hosts.size()) {
+					throw e;
+				}
+				log.warn("connect to {} failed, try next host", host, e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("interrupted while waiting for " + host);
+			}
+		}
+	}
+
+	@Override
+	public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
+			RequestT request, Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+			TransportOptions options) {
+		RequestParts parts;
+		try {
+			parts = prepareRequest(request, endpoint, options);
+		} catch (IOException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+
+		return sendAsync(parts, nextHost.getAndIncrement(), 0).thenApplyAsync(response -> {
+			try {
+				return decode(response, endpoint);
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		}, executor);
+	}
+
+	@Override
+	public JsonpMapper jsonpMapper() {
+		return mapper;
+	}
+
+	@Override
+	public TransportOptions options() {
+		return transportOptions;
+	}
+
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+	private CompletableFuture<HttpResponse<byte[]>> sendAsync(RequestParts parts, int start,
+			int attempt) {
+		URI host = hosts.get(Math.floorMod(start + attempt, hosts.size()));
+
+		return httpClient.sendAsync(parts.toHttpRequest(host),
+				HttpResponse.BodyHandlers.ofByteArray()).exceptionallyCompose(e -> {
+			Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+			if ((cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException)
+					&& attempt + 1 < hosts.size()) {
+				log.warn("connect to {} failed, try next host", host, cause);
+				return sendAsync(parts, start, attempt + 1);
+			}
+			return CompletableFuture.failedFuture(cause);
+		});
+	}
+
+	/**
+	 * 序列化请求体，bulk和msearch这样的NdJsonpSerializable请求按行写出
+	 */
+	private <RequestT> RequestParts prepareRequest(RequestT request,
+			Endpoint<RequestT, ?, ?> endpoint, TransportOptions options) throws IOException {
+		Map<String, String> params = new LinkedHashMap<>(endpoint.queryParameters(request));
+		Map<String, String> headers = new LinkedHashMap<>(endpoint.headers(request));
+
+		TransportOptions effective = options != null ? options : transportOptions;
+		params.putAll(effective.queryParameters());
+		effective.headers().forEach(header -> headers.put(header.getKey(), header.getValue()));
+
+		if (compressionThreshold != NO_COMPRESSION) {
+			headers.putIfAbsent("Accept-Encoding", GZIP);
+		}
+
+		byte[] body = null;
+		if (endpoint.hasRequestBody()) {
+			// 达到阈值时gzip压缩
+			OpenSearchRequestBodyBuffer buffer = new OpenSearchRequestBodyBuffer(mapper,
+					compressionThreshold);
+			buffer.addContent(request);
+			buffer.close();
+
+			body = buffer.getByteArray();
+			headers.put("Content-Type", buffer.getContentType());
+			if (buffer.getContentEncoding() != null) {
+				headers.put("Content-Encoding", buffer.getContentEncoding());
+			}
+		}
+
+		StringBuilder pathAndQuery = new StringBuilder(endpoint.requestUrl(request));
+		char separator = '?';
+		for (Map.Entry<String, String> param : params.entrySet()) {
+			pathAndQuery.append(separator).append(encode(param.getKey())).append('=')
+					.append(encode(param.getValue()));
+			separator = '&';
+		}
+
+		return new RequestParts(endpoint.method(request), pathAndQuery.toString(), headers, body,
+				requestTimeout);
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+	private <ResponseT, ErrorT> ResponseT decode(HttpResponse<byte[]> response,
+			Endpoint<?, ResponseT, ErrorT> endpoint) throws IOException {
+		byte[] body = response.body();
+		boolean gzipped = response.headers().firstValue("Content-Encoding")
+				.filter(GZIP::equalsIgnoreCase).isPresent();
+		if (gzipped && body != null && body.length > 0) {
+			// JDK HttpClient不会自动解压
+			try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+				body = in.readAllBytes();
+			}
+		}
+
+		return ResponseDecoder.decode(response.statusCode(), body, endpoint, mapper);
+	}
+
+	/**
+	 * 和节点无关的请求内容，换节点重试时复用
+	 */
+	private record RequestParts(String method, String pathAndQuery, Map<String, String> headers,
+			byte[] body, Duration timeout) {
+
+		private HttpRequest toHttpRequest(URI host) {
+			HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody()
+					: HttpRequest.BodyPublishers.ofByteArray(body);
+			HttpRequest.Builder builder = HttpRequest.newBuilder(host.resolve(pathAndQuery))
+					.method(method, publisher);
+			if (timeout != null) {
+				builder.timeout(timeout);
+			}
+			headers.forEach(builder::header);
+			return builder.build();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.wujunshen.opensearch.client;
+
+import jakarta.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch._types.ErrorResponse;
+import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.transport.Endpoint;
+import org.opensearch.client.transport.JsonEndpoint;
+import org.opensearch.client.transport.TransportException;
+import org.opensearch.client.transport.endpoints.BooleanEndpoint;
+import org.opensearch.client.transport.endpoints.BooleanResponse;
+import org.opensearch.client.util.MissingRequiredPropertyException;
+
+/**
+ * 按RestClientTransport的规则把响应解析成高层响应对象，自定义的transport共用
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 22:10<br>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ResponseDecoder {
+
+	/**
+	 * 错误状态码按错误响应解析后抛出OpenSearchException，解析不了时再尝试按正常响应解析
+	 *
+	 * @param statusCode 状态码
+	 * @param body       已经解压的响应体
+	 * @param endpoint   Endpoint对象
+	 * @param mapper     JsonpMapper对象
+	 * @param <ResponseT> 响应泛型
+	 * @param <ErrorT>    错误响应泛型
+	 * @return 高层响应对象
+	 * @throws IOException 异常信息
+	 */
+	static <ResponseT, ErrorT> ResponseT decode(int statusCode, byte[] body,
+			Endpoint<?, ResponseT, ErrorT> endpoint, JsonpMapper mapper) throws IOException {
+		if (!endpoint.isError(statusCode)) {
+			return decodeResponse(statusCode, body, endpoint, mapper);
+		}
+
+		JsonpDeserializer<ErrorT> errorDeserializer = endpoint.errorDeserializer(statusCode);
+		if (errorDeserializer == null) {
+			throw new TransportException("Request failed with status code '" + statusCode + "'");
+		}
+		if (body == null || body.length == 0) {
+			throw new TransportException("Expecting a response body, but none was sent");
+		}
+
+		try (JsonParser parser = mapper.jsonProvider()
+				.createParser(new ByteArrayInputStream(body))) {
+			ErrorT error = errorDeserializer.deserialize(parser, mapper);
+			throw new OpenSearchException((ErrorResponse) error);
+		} catch (MissingRequiredPropertyException errorEx) {
+			try {
+				return decodeResponse(statusCode, body, endpoint, mapper);
+			} catch (Exception respEx) {
+				throw new TransportException("Failed to decode error response", errorEx);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <ResponseT> ResponseT decodeResponse(int statusCode, byte[] body,
+			Endpoint<?, ResponseT, ?> endpoint, JsonpMapper mapper) throws IOException {
+		if (endpoint instanceof BooleanEndpoint<?> booleanEndpoint) {
+			return (ResponseT) new BooleanResponse(booleanEndpoint.getResult(statusCode));
+		}
+		if (!(endpoint instanceof JsonEndpoint<?, ResponseT, ?> jsonEndpoint)) {
+			throw new TransportException(
+					"Unhandled endpoint type: '" + endpoint.getClass().getName() + "'");
+		}
+
+		JsonpDeserializer<ResponseT> responseParser = jsonEndpoint.responseDeserializer();
+		if (responseParser == null) {
+			return null;
+		}
+		if (body == null || body.length == 0) {
+			throw new TransportException("Expecting a response body, but none was sent");
+		}
+
+		try (JsonParser parser = mapper.jsonProvider()
+				.createParser(new ByteArrayInputStream(body))) {
+			return responseParser.deserialize(parser, mapper);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.wujunshen.opensearch.client;
+
+import com.wujunshen.opensearch.config.SslConfigProperties;
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.net.ssl.X509TrustManager;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * 按trust store配置创建SSLContext，只给使用它的客户端用，不修改javax.net.ssl系统属性。
+ * 跳过hostname验证时仍然校验证书链，只是不比对证书里的主机名
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/20 14:10<br>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SslContexts {
+
+	/**
+	 * 用配置的trust store创建SSLContext，没有配置trust store时使用JVM默认的信任证书
+	 *
+	 * @param sslConfigProperties trust store配置，文件格式(JKS、PKCS12)自动识别
+	 * @return SSLContext对象
+	 */
+	public static SSLContext of(SslConfigProperties sslConfigProperties) {
+		String path = sslConfigProperties.getPath();
+		try {
+			KeyStore trustStore = null;
+			if (path != null) {
+				char[] password = sslConfigProperties.getPassword() != null
+						? sslConfigProperties.getPassword().toCharArray() : null;
+				trustStore = KeyStore.getInstance(new File(path), password);
+			}
+			// trustStore为null时使用JVM默认的cacerts
+			TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
+					TrustManagerFactory.getDefaultAlgorithm());
+			trustManagerFactory.init(trustStore);
+
+			TrustManager[] trustManagers = trustManagerFactory.getTrustManagers();
+			if (sslConfigProperties.isSkipHostnameVerification()) {
+				for (int i = 0; i < trustManagers.length; i++) {
+					if (trustManagers[i] instanceof X509TrustManager trustManager) {
+						trustManagers[i] = new HostnameSkippingTrustManager(trustManager);
+					}
+				}
+			}
+
+			SSLContext sslContext = SSLContext.getInstance("TLS");
+			sslContext.init(null, trustManagers, null);
+			return sslContext;
+		} catch (IOException | GeneralSecurityException e) {
+			throw new IllegalStateException("load trust store " + path + " failed", e);
+		}
+	}
+
+	/**
+	 * 只校验证书链的TrustManager。JDK HttpClient总是开启hostname验证，而验证是在带Socket或SSLEngine参数的
+	 * 方法里做的，这里统一转给不带连接参数的方法，效果只限于使用这个SSLContext的客户端
+	 */
+	private static final class HostnameSkippingTrustManager extends X509ExtendedTrustManager {
+
+		private final X509TrustManager delegate;
+
+		private HostnameSkippingTrustManager(X509TrustManager delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain, String authType)
+				throws CertificateException {
+			delegate.checkClientTrusted(chain, authType);
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain, String authType)
+				throws CertificateException {
+			delegate.checkServerTrusted(chain, authType);
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+				throws CertificateException {
+			delegate.checkClientTrusted(chain, authType);
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+				throws CertificateException {
+			delegate.checkServerTrusted(chain, authType);
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+				throws CertificateException {
+			delegate.checkClientTrusted(chain, authType);
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+				throws CertificateException {
+			delegate.checkServerTrusted(chain, authType);
+		}
+
+		@Override
+		public X509Certificate[] getAcceptedIssuers() {
+			return delegate.getAcceptedIssuers();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.wujunshen.opensearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 请求合并配置类
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/16 17:10<br>
+ */
+@Data
+@ConfigurationProperties(prefix = "opensearch.batch")
+public class BatchConfigProperties {
+
+	/**
+	 * 是否启用请求合并
+	 */
+	private boolean enabled;
+
+	/**
+	 * 合并窗口(毫秒)，窗口内的并发请求合并成一次请求发送
+	 */
+	private long window = 5;
+
+	/**
+	 * 单次合并请求最多包含的请求数，达到后不等窗口结束立即发送
+	 */
+	private int maxBatchSize = 200;
+
+	/**
+	 * 执行合并请求的线程数
+	 */
+	private int threads = 4;
+
+	/**
+	 * 是否合并同一索引的并发refresh
+	 */
+	private boolean refreshCoalesce;
+
+	/**
+	 * 同一索引两次refresh之间的最小间隔(毫秒)，间隔内的refresh合并成一次
+	 */
+	private long refreshInterval = 1000;
+}
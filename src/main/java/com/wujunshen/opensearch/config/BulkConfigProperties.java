@@ -0,0 +1,63 @@
+package com.wujunshen.opensearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * bulk批量操作配置类
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/16 10:21<br>
+ */
+@Data
+@ConfigurationProperties(prefix = "opensearch.bulk")
+public class BulkConfigProperties {
+
+	/**
+	 * 单个bulk请求最多包含的操作数
+	 */
+	private int maxOperations = 1000;
+
+	/**
+	 * 单个bulk请求体的最大字节数(按序列化后的ndjson估算)，默认5MB。
+	 * 估算要把每个操作多序列化一次，小于等于0表示不按字节数切分，也不做估算
+	 */
+	private long maxBytes = 5L * 1024 * 1024;
+
+	/**
+	 * deleteAllDocument等待delete_by_query任务完成的最长时间(毫秒)，超时后取消任务并抛出异常，
+	 * 小于等于0表示一直等待，默认1小时
+	 */
+	private long deleteByQueryTimeout = 3600000;
+
+	/**
+	 * 是否创建BulkIngester bean，它会启动写入线程池和定时flush线程，默认不创建
+	 */
+	private boolean ingesterEnabled;
+
+	/**
+	 * BulkIngester定时flush的间隔(毫秒)，小于等于0表示不定时flush
+	 */
+	private long flushInterval = 1000;
+
+	/**
+	 * BulkIngester和流式写入同时在途的bulk请求数上限
+	 */
+	private int maxConcurrentRequests = 2;
+
+	/**
+	 * 被集群拒绝(429)的条目最多重试几轮，0表示不重试
+	 */
+	private int maxRetries = 3;
+
+	/**
+	 * 第一次重试前的退避时间(毫秒)，之后每轮翻倍
+	 */
+	private long initialBackoff = 100;
+
+	/**
+	 * 单次重试退避时间的上限(毫秒)
+	 */
+	private long maxBackoff = 5000;
+}
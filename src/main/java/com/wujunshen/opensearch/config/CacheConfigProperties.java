@@ -0,0 +1,46 @@
+package com.wujunshen.opensearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 查询结果缓存配置类
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 16:05<br>
+ */
+@Data
+@ConfigurationProperties(prefix = "opensearch.cache")
+public class CacheConfigProperties {
+
+	/**
+	 * 是否启用查询结果缓存
+	 */
+	private boolean enabled;
+
+	/**
+	 * 缓存条目存活时间(毫秒)，超时后下次查询重新请求集群
+	 */
+	private long ttl = 30000;
+
+	/**
+	 * 缓存总权重上限(字节)，每个条目的权重是序列化后响应体的字节数，超过上限时淘汰最久未访问的条目，默认32MB
+	 */
+	private long maxWeight = 32L * 1024 * 1024;
+
+	/**
+	 * 是否合并同时在途的相同查询，和是否启用缓存无关，可以单独开启
+	 */
+	private boolean coalesce;
+
+	/**
+	 * 是否启用索引mapping缓存
+	 */
+	private boolean mappingEnabled;
+
+	/**
+	 * 索引mapping缓存的存活时间(毫秒)，小于等于0表示不缓存mapping
+	 */
+	private long mappingTtl = 60000;
+}
@@ -0,0 +1,58 @@
+package com.wujunshen.opensearch.config;
+
+import java.nio.file.Path;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 分片并行导出配置类
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 16:05<br>
+ */
+@Data
+@ConfigurationProperties(prefix = "opensearch.export")
+public class ExportConfigProperties {
+
+	/**
+	 * 默认的slice数，导出请求没有指定时使用，1表示不分片
+	 */
+	private int slices = 4;
+
+	/**
+	 * 同时执行的slice数上限，超过的slice排队等待
+	 */
+	private int threads = 4;
+
+	/**
+	 * 每个slice每页拉取的文档数
+	 */
+	private int pageSize = 1000;
+
+	/**
+	 * scroll上下文保留时间
+	 */
+	private String keepAlive = "5m";
+
+	/**
+	 * slice和消费方之间共享队列的容量，队列满时slice暂停拉取
+	 */
+	private int queueCapacity = 10000;
+
+	/**
+	 * 每个slice消费多少条文档保存一次检查点
+	 */
+	private int checkpointInterval = 10000;
+
+	/**
+	 * 进度回调间隔(毫秒)
+	 */
+	private long progressInterval = 10000;
+
+	/**
+	 * 检查点文件目录
+	 */
+	private String checkpointDir = Path.of(System.getProperty("java.io.tmpdir"),
+			"opensearch-export").toString();
+}
@@ -49,6 +49,42 @@ public class OpenSearchConfigProperties {
 	 */
 	private int maxConnectPerRoute;
 
+	/**
+	 * IO dispatcher线程数，默认等于CPU核数
+	 */
+	private int ioThreadCount = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * 空闲连接最多保留的时间(毫秒)，服务端返回的Keep-Alive更短时以服务端为准。
+	 * 要小于负载均衡器的空闲超时，避免复用已经被负载均衡器断开的连接，小于等于0时只按服务端的Keep-Alive
+	 */
+	private long keepAlive = 30000;
+
+	/**
+	 * 连接的最长存活时间(毫秒)，到期后不再复用，新建的连接可以分到新加入的节点上，小于等于0表示不限制
+	 */
+	private long connectionTtl = 300000;
+
+	/**
+	 * 是否关闭Nagle算法，小请求不用等凑满数据包再发送
+	 */
+	private boolean tcpNoDelay = true;
+
+	/**
+	 * 是否开启TCP keep-alive探测
+	 */
+	private boolean soKeepAlive = true;
+
+	/**
+	 * socket发送缓冲区大小(字节)，0表示使用系统默认值
+	 */
+	private int sendBufferSize;
+
+	/**
+	 * socket接收缓冲区大小(字节)，0表示使用系统默认值
+	 */
+	private int receiveBufferSize;
+
 	/**
 	 * 连接ES的用户名
 	 */
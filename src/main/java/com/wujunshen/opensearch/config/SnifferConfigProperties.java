@@ -0,0 +1,36 @@
+package com.wujunshen.opensearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 节点嗅探配置类
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 19:50<br>
+ */
+@Data
+@ConfigurationProperties(prefix = "opensearch.sniffer")
+public class SnifferConfigProperties {
+
+	/**
+	 * 是否启用节点嗅探
+	 */
+	private boolean enabled;
+
+	/**
+	 * 定期刷新节点列表的间隔(毫秒)
+	 */
+	private long interval = 300000;
+
+	/**
+	 * 请求失败触发刷新后，下一次定期刷新的间隔(毫秒)，通常比interval短，尽快确认节点是否恢复
+	 */
+	private long delayAfterFailure = 60000;
+
+	/**
+	 * 是否跳过专用cluster_manager节点，不往只负责集群管理的节点发请求
+	 */
+	private boolean skipDedicatedClusterManagers = true;
+}
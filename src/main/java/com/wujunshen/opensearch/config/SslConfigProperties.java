@@ -21,4 +21,10 @@ public class SslConfigProperties {
 	 * trust store密码
 	 */
 	private String password;
+
+	/**
+	 * 是否跳过hostname验证，只作用于OpenSearch客户端。默认跳过，和之前RestClient总是不验证hostname的行为一致，
+	 * 证书和访问地址匹配时建议设为false开启验证
+	 */
+	private boolean skipHostnameVerification = true;
 }
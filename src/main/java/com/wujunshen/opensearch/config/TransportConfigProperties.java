@@ -0,0 +1,37 @@
+package com.wujunshen.opensearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 传输层配置类
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 21:20<br>
+ */
+@Data
+@ConfigurationProperties(prefix = "opensearch.transport")
+public class TransportConfigProperties {
+
+	/**
+	 * 传输层实现，rest-client使用Apache HttpAsyncClient的RestClientTransport，
+	 * jdk使用JDK HttpClient的JdkHttpClientTransport
+	 */
+	private String type = "rest-client";
+
+	/**
+	 * jdk传输层是否使用HTTP/2，服务端不支持时自动降级为HTTP/1.1
+	 */
+	private boolean http2 = true;
+
+	/**
+	 * 是否用gzip压缩请求体，同时通过Accept-Encoding要求服务端压缩响应
+	 */
+	private boolean compression;
+
+	/**
+	 * 请求体达到这个字节数才压缩，小请求压缩省下的流量抵不上CPU开销
+	 */
+	private int compressionThreshold = 1024;
+}
@@ -0,0 +1,40 @@
+package com.wujunshen.opensearch.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 导出检查点存储，导出中断后用同一个exportId重新导出时从这里恢复各slice的位置
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 16:12<br>
+ */
+public interface CheckpointStore {
+
+	/**
+	 * 读取导出的所有检查点
+	 *
+	 * @param exportId 导出id
+	 * @return 各slice的检查点，没有时返回空列表
+	 * @throws IOException 异常信息
+	 */
+	List<SliceCheckpoint> load(String exportId) throws IOException;
+
+	/**
+	 * 保存slice的检查点，覆盖同一个slice之前的检查点
+	 *
+	 * @param exportId   导出id
+	 * @param checkpoint 检查点
+	 * @throws IOException 异常信息
+	 */
+	void save(String exportId, SliceCheckpoint checkpoint) throws IOException;
+
+	/**
+	 * 导出成功后删除检查点
+	 *
+	 * @param exportId 导出id
+	 * @throws IOException 异常信息
+	 */
+	void delete(String exportId) throws IOException;
+}
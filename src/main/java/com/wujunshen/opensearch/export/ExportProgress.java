@@ -0,0 +1,59 @@
+package com.wujunshen.opensearch.export;
+
+import java.util.Map;
+import lombok.Value;
+
+/**
+ * 导出进度
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 16:25<br>
+ */
+@Value
+public class ExportProgress {
+
+	/**
+	 * 导出id
+	 */
+	String exportId;
+
+	/**
+	 * 已经导出的文档数，包括恢复前导出的文档
+	 */
+	long exported;
+
+	/**
+	 * 要导出的文档总数，所有slice的第一页返回前只是部分slice的总数
+	 */
+	long total;
+
+	/**
+	 * 已经完成的slice数
+	 */
+	int slicesDone;
+
+	/**
+	 * slice总数
+	 */
+	int slices;
+
+	/**
+	 * 本次导出已经用的时间(毫秒)
+	 */
+	long elapsedMillis;
+
+	/**
+	 * 本次导出中各slice每秒导出的文档数
+	 */
+	Map<Integer, Double> sliceDocsPerSecond;
+
+	/**
+	 * 本次导出每秒导出的文档数
+	 *
+	 * @return 所有slice的吞吐量之和
+	 */
+	public double getDocsPerSecond() {
+		return sliceDocsPerSecond.values().stream().mapToDouble(Double::doubleValue).sum();
+	}
+}
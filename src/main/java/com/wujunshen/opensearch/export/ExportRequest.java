@@ -0,0 +1,53 @@
+package com.wujunshen.opensearch.export;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+
+/**
+ * 分片并行导出请求
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 16:20<br>
+ */
+@Value
+@Builder
+public class ExportRequest {
+
+	/**
+	 * 导出id，检查点按导出id保存，中断后用同一个导出id重新导出会跳过已经完成的slice
+	 */
+	@NonNull
+	String exportId;
+
+	/**
+	 * 索引名
+	 */
+	@NonNull
+	String indexName;
+
+	/**
+	 * 只导出匹配的文档，null表示导出全部
+	 */
+	Query query;
+
+	/**
+	 * slice数，0表示使用配置的默认值。恢复导出时必须和原来的导出一致
+	 */
+	int slices;
+
+	/**
+	 * 每个slice每页拉取的文档数，0表示使用配置的默认值
+	 */
+	int pageSize;
+
+	/**
+	 * 恢复字段，值必须唯一、有doc_values，并且导出期间新写入的文档取值只增不减，例如自增id。
+	 * 指定后slice内按该字段升序导出，中断后从检查点记录的值之后继续，值和检查点相同的文档不会再导出，
+	 * 所以导出时发现有重复值会直接失败；
+	 * 不指定时按_doc顺序导出(最快)，中断时未完成的slice从头重新导出，导出数也从0重新计算
+	 */
+	String resumeField;
+}
@@ -0,0 +1,70 @@
+package com.wujunshen.opensearch.export;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 把检查点以json文件保存在本地目录，每个导出一个文件，先写临时文件再替换，进程崩溃时不会留下写了一半的文件
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 16:15<br>
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+	private static final TypeReference<List<SliceCheckpoint>> CHECKPOINTS = new TypeReference<>() {
+	};
+
+	private final Path directory;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	/**
+	 * 构造方法
+	 *
+	 * @param directory 检查点文件目录，不存在时自动创建
+	 */
+	public FileCheckpointStore(Path directory) {
+		this.directory = directory;
+	}
+
+	@Override
+	public synchronized List<SliceCheckpoint> load(String exportId) throws IOException {
+		Path file = file(exportId);
+		if (!Files.exists(file)) {
+			return List.of();
+		}
+		return objectMapper.readValue(file.toFile(), CHECKPOINTS);
+	}
+
+	@Override
+	public synchronized void save(String exportId, SliceCheckpoint checkpoint) throws IOException {
+		Map<Integer, SliceCheckpoint> checkpoints = new TreeMap<>();
+		load(exportId).forEach(c -> checkpoints.put(c.slice(), c));
+		checkpoints.put(checkpoint.slice(), checkpoint);
+
+		Files.createDirectories(directory);
+		Path file = file(exportId);
+		Path temp = directory.resolve(file.getFileName() + ".tmp");
+		objectMapper.writeValue(temp.toFile(), new ArrayList<>(checkpoints.values()));
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@Override
+	public synchronized void delete(String exportId) throws IOException {
+		Files.deleteIfExists(file(exportId));
+	}
+
+	private Path file(String exportId) {
+		return directory.resolve(exportId + ".json");
+	}
+}
@@ -0,0 +1,27 @@
+package com.wujunshen.opensearch.export;
+
+/**
+ * 单个slice的导出检查点，记录的都是消费方已经处理完的位置
+ *
+ * @param slice    slice编号
+ * @param max      slice总数，恢复时必须和原来的导出一致
+ * @param exported 已经导出的文档数
+ * @param after    最后导出文档的恢复字段值，没有指定恢复字段时为null
+ * @param done     slice是否已经导出完
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 16:10<br>
+ */
+public record SliceCheckpoint(int slice, int max, long exported, String after, boolean done) {
+
+	/**
+	 * 还没有开始导出的slice
+	 *
+	 * @param slice slice编号
+	 * @param max   slice总数
+	 * @return SliceCheckpoint对象
+	 */
+	public static SliceCheckpoint start(int slice, int max) {
+		return new SliceCheckpoint(slice, max, 0, null, false);
+	}
+}
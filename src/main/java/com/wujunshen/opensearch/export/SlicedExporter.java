@@ -0,0 +1,454 @@
+package com.wujunshen.opensearch.export;
+
+import com.wujunshen.opensearch.config.ExportConfigProperties;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.SortOrder;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 分片并行导出，多个sliced scroll在有界线程池中并行拉取，文档放进共享的有界队列，由调用线程逐条交给消费方。
+ * 检查点只记录消费方已经处理完的位置，导出中断后用同一个exportId重新导出时跳过已完成的slice，
+ * 指定了恢复字段的slice从检查点之后继续
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 16:30<br>
+ */
+@Slf4j
+public class SlicedExporter {
+
+	/**
+	 * slice等待队列空位时检查是否被取消的间隔(毫秒)
+	 */
+	private static final long OFFER_TIMEOUT = 100;
+
+	private final OpenSearchClient openSearchClient;
+
+	private final CheckpointStore checkpointStore;
+
+	private final Listener listener;
+
+	private final ExportConfigProperties exportConfigProperties;
+
+	/**
+	 * 构造方法
+	 *
+	 * @param openSearchClient       OpenSearchClient对象
+	 * @param exportConfigProperties 导出配置
+	 * @param checkpointStore        检查点存储
+	 * @param listener               导出进度监听器，可以为null
+	 */
+	public SlicedExporter(OpenSearchClient openSearchClient,
+			ExportConfigProperties exportConfigProperties, CheckpointStore checkpointStore,
+			Listener listener) {
+		this.openSearchClient = openSearchClient;
+		this.exportConfigProperties = exportConfigProperties;
+		this.checkpointStore = checkpointStore;
+		this.listener = listener != null ? listener : new Listener() {
+		};
+	}
+
+	/**
+	 * 导出索引中的文档，阻塞直到全部导出完成。消费方在调用线程中执行，同一个slice的文档按拉取顺序交给消费方。
+	 * 导出失败时已经消费的位置保存在检查点中，用同一个exportId重新调用即可继续；导出成功后删除检查点
+	 *
+	 * @param request 导出请求
+	 * @param clazz   文档对象class
+	 * @param sink    文档消费方，抛出异常时停止导出
+	 * @param <T>     文档对象泛型
+	 * @return 最终的导出进度
+	 * @throws IOException 异常信息
+	 */
+	public <T> ExportProgress export(ExportRequest request, Class<T> clazz, Consumer<Hit<T>> sink)
+			throws IOException {
+		Export<T> export = new Export<>(request, clazz);
+
+		List<SliceState> pending = export.slices.values().stream().filter(s -> !s.done).toList();
+		log.info("export {} of {}: {} slices, {} to do", request.getExportId(),
+				request.getIndexName(), export.max, pending.size());
+
+		if (!pending.isEmpty()) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+					"opensearch-export-");
+			threadFactory.setDaemon(true);
+			ExecutorService executor = Executors.newFixedThreadPool(
+					Math.min(exportConfigProperties.getThreads(), pending.size()), threadFactory);
+
+			pending.forEach(slice -> executor.execute(() -> export.produce(slice)));
+			executor.shutdown();
+
+			boolean consumed = false;
+			try {
+				export.consume(pending.size(), sink);
+				consumed = true;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("export " + request.getExportId() + " interrupted", e);
+			} finally {
+				// 消费中途退出(中断、sink或监听器抛出Error等)时没人再取队列，停掉阻塞在队列上的slice线程
+				if (!consumed) {
+					export.abandoned = true;
+					export.cancelled = true;
+					executor.shutdownNow();
+				}
+			}
+		}
+
+		ExportProgress progress = export.progress();
+		if (export.failure != null) {
+			throw new IOException("export " + request.getExportId() + " failed after "
+					+ progress.getExported()
+					+ " documents, export again with the same id to resume", export.failure);
+		}
+
+		checkpointStore.delete(request.getExportId());
+		listener.onProgress(progress);
+		log.info("export {} done: {}", request.getExportId(), progress);
+
+		return progress;
+	}
+
+	/**
+	 * 导出进度监听器
+	 */
+	public interface Listener {
+
+		/**
+		 * 按配置的间隔回调，导出成功后再回调一次
+		 *
+		 * @param progress 导出进度
+		 */
+		default void onProgress(ExportProgress progress) {
+		}
+
+		/**
+		 * slice导出完成时回调
+		 *
+		 * @param exportId   导出id
+		 * @param checkpoint slice的检查点
+		 */
+		default void onSliceDone(String exportId, SliceCheckpoint checkpoint) {
+		}
+	}
+
+	/**
+	 * 单个slice的消费状态，只在调用线程中修改
+	 */
+	private static final class SliceState {
+
+		private final int slice;
+
+		private long exported;
+
+		private String after;
+
+		private boolean done;
+
+		/**
+		 * 本次导出消费的文档数，用来计算吞吐量
+		 */
+		private long consumed;
+
+		private long sinceCheckpoint;
+
+		private SliceState(SliceCheckpoint checkpoint) {
+			this.slice = checkpoint.slice();
+			this.exported = checkpoint.exported();
+			this.after = checkpoint.after();
+			this.done = checkpoint.done();
+		}
+	}
+
+	/**
+	 * 队列元素，hit为null表示slice结束
+	 */
+	private record Item<T>(int slice, Hit<T> hit, boolean completed, Throwable failure) {
+
+	}
+
+	/**
+	 * 一次导出的状态
+	 */
+	private final class Export<T> {
+
+		private final ExportRequest request;
+
+		private final Class<T> clazz;
+
+		private final int max;
+
+		private final int pageSize;
+
+		private final Map<Integer, SliceState> slices = new LinkedHashMap<>();
+
+		private final BlockingQueue<Item<T>> queue;
+
+		private final AtomicLong total = new AtomicLong();
+
+		private final long startNanos = System.nanoTime();
+
+		private volatile boolean cancelled;
+
+		private volatile boolean abandoned;
+
+		private Throwable failure;
+
+		private Export(ExportRequest request, Class<T> clazz) throws IOException {
+			this.request = request;
+			this.clazz = clazz;
+			this.max = request.getSlices() > 0 ? request.getSlices()
+					: exportConfigProperties.getSlices();
+			this.pageSize = request.getPageSize() > 0 ? request.getPageSize()
+					: exportConfigProperties.getPageSize();
+			this.queue = new ArrayBlockingQueue<>(exportConfigProperties.getQueueCapacity());
+
+			for (int i = 0; i < max; i++) {
+				slices.put(i, new SliceState(SliceCheckpoint.start(i, max)));
+			}
+			for (SliceCheckpoint checkpoint : checkpointStore.load(request.getExportId())) {
+				if (checkpoint.max() != max) {
+					throw new IllegalArgumentException("export " + request.getExportId()
+							+ " was started with " + checkpoint.max() + " slices, not " + max);
+				}
+				// 没有恢复字段时未完成的slice从头导出，已导出的文档会再交给消费方一次，计数也从0开始
+				if (!checkpoint.done() && request.getResumeField() == null) {
+					continue;
+				}
+				slices.put(checkpoint.slice(), new SliceState(checkpoint));
+				// 已完成slice的文档数计入总数
+				if (checkpoint.done()) {
+					total.addAndGet(checkpoint.exported());
+				}
+			}
+		}
+
+		/**
+		 * 在线程池中拉取一个slice的所有文档放进队列
+		 */
+		private void produce(SliceState slice) {
+			boolean completed = false;
+			Throwable error = null;
+			String scrollId = null;
+			try {
+				SearchResponse<T> response = openSearchClient.search(sliceRequest(slice), clazz);
+				total.addAndGet(slice.exported + response.hits().total().value());
+
+				while (!cancelled) {
+					scrollId = response.scrollId();
+					List<Hit<T>> hits = response.hits().hits();
+					if (hits.isEmpty()) {
+						completed = true;
+						break;
+					}
+					for (Hit<T> hit : hits) {
+						if (!offer(new Item<>(slice.slice, hit, false, null))) {
+							break;
+						}
+					}
+
+					String id = scrollId;
+					String keepAlive = exportConfigProperties.getKeepAlive();
+					response = openSearchClient.scroll(
+							s -> s.scrollId(id).scroll(t -> t.time(keepAlive)), clazz);
+				}
+			} catch (Exception e) {
+				log.error("export {} slice {} failed", request.getExportId(), slice.slice, e);
+				error = e;
+				cancelled = true;
+			} finally {
+				clearScroll(scrollId);
+				// 结束标记一定要送到，消费方按结束标记数判断是否所有slice都已结束
+				offer(new Item<>(slice.slice, null, completed, error));
+			}
+		}
+
+		/**
+		 * 在调用线程中逐条消费队列，直到所有slice结束
+		 */
+		private void consume(int running, Consumer<Hit<T>> sink) throws InterruptedException {
+			long progressInterval = exportConfigProperties.getProgressInterval();
+			long nextProgress = System.currentTimeMillis() + progressInterval;
+
+			while (running > 0) {
+				Item<T> item = queue.poll(progressInterval, TimeUnit.MILLISECONDS);
+				if (item != null && item.hit() != null) {
+					accept(item, sink);
+				} else if (item != null) {
+					running--;
+					end(item);
+				}
+
+				if (System.currentTimeMillis() >= nextProgress) {
+					nextProgress = System.currentTimeMillis() + progressInterval;
+					ExportProgress progress = progress();
+					log.info("export {} progress: {}", request.getExportId(), progress);
+					listener.onProgress(progress);
+				}
+			}
+		}
+
+		private void accept(Item<T> item, Consumer<Hit<T>> sink) {
+			// 已经失败时丢弃队列中剩余的文档，检查点停在最后消费成功的位置
+			if (failure != null) {
+				return;
+			}
+
+			SliceState slice = slices.get(item.slice());
+			String resumeValue = request.getResumeField() != null ? item.hit().sort().get(0) : null;
+			// 同一个slice按恢复字段升序拉取，值重复时从检查点恢复会漏掉和检查点值相同的文档
+			if (resumeValue != null && resumeValue.equals(slice.after)) {
+				log.error("export {} resume field {} has duplicate value {}",
+						request.getExportId(), request.getResumeField(), resumeValue);
+				failure = new IllegalStateException("resume field " + request.getResumeField()
+						+ " is not unique, duplicate value " + resumeValue);
+				cancelled = true;
+				save(slice);
+				return;
+			}
+
+			try {
+				sink.accept(item.hit());
+			} catch (RuntimeException e) {
+				log.error("export {} sink failed", request.getExportId(), e);
+				failure = e;
+				cancelled = true;
+				save(slice);
+				return;
+			}
+
+			slice.exported++;
+			slice.consumed++;
+			if (resumeValue != null) {
+				slice.after = resumeValue;
+			}
+
+			if (++slice.sinceCheckpoint >= exportConfigProperties.getCheckpointInterval()) {
+				save(slice);
+			}
+		}
+
+		private void end(Item<T> item) {
+			SliceState slice = slices.get(item.slice());
+			if (item.failure() != null && failure == null) {
+				failure = item.failure();
+			}
+
+			slice.done = item.completed() && failure == null;
+			save(slice);
+
+			if (slice.done) {
+				SliceCheckpoint checkpoint = checkpoint(slice);
+				log.info("export {} slice {} done: {} documents", request.getExportId(),
+						slice.slice, slice.exported);
+				listener.onSliceDone(request.getExportId(), checkpoint);
+			}
+		}
+
+		private void save(SliceState slice) {
+			slice.sinceCheckpoint = 0;
+			try {
+				checkpointStore.save(request.getExportId(), checkpoint(slice));
+			} catch (IOException e) {
+				log.warn("save checkpoint of export {} slice {} failed", request.getExportId(),
+						slice.slice, e);
+			}
+		}
+
+		private SliceCheckpoint checkpoint(SliceState slice) {
+			return new SliceCheckpoint(slice.slice, max, slice.exported, slice.after, slice.done);
+		}
+
+		private ExportProgress progress() {
+			long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+			double seconds = elapsedNanos / 1e9;
+
+			long exported = 0;
+			int done = 0;
+			Map<Integer, Double> throughput = new LinkedHashMap<>();
+			for (SliceState slice : slices.values()) {
+				exported += slice.exported;
+				done += slice.done ? 1 : 0;
+				throughput.put(slice.slice, slice.consumed / seconds);
+			}
+
+			return new ExportProgress(request.getExportId(), exported, total.get(), done, max,
+					TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughput);
+		}
+
+		private SearchRequest sliceRequest(SliceState slice) {
+			String resumeField = request.getResumeField();
+
+			List<Query> filters = new ArrayList<>();
+			if (request.getQuery() != null) {
+				filters.add(request.getQuery());
+			}
+			if (resumeField != null && slice.after != null) {
+				filters.add(Query.of(q -> q.range(
+						r -> r.field(resumeField).gt(JsonData.of(slice.after)))));
+			}
+
+			return SearchRequest.of(s -> {
+				s.index(request.getIndexName()).size(pageSize)
+						.scroll(t -> t.time(exportConfigProperties.getKeepAlive()))
+						.trackTotalHits(t -> t.enabled(true))
+						.query(q -> q.bool(b -> b.filter(filters)));
+				if (max > 1) {
+					s.slice(sl -> sl.id(slice.slice).max(max));
+				}
+				if (resumeField != null) {
+					s.sort(f -> f.field(o -> o.field(resumeField).order(SortOrder.Asc)));
+				} else {
+					// _doc顺序是最省资源的遍历顺序
+					s.sort(f -> f.field(o -> o.field("_doc")));
+				}
+				return s;
+			});
+		}
+
+		/**
+		 * 放进队列，队列满时等待，直到放进去或者消费方已经不再消费
+		 */
+		private boolean offer(Item<T> item) {
+			try {
+				while (!queue.offer(item, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+					if (abandoned || (cancelled && item.hit() != null)) {
+						return false;
+					}
+				}
+				return true;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		private void clearScroll(String scrollId) {
+			if (scrollId == null) {
+				return;
+			}
+			try {
+				openSearchClient.clearScroll(c -> c.scrollId(scrollId));
+			} catch (IOException e) {
+				log.warn("clear scroll {} failed", scrollId, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package com.wujunshen.opensearch.sniff;
+
+import com.wujunshen.opensearch.api.NodeApi;
+import com.wujunshen.opensearch.config.SnifferConfigProperties;
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.opensearch.client.Node;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.opensearch.cat.nodes.NodesRecord;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 节点嗅探，用NodeApi读取集群节点列表后替换RestClient的节点，新加入的节点不用重新部署就能分到请求，
+ * 下线的节点也会被移出。定期刷新，请求失败时通过SniffOnFailureListener立即刷新。
+ * cat nodes没有返回http地址时，用节点ip加上初始地址的端口和协议
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 20:00<br>
+ */
+@Slf4j
+public class NodeSniffer implements AutoCloseable {
+
+	private final RestClient restClient;
+
+	private final NodeApi nodeApi;
+
+	private final long interval;
+
+	private final long delayAfterFailure;
+
+	private final Predicate<Node> filter;
+
+	private final String defaultScheme;
+
+	private final int defaultPort;
+
+	private final ScheduledExecutorService scheduler;
+
+	private ScheduledFuture<?> nextSniff;
+
+	/**
+	 * 每次安排嗅探加一。调度线程只有一个，嗅探不会并发执行；嗅探结束时如果期间又安排过嗅探(比如请求失败触发的)，
+	 * 就不再安排下一次，以免取消掉更新的安排
+	 */
+	private long generation;
+
+	private boolean closed;
+
+	/**
+	 * 构造方法，创建后立即嗅探一次
+	 *
+	 * @param restClient              RestClient对象
+	 * @param nodeApi                 NodeApi对象
+	 * @param snifferConfigProperties 节点嗅探配置
+	 */
+	public NodeSniffer(RestClient restClient, NodeApi nodeApi,
+			SnifferConfigProperties snifferConfigProperties) {
+		this.restClient = restClient;
+		this.nodeApi = nodeApi;
+		this.interval = snifferConfigProperties.getInterval();
+		this.delayAfterFailure = snifferConfigProperties.getDelayAfterFailure();
+		this.filter = snifferConfigProperties.isSkipDedicatedClusterManagers()
+				? node -> !isDedicatedClusterManager(node) : node -> true;
+
+		HttpHost seed = restClient.getNodes().get(0).getHost();
+		this.defaultScheme = seed.getSchemeName();
+		this.defaultPort = seed.getPort();
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				"opensearch-sniffer-");
+		threadFactory.setDaemon(true);
+		this.scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+
+		schedule(0, interval);
+	}
+
+	/**
+	 * 读取集群节点列表并替换RestClient的节点，过滤后没有节点时保留原来的节点
+	 *
+	 * @return 当前RestClient使用的节点
+	 * @throws IOException 异常信息
+	 */
+	public List<Node> sniff() throws IOException {
+		List<Node> nodes = nodeApi.getAllNodes().stream().map(this::toNode).filter(filter)
+				.toList();
+
+		if (nodes.isEmpty()) {
+			log.warn("no node left after filtering, keep current nodes {}", restClient.getNodes());
+			return restClient.getNodes();
+		}
+
+		restClient.setNodes(nodes);
+		log.info("sniffed nodes: {}", nodes.stream().map(Node::getHost).toList());
+
+		return nodes;
+	}
+
+	/**
+	 * 请求失败后立即嗅探，之后按delayAfterFailure再嗅探一次
+	 *
+	 * @param node 失败的节点
+	 */
+	void sniffOnFailure(Node node) {
+		log.info("{} failed, sniff nodes now", node.getHost());
+		schedule(0, delayAfterFailure);
+	}
+
+	/**
+	 * 停止定期嗅探
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+		if (nextSniff != null) {
+			nextSniff.cancel(false);
+		}
+		scheduler.shutdown();
+	}
+
+	/**
+	 * 只有cluster_manager角色、不存数据也不做ingest的节点
+	 *
+	 * @param node 节点
+	 * @return 是专用cluster_manager节点返回true
+	 */
+	static boolean isDedicatedClusterManager(Node node) {
+		Node.Roles roles = node.getRoles();
+		return roles != null && roles.isClusterManagerEligible() && !roles.isData()
+				&& !roles.isIngest();
+	}
+
+	/**
+	 * 把cat nodes的一行转换成RestClient的节点，node.role是角色缩写，例如dimr
+	 *
+	 * @param nodesRecord cat nodes结果
+	 * @return Node对象
+	 */
+	private Node toNode(NodesRecord nodesRecord) {
+		HttpHost host = nodesRecord.httpAddress() != null
+				? parseHost(nodesRecord.httpAddress(), nodesRecord.ip())
+				: new HttpHost(nodesRecord.ip(), defaultPort, defaultScheme);
+
+		Set<String> roles = new HashSet<>();
+		String nodeRole = nodesRecord.nodeRole() != null ? nodesRecord.nodeRole() : "";
+		for (char role : nodeRole.toCharArray()) {
+			switch (role) {
+				case 'd' -> roles.add("data");
+				case 'i' -> roles.add("ingest");
+				case 'm' -> roles.add("cluster_manager");
+				case 'r' -> roles.add("remote_cluster_client");
+				case 's' -> roles.add("search");
+				default -> {
+					// 其它角色不影响请求路由
+				}
+			}
+		}
+
+		return new Node(host, Set.of(host), nodesRecord.name(), nodesRecord.version(),
+				new Node.Roles(roles), Map.of());
+	}
+
+	/**
+	 * http地址可能是hostname/ip:port的形式，取ip:port部分。IPv6地址带方括号，没有端口时用初始地址的端口
+	 *
+	 * @param httpAddress cat nodes返回的http地址
+	 * @param ip          节点ip，http地址无法解析出主机时使用
+	 * @return HttpHost对象
+	 */
+	private HttpHost parseHost(String httpAddress, String ip) {
+		String address = httpAddress.substring(httpAddress.lastIndexOf('/') + 1);
+		// 不带方括号的IPv6地址没有端口，补上方括号才能按URI解析
+		if (!address.startsWith("[") && address.indexOf(':') != address.lastIndexOf(':')) {
+			address = "[" + address + "]";
+		}
+
+		URI uri = URI.create(defaultScheme + "://" + address);
+		String hostname = uri.getHost() != null ? uri.getHost() : ip;
+		int port = uri.getPort() >= 0 ? uri.getPort() : defaultPort;
+
+		return new HttpHost(hostname, port, defaultScheme);
+	}
+
+	private synchronized void schedule(long delay, long nextInterval) {
+		if (closed) {
+			return;
+		}
+		if (nextSniff != null) {
+			nextSniff.cancel(false);
+		}
+		long scheduled = ++generation;
+		nextSniff = scheduler.schedule(() -> run(scheduled, nextInterval), delay,
+				TimeUnit.MILLISECONDS);
+	}
+
+	private void run(long scheduled, long nextInterval) {
+		try {
+			sniff();
+		} catch (IOException | RuntimeException e) {
+			log.error("sniff nodes failed", e);
+		} finally {
+			scheduleNext(scheduled, nextInterval);
+		}
+	}
+
+	private synchronized void scheduleNext(long scheduled, long nextInterval) {
+		// 嗅探期间已经安排了更新的嗅探，保留那一次
+		if (generation == scheduled) {
+			schedule(nextInterval, interval);
+		}
+	}
+}
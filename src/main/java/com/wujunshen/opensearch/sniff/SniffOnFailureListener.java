@@ -0,0 +1,41 @@
+package com.wujunshen.opensearch.sniff;
+
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.client.Node;
+import org.opensearch.client.RestClient;
+
+/**
+ * 请求失败时触发节点嗅探。RestClient创建时NodeSniffer还不存在，先注册这个监听器，
+ * NodeSniffer创建后再通过setSniffer关联
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 20:05<br>
+ */
+@Slf4j
+public class SniffOnFailureListener extends RestClient.FailureListener {
+
+	private final AtomicReference<NodeSniffer> sniffer = new AtomicReference<>();
+
+	/**
+	 * 关联NodeSniffer，只能关联一次
+	 *
+	 * @param nodeSniffer NodeSniffer对象
+	 */
+	public void setSniffer(NodeSniffer nodeSniffer) {
+		if (!sniffer.compareAndSet(null, nodeSniffer)) {
+			throw new IllegalStateException("sniffer can only be set once");
+		}
+	}
+
+	@Override
+	public void onFailure(Node node) {
+		NodeSniffer nodeSniffer = sniffer.get();
+		if (nodeSniffer == null) {
+			log.warn("{} failed before sniffer was set", node.getHost());
+			return;
+		}
+		nodeSniffer.sniffOnFailure(node);
+	}
+}
@@ -0,0 +1,217 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.wujunshen.opensearch.bulk.BulkExecutor;
+import com.wujunshen.opensearch.bulk.BulkFailure;
+import com.wujunshen.opensearch.bulk.BulkResult;
+import com.wujunshen.opensearch.config.BulkConfigProperties;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.http.HttpHost;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.transport.rest_client.RestClientTransport;
+
+/**
+ * bulk条目重试测试，用本地桩服务按文档id返回成功、被拒绝或mapping错误，不需要连接集群。
+ * id前缀决定桩服务的返回：ok成功，busy第一次返回429，queue第一次返回rejected_execution_exception，
+ * stuck一直返回429，bad返回mapping错误
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/19 10:00<br>
+ */
+class BulkExecutorTest {
+
+	private static final int MAX_RETRIES = 3;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static HttpServer server;
+
+	private static RestClient restClient;
+
+	private static BulkExecutor bulkExecutor;
+
+	/**
+	 * 每个bulk请求里的文档id，按请求顺序
+	 */
+	private static final List<List<String>> requests = new CopyOnWriteArrayList<>();
+
+	/**
+	 * 每个文档id被发送的次数
+	 */
+	private static final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+	@BeforeAll
+	static void setUp() throws IOException {
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/_bulk", BulkExecutorTest::handle);
+		server.start();
+
+		restClient = RestClient.builder(
+				new HttpHost("127.0.0.1", server.getAddress().getPort(), "http")).build();
+		OpenSearchClient openSearchClient = new OpenSearchClient(
+				new RestClientTransport(restClient, new JacksonJsonpMapper()));
+
+		BulkConfigProperties bulkConfigProperties = new BulkConfigProperties();
+		bulkConfigProperties.setMaxRetries(MAX_RETRIES);
+		bulkConfigProperties.setInitialBackoff(1);
+		bulkConfigProperties.setMaxBackoff(5);
+		bulkExecutor = new BulkExecutor(openSearchClient, bulkConfigProperties);
+	}
+
+	@AfterAll
+	static void tearDown() throws IOException {
+		restClient.close();
+		server.stop(0);
+	}
+
+	@BeforeEach
+	void clear() {
+		requests.clear();
+		attempts.clear();
+	}
+
+	@Test
+	void onlyRejectedItemsAreRetried() throws IOException {
+		BulkResult result = bulkExecutor.execute(
+				operations("ok-1", "busy-1", "bad-1", "queue-1", "ok-2"), 0);
+
+		assertThat(result.isSuccess(), is(false));
+		assertThat(result.getSucceeded(), equalTo(4L));
+		assertThat(result.getRequests(), equalTo(2));
+
+		// 第二个请求只重发被拒绝的条目，mapping错误和成功的条目不重发
+		assertThat(requests.get(1), containsInAnyOrder("busy-1", "queue-1"));
+		assertThat(attempts.get("ok-1"), equalTo(1));
+		assertThat(attempts.get("bad-1"), equalTo(1));
+
+		// 逐条结果顺序和提交的操作一致
+		assertThat(result.getItems().stream().map(item -> item.id()).toList(),
+				equalTo(List.of("ok-1", "busy-1", "bad-1", "queue-1", "ok-2")));
+	}
+
+	@Test
+	void retryBudgetIsRespected() throws IOException {
+		BulkResult result = bulkExecutor.execute(operations("stuck-1", "busy-1", "ok-1"), 0);
+
+		// 第一次发送加上MAX_RETRIES次重试
+		assertThat(attempts.get("stuck-1"), equalTo(MAX_RETRIES + 1));
+		assertThat(attempts.get("busy-1"), equalTo(2));
+		assertThat(result.getRequests(), equalTo(MAX_RETRIES + 1));
+
+		List<BulkFailure> retryableFailures = result.getRetryableFailures();
+		assertThat(retryableFailures.size(), equalTo(1));
+		assertThat(retryableFailures.get(0).getId(), equalTo("stuck-1"));
+		assertThat(retryableFailures.get(0).getStatus(), equalTo(429));
+	}
+
+	@Test
+	void permanentFailuresAreReported() throws IOException {
+		BulkResult result = bulkExecutor.execute(
+				operations("bad-1", "stuck-1", "bad-2", "ok-1"), 0);
+
+		assertThat(result.getPermanentFailures().stream().map(BulkFailure::getId).toList(),
+				containsInAnyOrder("bad-1", "bad-2"));
+		assertThat(result.getPermanentFailures().get(0).getType(),
+				equalTo("mapper_parsing_exception"));
+		assertThat(result.getRetryableFailures().stream().map(BulkFailure::getId).toList(),
+				equalTo(List.of("stuck-1")));
+		assertThat(attempts.get("bad-1"), equalTo(1));
+		assertThat(attempts.get("bad-2"), equalTo(1));
+	}
+
+	@Test
+	void chunksByCountOnlyWithoutByteLimit() throws IOException {
+		BulkResult result = bulkExecutor.execute(
+				operations("ok-1", "ok-2", "ok-3", "ok-4", "ok-5").iterator(), 2, 0);
+
+		assertThat(requests, equalTo(List.of(List.of("ok-1", "ok-2"), List.of("ok-3", "ok-4"),
+				List.of("ok-5"))));
+		// 没有字节数上限时不估算请求体大小
+		assertThat(result.getRequestBytes(), equalTo(0L));
+	}
+
+	private static List<BulkOperation> operations(String... ids) {
+		List<BulkOperation> operations = new ArrayList<>();
+		for (String id : ids) {
+			operations.add(BulkOperation.of(b -> b.index(
+					idx -> idx.index("products").id(id).document(Map.of("name", id)))));
+		}
+		return operations;
+	}
+
+	private static void handle(HttpExchange exchange) throws IOException {
+		String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+		List<String> ids = new ArrayList<>();
+		List<String> items = new ArrayList<>();
+		List<String> lines = body.lines().filter(line -> !line.isBlank()).toList();
+		// index操作一行元数据一行文档
+		for (int i = 0; i < lines.size(); i += 2) {
+			JsonNode action = OBJECT_MAPPER.readTree(lines.get(i)).get("index");
+			String id = action.get("_id").asText();
+			int attempt = attempts.merge(id, 1, Integer::sum);
+
+			ids.add(id);
+			items.add(item(id, attempt));
+		}
+		requests.add(ids);
+
+		byte[] response = ("{\"took\":1,\"errors\":true,\"items\":[" + String.join(",", items)
+				+ "]}").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, response.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(response);
+		}
+	}
+
+	private static String item(String id, int attempt) {
+		String prefix = id.substring(0, id.indexOf('-'));
+		boolean firstAttempt = attempt == 1;
+
+		return switch (prefix) {
+			case "busy" -> firstAttempt ? error(id, 429, "es_rejected_execution_exception")
+					: created(id);
+			case "queue" -> firstAttempt ? error(id, 500, "rejected_execution_exception")
+					: created(id);
+			case "stuck" -> error(id, 429, "es_rejected_execution_exception");
+			case "bad" -> error(id, 400, "mapper_parsing_exception");
+			default -> created(id);
+		};
+	}
+
+	private static String created(String id) {
+		return "{\"index\":{\"_index\":\"products\",\"_id\":\"" + id
+				+ "\",\"status\":201,\"result\":\"created\"}}";
+	}
+
+	private static String error(String id, int status, String type) {
+		return "{\"index\":{\"_index\":\"products\",\"_id\":\"" + id + "\",\"status\":" + status
+				+ ",\"error\":{\"type\":\"" + type + "\",\"reason\":\"" + type + "\"}}}";
+	}
+}
@@ -0,0 +1,157 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.wujunshen.opensearch.bulk.BulkExecutor;
+import com.wujunshen.opensearch.bulk.BulkIngester;
+import com.wujunshen.opensearch.cache.QueryCache;
+import com.wujunshen.opensearch.config.BulkConfigProperties;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpHost;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.transport.rest_client.RestClientTransport;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+/**
+ * BulkIngester关闭测试，用本地桩服务模拟_bulk，不需要连接集群。
+ * 多个线程不停写入，同时在主线程close，重复多轮让close落在写入线程取出批次和提交批次之间
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/27 10:30<br>
+ */
+class BulkIngesterCloseTest {
+
+	private static final int WRITERS = 16;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private HttpServer server;
+
+	private RestClient restClient;
+
+	private BulkIngester bulkIngester;
+
+	private ExecutorService writers;
+
+	private ExecutorService handlers;
+
+	/**
+	 * 桩服务收到的文档id
+	 */
+	private final Set<String> received = ConcurrentHashMap.newKeySet();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/_bulk", this::handle);
+		handlers = Executors.newCachedThreadPool();
+		server.setExecutor(handlers);
+		server.start();
+
+		restClient = RestClient.builder(
+				new HttpHost("127.0.0.1", server.getAddress().getPort(), "http")).build();
+		OpenSearchClient openSearchClient = new OpenSearchClient(
+				new RestClientTransport(restClient, new JacksonJsonpMapper()));
+
+		BulkConfigProperties bulkConfigProperties = new BulkConfigProperties();
+		// 每个操作单独成批，每次add都要经过取出批次再提交的过程
+		bulkConfigProperties.setMaxOperations(1);
+		bulkConfigProperties.setMaxConcurrentRequests(4);
+		bulkConfigProperties.setFlushInterval(0);
+		bulkIngester = new BulkIngester(openSearchClient,
+				new BulkExecutor(openSearchClient, bulkConfigProperties), bulkConfigProperties,
+				null, new StaticListableBeanFactory().getBeanProvider(QueryCache.class));
+		writers = Executors.newFixedThreadPool(WRITERS);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		writers.shutdownNow();
+		restClient.close();
+		server.stop(0);
+		handlers.shutdownNow();
+	}
+
+	@RepeatedTest(20)
+	void acceptedOperationsAreSentWhenClosingConcurrently() throws Exception {
+		CountDownLatch started = new CountDownLatch(WRITERS);
+		List<Future<List<String>>> results = new ArrayList<>();
+		for (int i = 0; i < WRITERS; i++) {
+			String writer = "writer-" + i;
+			results.add(writers.submit(() -> write(writer, started)));
+		}
+
+		started.await();
+		TimeUnit.MILLISECONDS.sleep(20);
+		bulkIngester.close();
+
+		// add正常返回的操作都必须发到服务端，close之后的add只能抛出已关闭的异常
+		Set<String> accepted = new HashSet<>();
+		for (Future<List<String>> result : results) {
+			accepted.addAll(result.get(10, TimeUnit.SECONDS));
+		}
+		assertThat(received.containsAll(accepted), is(true));
+		assertThat(received.size(), equalTo(accepted.size()));
+	}
+
+	private List<String> write(String writer, CountDownLatch started) {
+		List<String> accepted = new ArrayList<>();
+		started.countDown();
+		for (int i = 0; ; i++) {
+			String id = writer + "-" + i;
+			try {
+				bulkIngester.index("products", id, Map.of("name", id));
+			} catch (IllegalStateException e) {
+				return accepted;
+			}
+			accepted.add(id);
+		}
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+		List<String> items = new ArrayList<>();
+		List<String> lines = body.lines().filter(line -> !line.isBlank()).toList();
+		for (int i = 0; i < lines.size(); i += 2) {
+			String id = OBJECT_MAPPER.readTree(lines.get(i)).get("index").get("_id").asText();
+			received.add(id);
+			items.add("{\"index\":{\"_index\":\"products\",\"_id\":\"" + id
+					+ "\",\"status\":201,\"result\":\"created\"}}");
+		}
+
+		byte[] response = ("{\"took\":1,\"errors\":false,\"items\":[" + String.join(",", items)
+				+ "]}").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, response.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(response);
+		}
+	}
+}
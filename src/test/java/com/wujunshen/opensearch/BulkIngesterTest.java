@@ -0,0 +1,114 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.wujunshen.ApplicationTests;
+import com.wujunshen.entity.product.Sku;
+import com.wujunshen.opensearch.api.IndexApi;
+import com.wujunshen.opensearch.bulk.BulkExecutor;
+import com.wujunshen.opensearch.bulk.BulkIngester;
+import com.wujunshen.opensearch.bulk.BulkResult;
+import com.wujunshen.opensearch.cache.QueryCache;
+import com.wujunshen.opensearch.config.BulkConfigProperties;
+import com.wujunshen.opensearch.config.OpenSearchConfigProperties;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestClassOrder;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/16 11:40<br>
+ */
+@Slf4j
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ActiveProfiles(value = "local")
+@TestInstance(Lifecycle.PER_CLASS)
+@SpringBootTest(classes = {ApplicationTests.class})//这里加启动类
+@Order(25)
+class BulkIngesterTest {
+
+	@Autowired
+	private OpenSearchConfigProperties openSearchConfigProperties;
+
+	@Autowired
+	private OpenSearchClient openSearchClient;
+
+	@Autowired
+	private IndexApi indexApi;
+
+	@Autowired
+	private ObjectProvider<QueryCache> queryCache;
+
+	private String indexName;
+
+	@BeforeAll
+	void setUp() throws IOException {
+		indexName = openSearchConfigProperties.getIndex();
+
+		indexApi.createIndex(indexName);
+	}
+
+	@AfterAll
+	void tearDown() throws IOException {
+		indexApi.deleteIndex(indexName);
+
+		indexName = null;
+	}
+
+	/**
+	 * 单条操作经BulkIngester攒批写入
+	 */
+	@Order(10)
+	@Test
+	void ingest() throws IOException {
+		BulkConfigProperties bulkConfigProperties = new BulkConfigProperties();
+		bulkConfigProperties.setMaxOperations(30);
+		bulkConfigProperties.setFlushInterval(0);
+
+		AtomicInteger bulkCount = new AtomicInteger();
+		BulkIngester bulkIngester = new BulkIngester(openSearchClient,
+				new BulkExecutor(openSearchClient, bulkConfigProperties), bulkConfigProperties,
+				new BulkIngester.Listener() {
+					@Override
+					public void afterBulk(List<BulkOperation> operations, BulkResult result) {
+						bulkCount.incrementAndGet();
+					}
+				}, queryCache);
+
+		for (int i = 0; i < 100; i++) {
+			bulkIngester.index(indexName, String.valueOf(i),
+					Sku.builder().id((long) i).skuName("City bike " + i).skuPrice(i).build());
+		}
+		bulkIngester.delete(indexName, "0");
+		bulkIngester.close();
+
+		indexApi.refresh(indexName);
+
+		long count = openSearchClient.count(c -> c.index(indexName)).count();
+		log.info("bulk requests: {}, document count: {}", bulkCount.get(), count);
+
+		assertThat(bulkCount.get(), is(4));
+		assertThat(count, equalTo(99L));
+	}
+}
@@ -0,0 +1,187 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.wujunshen.opensearch.client.CompressingRestClientTransport;
+import com.wujunshen.opensearch.client.JdkHttpClientTransport;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.http.HttpHost;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch.core.BulkRequest;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.transport.OpenSearchTransport;
+
+/**
+ * 请求体gzip压缩和响应解压测试，用本地桩服务检查收到的请求，不需要连接集群
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 22:00<br>
+ */
+class CompressionTest {
+
+	private static final int THRESHOLD = 1024;
+
+	private static final String BULK_RESPONSE = """
+			{"took":1,"errors":false,"items":[]}""";
+
+	private static HttpServer server;
+
+	private static RestClient restClient;
+
+	private static OpenSearchTransport restClientTransport;
+
+	private static OpenSearchTransport jdkTransport;
+
+	/**
+	 * 桩服务最近收到的请求
+	 */
+	private static volatile ReceivedRequest received;
+
+	@BeforeAll
+	static void setUp() throws IOException {
+		// 同一个JVM里第一次创建桩服务时读取，和TransportBenchmarkTest保持一致
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", CompressionTest::handle);
+		server.start();
+
+		int port = server.getAddress().getPort();
+		restClient = RestClient.builder(new HttpHost("127.0.0.1", port, "http")).build();
+		restClientTransport = new CompressingRestClientTransport(restClient,
+				new JacksonJsonpMapper(), THRESHOLD);
+
+		ExecutorService executor = JdkHttpClientTransport.newExecutor();
+		HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.executor(executor).build();
+		jdkTransport = new JdkHttpClientTransport(httpClient,
+				List.of(URI.create("http://127.0.0.1:" + port)), new JacksonJsonpMapper(),
+				Duration.ofSeconds(10), THRESHOLD, executor);
+	}
+
+	@AfterAll
+	static void tearDown() throws IOException {
+		jdkTransport.close();
+		restClientTransport.close();
+		server.stop(0);
+	}
+
+	@BeforeEach
+	void clear() {
+		received = null;
+	}
+
+	@Test
+	void restClientCompressesLargeBodies() throws IOException {
+		assertCompressed(new OpenSearchClient(restClientTransport));
+	}
+
+	@Test
+	void restClientSkipsSmallBodies() throws IOException {
+		assertNotCompressed(new OpenSearchClient(restClientTransport));
+	}
+
+	@Test
+	void jdkTransportCompressesLargeBodies() throws IOException {
+		assertCompressed(new OpenSearchClient(jdkTransport));
+	}
+
+	@Test
+	void jdkTransportSkipsSmallBodies() throws IOException {
+		assertNotCompressed(new OpenSearchClient(jdkTransport));
+	}
+
+	private static void assertCompressed(OpenSearchClient client) throws IOException {
+		BulkRequest request = bulkRequest(200);
+
+		assertThat(client.bulk(request).errors(), is(false));
+
+		assertThat(received.contentEncoding(), equalTo("gzip"));
+		assertThat(received.acceptEncoding(), equalTo("gzip"));
+		assertThat(received.body().lines().count(), equalTo(400L));
+		assertThat(received.length(), lessThan(received.body().length()));
+	}
+
+	private static void assertNotCompressed(OpenSearchClient client) throws IOException {
+		assertThat(client.bulk(bulkRequest(1)).errors(), is(false));
+
+		assertThat(received.contentEncoding(), nullValue());
+		assertThat(received.acceptEncoding(), equalTo("gzip"));
+		assertThat(received.body().lines().count(), equalTo(2L));
+	}
+
+	private static BulkRequest bulkRequest(int size) {
+		List<BulkOperation> operations = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			String id = String.valueOf(i);
+			Map<String, String> document = Map.of("name", "product " + id);
+			operations.add(BulkOperation.of(
+					b -> b.index(idx -> idx.index("products").id(id).document(document))));
+		}
+		return BulkRequest.of(b -> b.operations(operations));
+	}
+
+	/**
+	 * 记录收到的请求，客户端接受gzip时压缩响应
+	 */
+	private static void handle(HttpExchange exchange) throws IOException {
+		byte[] raw = exchange.getRequestBody().readAllBytes();
+		String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+		String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+
+		InputStream in = new ByteArrayInputStream(raw);
+		if ("gzip".equals(contentEncoding)) {
+			in = new GZIPInputStream(in);
+		}
+		received = new ReceivedRequest(contentEncoding, acceptEncoding, raw.length,
+				new String(in.readAllBytes(), StandardCharsets.UTF_8));
+
+		byte[] body = BULK_RESPONSE.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(body);
+			}
+			body = out.toByteArray();
+			exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+		}
+
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private record ReceivedRequest(String contentEncoding, String acceptEncoding, int length,
+			String body) {
+
+	}
+}
@@ -8,10 +8,15 @@ import com.wujunshen.ApplicationTests;
 import com.wujunshen.entity.product.Sku;
 import com.wujunshen.opensearch.api.DocumentApi;
 import com.wujunshen.opensearch.api.IndexApi;
+import com.wujunshen.opensearch.bulk.BulkResult;
 import com.wujunshen.opensearch.config.OpenSearchConfigProperties;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -23,11 +28,15 @@ import org.junit.jupiter.api.TestClassOrder;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.Refresh;
 import org.opensearch.client.opensearch._types.mapping.TypeMapping;
 import org.opensearch.client.opensearch.core.DeleteResponse;
 import org.opensearch.client.opensearch.core.GetResponse;
 import org.opensearch.client.opensearch.core.IndexResponse;
 import org.opensearch.client.opensearch.core.UpdateResponse;
+import org.opensearch.client.opensearch.core.mget.MultiGetResponseItem;
+import org.opensearch.client.opensearch.tasks.GetTasksResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
@@ -55,6 +64,9 @@ class DocumentApiTest {
 	@Autowired
 	private DocumentApi documentApi;
 
+	@Autowired
+	private OpenSearchClient openSearchClient;
+
 	private Sku sku;
 
 	private Sku updateSku;
@@ -120,6 +132,20 @@ class DocumentApiTest {
 		assertThat(index, equalTo(indexName));
 	}
 
+	/**
+	 * 单个文档写入，refresh=wait_for返回后不用再调用refresh就能查到
+	 */
+	@Order(31)
+	@Test
+	void addDocumentWaitFor() throws IOException {
+		IndexResponse indexResponse = documentApi.addDocument(indexName, sku, Refresh.WaitFor);
+
+		long count = openSearchClient.count(
+				c -> c.index(indexName).query(q -> q.ids(i -> i.values(indexResponse.id())))).count();
+
+		assertThat(count, equalTo(1L));
+	}
+
 	/**
 	 * 单个文档更新
 	 */
@@ -154,6 +180,24 @@ class DocumentApiTest {
 		assertThat(index, equalTo(indexName));
 	}
 
+	/**
+	 * 批量查询文档信息
+	 */
+	@Order(42)
+	@Test
+	void getDocuments() throws IOException {
+		IndexResponse indexResponse = documentApi.addDocument(indexName, sku);
+
+		List<MultiGetResponseItem<Sku>> items = documentApi.getDocuments(indexName,
+				List.of(indexResponse.id(), "not-existed-id"), Sku.class);
+
+		log.info("items: {}", items);
+
+		assertThat(items.size(), equalTo(2));
+		assertThat(items.get(0).result().found(), is(true));
+		assertThat(items.get(1).result().found(), is(false));
+	}
+
 	/**
 	 * 删除文档信息
 	 */
@@ -176,11 +220,79 @@ class DocumentApiTest {
 	@Order(50)
 	@Test
 	void batchAddDocument() throws IOException {
-		boolean result = documentApi.batchAddDocument(indexName, skuList);
+		BulkResult result = documentApi.batchAddDocument(indexName, skuList);
 
 		log.info("batch insert operation: {}", result);
 
-		assertThat(result, is(true));
+		assertThat(result.isSuccess(), is(true));
+		assertThat(result.getSucceeded(), equalTo((long) skuList.size()));
+	}
+
+	/**
+	 * 分块批量文档写入
+	 */
+	@Order(52)
+	@Test
+	void batchAddDocumentInChunks() throws IOException {
+		BulkResult result = documentApi.batchAddDocumentInChunks(indexName, skuList, 30,
+				5L * 1024 * 1024);
+
+		log.info("batch insert operation: {}", result);
+
+		assertThat(result.getItems().size(), equalTo(skuList.size()));
+		assertThat(result.getRequests(), is(4));
+		assertThat(result.isSuccess(), is(true));
+	}
+
+	/**
+	 * 流式文档写入
+	 */
+	@Order(53)
+	@Test
+	void streamAddDocument() throws IOException {
+		BulkResult result = documentApi.streamAddDocument(indexName, skuList.stream());
+
+		log.info("stream insert operation: {}", result);
+
+		assertThat(result.getSucceeded(), equalTo((long) skuList.size()));
+		assertThat(result.isSuccess(), is(true));
+
+		SubmissionPublisher<Sku> publisher = new SubmissionPublisher<>();
+		// 订阅之后再开始推送，避免数据在订阅前被丢弃
+		Flow.Publisher<Sku> source = subscriber -> {
+			publisher.subscribe(subscriber);
+			CompletableFuture.runAsync(() -> {
+				skuList.forEach(publisher::submit);
+				publisher.close();
+			});
+		};
+
+		result = documentApi.streamAddDocument(indexName, source);
+
+		log.info("publisher insert operation: {}", result);
+
+		assertThat(result.getSucceeded(), equalTo((long) skuList.size()));
+	}
+
+	/**
+	 * 遍历所有文档和文档id
+	 */
+	@Order(54)
+	@Test
+	void streamAllDocument() throws IOException {
+		indexApi.refresh(indexName);
+
+		long count = openSearchClient.count(c -> c.index(indexName)).count();
+
+		try (Stream<Sku> documents = documentApi.streamAllDocument(indexName, Sku.class)) {
+			assertThat(documents.count(), equalTo(count));
+		}
+
+		List<String> ids = documentApi.getAllDocumentIds(indexName, Sku.class);
+
+		log.info("document count: {}, id count: {}", count, ids.size());
+
+		assertThat((long) ids.size(), equalTo(count));
 	}
 
 	/**
@@ -199,6 +311,25 @@ class DocumentApiTest {
 		assertThat(result, is(true));
 	}
 
+	/**
+	 * 限流删除所有文档
+	 */
+	@Order(56)
+	@Test
+	void deleteAllDocumentThrottled() throws IOException {
+		documentApi.batchAddDocument(indexName, skuList);
+		indexApi.refresh(indexName);
+
+		List<Long> progress = new ArrayList<>();
+		GetTasksResponse response = documentApi.deleteAllDocument(indexName, 1000L,
+				status -> progress.add(status.deleted()));
+
+		log.info("delete all operation: {}, progress: {}", response.completed(), progress);
+
+		assertThat(response.completed(), is(true));
+		assertThat(response.response().deleted(), equalTo((long) skuList.size()));
+	}
+
 	/**
 	 * 批量文档删除
 	 */
@@ -210,11 +341,11 @@ class DocumentApiTest {
 
 		List<String> ids = skuList.stream().map(e -> String.valueOf(e.getId())).toList();
 
-		boolean result = documentApi.batchDeleteDocument(indexName, ids);
+		BulkResult result = documentApi.batchDeleteDocument(indexName, ids);
 
-		log.info("batch insert operation: {}", result);
+		log.info("batch delete operation: {}", result);
 
-		assertThat(result, is(true));
+		assertThat(result.isSuccess(), is(true));
 	}
 
 	private List<Sku> bulkWriteSkus() {
@@ -10,6 +10,7 @@ import com.wujunshen.entity.product.Sku;
 import com.wujunshen.entity.product.Spu;
 import com.wujunshen.opensearch.api.DocumentApi;
 import com.wujunshen.opensearch.api.IndexApi;
+import com.wujunshen.opensearch.bulk.BulkResult;
 import com.wujunshen.opensearch.config.OpenSearchConfigProperties;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -198,10 +199,10 @@ public class ESCreateTest {
 	@Order(40)
 	@Test
 	public void operateBatchData() throws IOException {
-		boolean result = documentApi.batchAddDocument(indexName, spuList);
+		BulkResult result = documentApi.batchAddDocument(indexName, spuList);
 
 		log.info("batch insert operation: {}", result);
 
-		assertThat(result, is(true));
+		assertThat(result.isSuccess(), is(true));
 	}
 }
@@ -0,0 +1,361 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import com.wujunshen.opensearch.client.HttpClientCustomizer;
+import com.wujunshen.opensearch.client.HttpClientCustomizers;
+import com.wujunshen.opensearch.config.OpenSearchConfigProperties;
+import com.wujunshen.opensearch.config.SslConfigProperties;
+import com.wujunshen.opensearch.config.TransportConfigProperties;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.Request;
+import org.opensearch.client.Response;
+import org.opensearch.client.ResponseListener;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 内置http客户端定制步骤测试，用本地桩服务检查建好的客户端，不需要连接集群。
+ * 证书在src/test/resources/ssl下，server.p12是桩服务的证书(CN=localhost，SAN包括127.0.0.1)，
+ * other.p12的证书主机名是opensearch.invalid，和访问地址不匹配，truststore.p12只包含这两张证书
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/20 14:30<br>
+ */
+class HttpClientCustomizersTest {
+
+	private static final String STORE_PASSWORD = "changeit";
+
+	private static final int MAX_CONNECT_PER_ROUTE = 2;
+
+	private static final int REQUESTS = 6;
+
+	private HttpsServer server;
+
+	/**
+	 * 证书主机名和访问地址不匹配的桩服务
+	 */
+	private HttpsServer otherServer;
+
+	private ExecutorService serverExecutor;
+
+	/**
+	 * 正在处理的请求数和出现过的最大值
+	 */
+	private final AtomicInteger active = new AtomicInteger();
+
+	private final AtomicInteger maxActive = new AtomicInteger();
+
+	/**
+	 * 发来请求的客户端地址，每个连接一个
+	 */
+	private final Set<String> connections = ConcurrentHashMap.newKeySet();
+
+	@BeforeEach
+	void setUp() throws IOException, GeneralSecurityException, URISyntaxException {
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+
+		// 多线程处理，客户端能开多少个连接就能同时处理多少个请求
+		serverExecutor = Executors.newCachedThreadPool();
+		server = startServer("server.p12");
+		otherServer = startServer("other.p12");
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+		otherServer.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	/**
+	 * https客户端用配置的trust store建立连接，不修改系统属性，连接数不超过每个路由的上限
+	 */
+	@Test
+	void httpsClientUsesTrustStoreAndPoolLimits() throws Exception {
+		OpenSearchConfigProperties openSearchConfigProperties = https(server);
+		SslConfigProperties sslConfigProperties = trustStore(false);
+
+		List<Integer> statuses = new CopyOnWriteArrayList<>();
+		List<Exception> failures = new CopyOnWriteArrayList<>();
+		CountDownLatch done = new CountDownLatch(REQUESTS);
+
+		try (RestClient restClient = restClient(openSearchConfigProperties, sslConfigProperties)) {
+			for (int i = 0; i < REQUESTS; i++) {
+				restClient.performRequestAsync(new Request("GET", "/"), new ResponseListener() {
+					@Override
+					public void onSuccess(Response response) {
+						statuses.add(response.getStatusLine().getStatusCode());
+						done.countDown();
+					}
+
+					@Override
+					public void onFailure(Exception exception) {
+						failures.add(exception);
+						done.countDown();
+					}
+				});
+			}
+			assertThat(done.await(30, TimeUnit.SECONDS), is(true));
+		}
+
+		assertThat(failures, equalTo(List.of()));
+		assertThat(statuses.size(), equalTo(REQUESTS));
+		assertThat(statuses, everyItem(equalTo(200)));
+		assertThat(maxActive.get(), equalTo(MAX_CONNECT_PER_ROUTE));
+		assertThat(connections.size(), equalTo(MAX_CONNECT_PER_ROUTE));
+		assertThat(System.getProperty("javax.net.ssl.trustStore"), nullValue());
+	}
+
+	/**
+	 * JDK HttpClient用配置的trust store建立连接，不修改系统属性，没有用户名时不注册Authenticator
+	 */
+	@Test
+	void jdkTransportUsesTrustStore() throws Exception {
+		OpenSearchConfigProperties openSearchConfigProperties = https(server);
+		openSearchConfigProperties.setUserName(null);
+
+		try (OpenSearchTransport transport = jdkTransport(openSearchConfigProperties,
+				trustStore(false))) {
+			assertThat(new OpenSearchClient(transport).ping().value(), is(true));
+		}
+
+		assertThat(System.getProperty("javax.net.ssl.trustStore"), nullValue());
+		assertThat(System.getProperty("jdk.internal.httpclient.disableHostnameVerification"),
+				nullValue());
+	}
+
+	/**
+	 * 默认跳过hostname验证，只有这个客户端接受主机名不匹配的证书，证书链仍然要可信；配置关闭跳过后验证hostname
+	 */
+	@Test
+	void hostnameVerificationCanBeEnabled() throws Exception {
+		OpenSearchConfigProperties openSearchConfigProperties = https(otherServer);
+		assertThat(new SslConfigProperties().isSkipHostnameVerification(), is(true));
+
+		try (RestClient restClient = restClient(openSearchConfigProperties, trustStore(false))) {
+			assertThrows(IOException.class, () -> restClient.performRequest(
+					new Request("HEAD", "/")));
+		}
+		try (OpenSearchTransport transport = jdkTransport(openSearchConfigProperties,
+				trustStore(false))) {
+			assertThrows(IOException.class, () -> new OpenSearchClient(transport).ping());
+		}
+
+		try (RestClient restClient = restClient(openSearchConfigProperties, trustStore(true))) {
+			assertThat(restClient.performRequest(new Request("HEAD", "/")).getStatusLine()
+					.getStatusCode(), equalTo(200));
+		}
+		try (OpenSearchTransport transport = jdkTransport(openSearchConfigProperties,
+				trustStore(true))) {
+			assertThat(new OpenSearchClient(transport).ping().value(), is(true));
+		}
+
+		// 跳过hostname验证不等于信任所有证书
+		SslConfigProperties defaultTrust = new SslConfigProperties();
+		try (RestClient restClient = restClient(openSearchConfigProperties, defaultTrust)) {
+			assertThrows(IOException.class, () -> restClient.performRequest(
+					new Request("HEAD", "/")));
+		}
+	}
+
+	/**
+	 * 服务端Keep-Alive头的时间超过配置值时取配置值，连接最长存活时间和IO reactor参数生效
+	 */
+	@Test
+	void keepAliveTtlAndIoReactor() {
+		OpenSearchConfigProperties openSearchConfigProperties = new OpenSearchConfigProperties();
+		openSearchConfigProperties.setKeepAlive(30000);
+		openSearchConfigProperties.setConnectionTtl(120000);
+		openSearchConfigProperties.setIoThreadCount(3);
+		openSearchConfigProperties.setSendBufferSize(65536);
+		openSearchConfigProperties.setReceiveBufferSize(131072);
+
+		HttpAsyncClientBuilder httpClientBuilder = HttpAsyncClientBuilder.create();
+		HttpClientCustomizers.keepAlive(openSearchConfigProperties)
+				.andThen(HttpClientCustomizers.ioReactor(openSearchConfigProperties))
+				.customize(httpClientBuilder);
+
+		ConnectionKeepAliveStrategy keepAliveStrategy = (ConnectionKeepAliveStrategy)
+				ReflectionTestUtils.getField(httpClientBuilder, "keepAliveStrategy");
+		assertThat(keepAliveStrategy.getKeepAliveDuration(response("timeout=600"), null),
+				equalTo(30000L));
+		assertThat(keepAliveStrategy.getKeepAliveDuration(response("timeout=5"), null),
+				equalTo(5000L));
+		assertThat(keepAliveStrategy.getKeepAliveDuration(response(null), null),
+				equalTo(30000L));
+
+		assertThat(ReflectionTestUtils.getField(httpClientBuilder, "connTimeToLive"),
+				equalTo(120000L));
+		assertThat(ReflectionTestUtils.getField(httpClientBuilder, "connTimeToLiveTimeUnit"),
+				equalTo(TimeUnit.MILLISECONDS));
+
+		IOReactorConfig ioReactorConfig = (IOReactorConfig) ReflectionTestUtils.getField(
+				httpClientBuilder, "defaultIOReactorConfig");
+		assertThat(ioReactorConfig.getIoThreadCount(), equalTo(3));
+		assertThat(ioReactorConfig.isTcpNoDelay(), is(true));
+		assertThat(ioReactorConfig.isSoKeepalive(), is(true));
+		assertThat(ioReactorConfig.getSndBufSize(), equalTo(65536));
+		assertThat(ioReactorConfig.getRcvBufSize(), equalTo(131072));
+	}
+
+	/**
+	 * 保活时间小于等于0时使用客户端默认的保活策略
+	 */
+	@Test
+	void keepAliveDisabled() {
+		OpenSearchConfigProperties openSearchConfigProperties = new OpenSearchConfigProperties();
+		openSearchConfigProperties.setKeepAlive(0);
+		openSearchConfigProperties.setConnectionTtl(0);
+
+		HttpAsyncClientBuilder httpClientBuilder = HttpAsyncClientBuilder.create();
+		HttpClientCustomizers.keepAlive(openSearchConfigProperties).customize(httpClientBuilder);
+
+		assertThat(ReflectionTestUtils.getField(httpClientBuilder, "keepAliveStrategy"),
+				nullValue());
+		assertThat(ReflectionTestUtils.getField(httpClientBuilder, "connTimeToLive"),
+				equalTo(-1L));
+	}
+
+	private static HttpResponse response(String keepAlive) {
+		HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+		if (keepAlive != null) {
+			response.addHeader("Keep-Alive", keepAlive);
+		}
+		return response;
+	}
+
+	private HttpsServer startServer(String keyStore)
+			throws IOException, GeneralSecurityException, URISyntaxException {
+		char[] password = STORE_PASSWORD.toCharArray();
+		KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(
+				KeyManagerFactory.getDefaultAlgorithm());
+		keyManagerFactory.init(KeyStore.getInstance(new File(resource(keyStore)), password),
+				password);
+		SSLContext sslContext = SSLContext.getInstance("TLS");
+		sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+
+		HttpsServer httpsServer = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		httpsServer.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+		httpsServer.createContext("/", this::handle);
+		httpsServer.setExecutor(serverExecutor);
+		httpsServer.start();
+		return httpsServer;
+	}
+
+	private static OpenSearchConfigProperties https(HttpsServer httpsServer) {
+		OpenSearchConfigProperties openSearchConfigProperties = new OpenSearchConfigProperties();
+		openSearchConfigProperties.setSchema("https");
+		openSearchConfigProperties.setAddress("127.0.0.1:" + httpsServer.getAddress().getPort());
+		openSearchConfigProperties.setConnectTimeout(5000);
+		openSearchConfigProperties.setSocketTimeout(10000);
+		openSearchConfigProperties.setConnectionRequestTimeout(10000);
+		openSearchConfigProperties.setMaxConnectNum(10);
+		openSearchConfigProperties.setMaxConnectPerRoute(MAX_CONNECT_PER_ROUTE);
+		return openSearchConfigProperties;
+	}
+
+	private static SslConfigProperties trustStore(boolean skipHostnameVerification)
+			throws URISyntaxException {
+		SslConfigProperties sslConfigProperties = new SslConfigProperties();
+		sslConfigProperties.setPath(resource("truststore.p12"));
+		sslConfigProperties.setPassword(STORE_PASSWORD);
+		sslConfigProperties.setSkipHostnameVerification(skipHostnameVerification);
+		return sslConfigProperties;
+	}
+
+	private static OpenSearchTransport jdkTransport(
+			OpenSearchConfigProperties openSearchConfigProperties,
+			SslConfigProperties sslConfigProperties) {
+		TransportConfigProperties transportConfigProperties = new TransportConfigProperties();
+		transportConfigProperties.setType("jdk");
+		// 桩服务不支持h2，直接用HTTP/1.1
+		transportConfigProperties.setHttp2(false);
+
+		return new OpenSearchAutoConfiguration().jdkHttpClientTransport(openSearchConfigProperties,
+				sslConfigProperties, transportConfigProperties);
+	}
+
+	private static RestClient restClient(OpenSearchConfigProperties openSearchConfigProperties,
+			SslConfigProperties sslConfigProperties) {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+
+		return new OpenSearchAutoConfiguration().restClient(openSearchConfigProperties,
+				sslConfigProperties, credentialsProvider,
+				beanFactory.getBeanProvider(RestClient.FailureListener.class),
+				beanFactory.getBeanProvider(HttpClientCustomizer.class));
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		if ("HEAD".equals(exchange.getRequestMethod())) {
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+			return;
+		}
+
+		connections.add(exchange.getRemoteAddress().toString());
+		maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+		try {
+			// 请求停留一段时间，让后续请求排队等待连接
+			Thread.sleep(200);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			active.decrementAndGet();
+		}
+
+		byte[] bytes = "{}".getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static String resource(String name) throws URISyntaxException {
+		return new File(HttpClientCustomizersTest.class.getResource("/ssl/" + name).toURI())
+				.getPath();
+	}
+}
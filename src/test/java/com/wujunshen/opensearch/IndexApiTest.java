@@ -1,11 +1,17 @@
 package com.wujunshen.opensearch;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 
 import com.wujunshen.ApplicationTests;
+import com.wujunshen.entity.product.Sku;
+import com.wujunshen.opensearch.api.BulkLoadMode;
+import com.wujunshen.opensearch.api.DocumentApi;
 import com.wujunshen.opensearch.api.IndexApi;
+import com.wujunshen.opensearch.api.IndexRebuilder;
 import com.wujunshen.opensearch.config.OpenSearchConfigProperties;
 import java.io.IOException;
 import java.util.List;
@@ -20,9 +26,11 @@ import org.junit.jupiter.api.TestClassOrder;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.opensearch.client.opensearch.OpenSearchClient;
 import org.opensearch.client.opensearch._types.mapping.TypeMapping;
 import org.opensearch.client.opensearch.cat.indices.IndicesRecord;
 import org.opensearch.client.opensearch.indices.GetIndexResponse;
+import org.opensearch.client.opensearch.indices.IndexSettings;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
@@ -47,6 +55,15 @@ class IndexApiTest {
 	@Autowired
 	private IndexApi indexApi;
 
+	@Autowired
+	private DocumentApi documentApi;
+
+	@Autowired
+	private IndexRebuilder indexRebuilder;
+
+	@Autowired
+	private OpenSearchClient openSearchClient;
+
 	private String indexName;
 
 	@BeforeAll
@@ -176,6 +193,75 @@ class IndexApiTest {
 		assertThat(indicesRecords, notNullValue());
 	}
 
+	/**
+	 * 基于别名重建索引，切换后可以回滚到上一代
+	 */
+	@Order(60)
+	@Test
+	void rebuild() throws IOException {
+		String alias = indexName + "-alias";
+		TypeMapping typeMapping = new TypeMapping.Builder()
+				.properties("id", id -> id.long_(longProperty -> longProperty.index(true)))
+				.properties("skuName", skuName -> skuName.keyword(keyword -> keyword.index(true)))
+				.build();
+
+		List<Sku> skus = List.of(Sku.builder().id(1L).skuName("City bike").build(),
+				Sku.builder().id(2L).skuName("Road bike").build());
+
+		String first = indexRebuilder.rebuild(alias, typeMapping,
+				index -> documentApi.batchAddDocument(index, skus));
+		String second = indexRebuilder.rebuild(alias, typeMapping,
+				index -> documentApi.batchAddDocument(index, skus.subList(0, 1)));
+
+		log.info("generations: {}", indexRebuilder.getGenerations(alias));
+
+		assertThat(indexApi.getAliasIndices(alias), equalTo(List.of(second)));
+		assertThat(documentApi.getAllDocument(alias, Sku.class), hasSize(1));
+
+		assertThat(indexRebuilder.rollback(alias), equalTo(first));
+		assertThat(documentApi.getAllDocument(alias, Sku.class), hasSize(2));
+
+		for (String generation : indexRebuilder.getGenerations(alias)) {
+			indexApi.deleteIndex(generation);
+		}
+	}
+
+	/**
+	 * 批量写入模式下写入，退出时恢复原来的设置
+	 */
+	@Order(65)
+	@Test
+	void bulkLoadMode() throws IOException {
+		String bulkIndexName = indexName + "-bulk-load";
+		openSearchClient.indices().create(c -> c.index(bulkIndexName)
+				.settings(s -> s.numberOfReplicas("0").refreshInterval(t -> t.time("5s"))));
+
+		List<Sku> skus = List.of(Sku.builder().id(1L).skuName("City bike").build(),
+				Sku.builder().id(2L).skuName("Road bike").build());
+
+		try (BulkLoadMode ignored = indexApi.bulkLoadMode(bulkIndexName, true)) {
+			IndexSettings settings = openSearchClient.indices()
+					.getSettings(g -> g.index(bulkIndexName).flatSettings(true)).get(bulkIndexName)
+					.settings();
+			assertThat(settings.refreshInterval().time(), equalTo("-1"));
+
+			assertThat(documentApi.batchAddDocument(bulkIndexName, skus).isSuccess(), is(true));
+		}
+
+		IndexSettings settings = openSearchClient.indices()
+				.getSettings(g -> g.index(bulkIndexName).flatSettings(true)).get(bulkIndexName)
+				.settings();
+
+		log.info("restored settings: {}", settings);
+
+		assertThat(settings.refreshInterval().time(), equalTo("5s"));
+		assertThat(settings.translogDurability(), equalTo("request"));
+		assertThat(openSearchClient.count(c -> c.index(bulkIndexName)).count(),
+				equalTo((long) skus.size()));
+
+		indexApi.deleteIndex(bulkIndexName);
+	}
+
 	/**
 	 * 删除index
 	 */
@@ -0,0 +1,85 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.wujunshen.opensearch.cache.MappingCache;
+import com.wujunshen.opensearch.config.CacheConfigProperties;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.opensearch._types.mapping.TypeMapping;
+
+/**
+ * 索引mapping缓存测试，不需要连接集群
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 19:00<br>
+ */
+class MappingCacheTest {
+
+	private MappingCache mappingCache;
+
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void setUp() {
+		CacheConfigProperties cacheConfigProperties = new CacheConfigProperties();
+		cacheConfigProperties.setMappingTtl(60000);
+
+		mappingCache = new MappingCache(cacheConfigProperties);
+		loads = new AtomicInteger();
+	}
+
+	@Test
+	void getAndInvalidate() throws IOException {
+		TypeMapping first = mappingCache.get("products", () -> load("skuName"));
+		TypeMapping second = mappingCache.get("products", () -> load("skuName"));
+
+		assertThat(second, sameInstance(first));
+		assertThat(loads.get(), equalTo(1));
+
+		mappingCache.invalidate("products");
+		mappingCache.get("products", () -> load("skuName"));
+
+		assertThat(loads.get(), equalTo(2));
+	}
+
+	@Test
+	void getAll() throws IOException {
+		mappingCache.getAll(() -> Map.of("products", load("skuName"), "orders", load("orderNo")));
+		Map<String, TypeMapping> mappings = mappingCache.getAll(Map::of);
+
+		assertThat(mappings.keySet(), equalTo(Map.of("products", 1, "orders", 1).keySet()));
+
+		// 读取全部mapping后单个索引直接命中
+		mappingCache.get("orders", () -> load("orderNo"));
+		assertThat(loads.get(), equalTo(2));
+
+		// 有索引被删除或创建后重新读取全部mapping
+		mappingCache.invalidate("orders");
+		assertThat(mappingCache.getAll(Map::of).isEmpty(), equalTo(true));
+	}
+
+	@Test
+	void aliasIsNotReportedAsIndex() throws IOException {
+		mappingCache.get("products-alias", () -> load("skuName"));
+		mappingCache.getAll(() -> Map.of("products-20261019", load("skuName")));
+
+		// 按别名缓存的条目不会出现在全部mapping里
+		Map<String, TypeMapping> mappings = mappingCache.getAll(Map::of);
+		assertThat(mappings.keySet(), equalTo(Map.of("products-20261019", 1).keySet()));
+
+		mappingCache.get("products-alias", () -> load("skuName"));
+		assertThat(loads.get(), equalTo(2));
+	}
+
+	private TypeMapping load(String field) {
+		loads.incrementAndGet();
+		return TypeMapping.of(m -> m.properties(field, p -> p.keyword(k -> k)));
+	}
+}
@@ -0,0 +1,228 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.wujunshen.opensearch.api.DocumentApi;
+import com.wujunshen.opensearch.batch.MgetBatcher;
+import com.wujunshen.opensearch.bulk.BulkExecutor;
+import com.wujunshen.opensearch.cache.QueryCache;
+import com.wujunshen.opensearch.config.BatchConfigProperties;
+import com.wujunshen.opensearch.config.BulkConfigProperties;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.http.HttpHost;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch.core.GetResponse;
+import org.opensearch.client.transport.rest_client.RestClientTransport;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+/**
+ * get请求合并测试，用本地桩服务模拟mget，不需要连接集群。
+ * 桩服务按文档id返回：missing开头的未找到，broken开头的返回错误，其它的返回文档；
+ * 索引down整个请求返回500
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/19 10:30<br>
+ */
+class MgetBatcherTest {
+
+	private static final int CALLERS = 10;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private HttpServer server;
+
+	private RestClient restClient;
+
+	private OpenSearchClient openSearchClient;
+
+	private MgetBatcher mgetBatcher;
+
+	private ExecutorService callers;
+
+	/**
+	 * 桩服务收到的请求路径
+	 */
+	private final List<String> paths = new CopyOnWriteArrayList<>();
+
+	/**
+	 * 每个mget请求里的文档id
+	 */
+	private final List<List<String>> mgets = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+
+		restClient = RestClient.builder(
+				new HttpHost("127.0.0.1", server.getAddress().getPort(), "http")).build();
+		openSearchClient = new OpenSearchClient(
+				new RestClientTransport(restClient, new JacksonJsonpMapper()));
+
+		BatchConfigProperties batchConfigProperties = new BatchConfigProperties();
+		// 窗口足够长，保证并发的调用都落在同一个窗口里
+		batchConfigProperties.setWindow(300);
+		mgetBatcher = new MgetBatcher(openSearchClient, batchConfigProperties);
+		callers = Executors.newFixedThreadPool(CALLERS);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		callers.shutdownNow();
+		mgetBatcher.close();
+		restClient.close();
+		server.stop(0);
+	}
+
+	@Test
+	void concurrentGetsAreMergedIntoOneMget() throws Exception {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			ids.add("doc-" + i);
+		}
+
+		List<CompletableFuture<GetResponse<Doc>>> results = getConcurrently(ids);
+
+		for (int i = 0; i < CALLERS; i++) {
+			GetResponse<Doc> response = results.get(i).get();
+			assertThat(response.found(), is(true));
+			assertThat(response.id(), equalTo(ids.get(i)));
+			assertThat(response.source().name(), equalTo(ids.get(i)));
+		}
+		assertThat(mgets.size(), equalTo(1));
+		assertThat(mgets.get(0), containsInAnyOrder(ids.toArray()));
+	}
+
+	@Test
+	void notFoundAndErrorsGoToTheirOwnCaller() throws Exception {
+		List<CompletableFuture<GetResponse<Doc>>> results = getConcurrently(
+				List.of("doc-1", "missing-1", "broken-1"));
+
+		assertThat(results.get(0).get().found(), is(true));
+		assertThat(results.get(1).get().found(), is(false));
+		Exception failure = assertThrows(Exception.class, () -> results.get(2).get());
+		assertThat(failure.getCause().getMessage(), containsString("broken-1"));
+
+		assertThat(mgets.size(), equalTo(1));
+	}
+
+	@Test
+	void requestFailureGoesToEveryCaller() {
+		IOException failure = assertThrows(IOException.class,
+				() -> mgetBatcher.getDocument("down", "doc-1", Doc.class));
+		assertThat(failure.getMessage(), containsString("500"));
+	}
+
+	@Test
+	void documentApiRoutesThroughBatcher() throws IOException {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+				Map.of("mgetBatcher", mgetBatcher));
+		DocumentApi documentApi = new DocumentApi(openSearchClient, new BulkConfigProperties(),
+				new BulkExecutor(openSearchClient, new BulkConfigProperties()),
+				beanFactory.getBeanProvider(QueryCache.class),
+				beanFactory.getBeanProvider(MgetBatcher.class));
+
+		GetResponse<Doc> response = documentApi.getDocument("products", "doc-1", Doc.class);
+
+		assertThat(response.source().name(), equalTo("doc-1"));
+		assertThat(paths, equalTo(List.of("/products/_mget")));
+	}
+
+	private List<CompletableFuture<GetResponse<Doc>>> getConcurrently(List<String> ids) {
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<GetResponse<Doc>>> results = new ArrayList<>();
+		for (String id : ids) {
+			results.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					start.await();
+					return mgetBatcher.getDocumentAsync("products", id, Doc.class).join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException(e);
+				}
+			}, callers));
+		}
+		start.countDown();
+		return results;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		paths.add(path);
+		JsonNode request = OBJECT_MAPPER.readTree(exchange.getRequestBody().readAllBytes());
+
+		if (path.startsWith("/down/")) {
+			respond(exchange, 500, "{\"error\":{\"type\":\"exception\",\"reason\":\"down\"},"
+					+ "\"status\":500}");
+			return;
+		}
+
+		List<String> ids = new ArrayList<>();
+		List<String> docs = new ArrayList<>();
+		for (JsonNode id : request.get("ids")) {
+			ids.add(id.asText());
+			docs.add(doc(id.asText()));
+		}
+		mgets.add(ids);
+
+		respond(exchange, 200, "{\"docs\":[" + String.join(",", docs) + "]}");
+	}
+
+	private static String doc(String id) {
+		if (id.startsWith("missing")) {
+			return "{\"_index\":\"products\",\"_id\":\"" + id + "\",\"found\":false}";
+		}
+		if (id.startsWith("broken")) {
+			return "{\"_index\":\"products\",\"_id\":\"" + id
+					+ "\",\"error\":{\"type\":\"exception\",\"reason\":\"shard failed\"}}";
+		}
+		return "{\"_index\":\"products\",\"_id\":\"" + id + "\",\"_version\":1,\"found\":true,"
+				+ "\"_source\":{\"name\":\"" + id + "\"}}";
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body)
+			throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * 测试用的文档
+	 *
+	 * @param name 名称
+	 */
+	record Doc(String name) {
+	}
+}
@@ -0,0 +1,240 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.wujunshen.opensearch.api.MultiSearchResult;
+import com.wujunshen.opensearch.api.QueryApi;
+import com.wujunshen.opensearch.api.SearchSpec;
+import com.wujunshen.opensearch.batch.MsearchBatcher;
+import com.wujunshen.opensearch.cache.QueryCache;
+import com.wujunshen.opensearch.cache.SearchCoalescer;
+import com.wujunshen.opensearch.config.BatchConfigProperties;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.http.HttpHost;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.transport.rest_client.RestClientTransport;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+/**
+ * 查询请求合并测试，用本地桩服务模拟_msearch，不需要连接集群。
+ * 桩服务按每个查询的索引返回：broken开头的索引返回该查询的错误，其它索引返回一条_source.name为索引名的文档；
+ * 请求中包含索引down时整个请求返回500
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/20 10:15<br>
+ */
+class MsearchBatcherTest {
+
+	private static final int CALLERS = 10;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private HttpServer server;
+
+	private RestClient restClient;
+
+	private MsearchBatcher msearchBatcher;
+
+	private ExecutorService callers;
+
+	/**
+	 * 每个msearch请求里的索引名
+	 */
+	private final List<List<String>> msearches = new CopyOnWriteArrayList<>();
+
+	/**
+	 * 执行msearch的线程名
+	 */
+	private final List<String> threads = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+
+		restClient = RestClient.builder(
+				new HttpHost("127.0.0.1", server.getAddress().getPort(), "http")).build();
+		OpenSearchClient openSearchClient = new OpenSearchClient(
+				new RestClientTransport(restClient, new JacksonJsonpMapper()));
+
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		QueryApi queryApi = new QueryApi(openSearchClient,
+				beanFactory.getBeanProvider(QueryCache.class),
+				beanFactory.getBeanProvider(SearchCoalescer.class)) {
+			@Override
+			public MultiSearchResult msearch(List<? extends SearchSpec<?>> specs)
+					throws IOException {
+				threads.add(Thread.currentThread().getName());
+				return super.msearch(specs);
+			}
+		};
+
+		BatchConfigProperties batchConfigProperties = new BatchConfigProperties();
+		// 窗口足够长，保证并发的调用都落在同一个窗口里
+		batchConfigProperties.setWindow(300);
+		msearchBatcher = new MsearchBatcher(queryApi, batchConfigProperties);
+		callers = Executors.newFixedThreadPool(CALLERS);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		callers.shutdownNow();
+		msearchBatcher.close();
+		restClient.close();
+		server.stop(0);
+	}
+
+	@Test
+	void concurrentSearchesAreMergedIntoOneMsearch() throws Exception {
+		List<String> indexNames = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			indexNames.add("index-" + i);
+		}
+
+		List<CompletableFuture<SearchResponse<Doc>>> results = searchConcurrently(indexNames);
+
+		for (int i = 0; i < CALLERS; i++) {
+			SearchResponse<Doc> response = results.get(i).get();
+			assertThat(response.hits().hits().get(0).index(), equalTo(indexNames.get(i)));
+			assertThat(response.hits().hits().get(0).source().name(), equalTo(indexNames.get(i)));
+		}
+		assertThat(msearches.size(), equalTo(1));
+		assertThat(msearches.get(0), containsInAnyOrder(indexNames.toArray()));
+
+		// msearch在执行线程池里发送，不占用合并窗口的计时线程
+		assertThat(threads, everyItem(startsWith("opensearch-msearch-batcher-")));
+	}
+
+	@Test
+	void errorsGoToTheirOwnCaller() throws Exception {
+		List<CompletableFuture<SearchResponse<Doc>>> results = searchConcurrently(
+				List.of("index-1", "broken-1", "index-2"));
+
+		assertThat(results.get(0).get().hits().hits().get(0).source().name(),
+				equalTo("index-1"));
+		Exception failure = assertThrows(Exception.class, () -> results.get(1).get());
+		assertThat(failure.getCause().getMessage(), containsString("broken-1"));
+		assertThat(results.get(2).get().hits().hits().get(0).source().name(),
+				equalTo("index-2"));
+
+		assertThat(msearches.size(), equalTo(1));
+	}
+
+	@Test
+	void requestFailureGoesToEveryCaller() {
+		List<CompletableFuture<SearchResponse<Doc>>> results = searchConcurrently(
+				List.of("index-1", "down"));
+
+		for (CompletableFuture<SearchResponse<Doc>> result : results) {
+			Exception failure = assertThrows(Exception.class, result::get);
+			assertThat(failure.getCause().getMessage(), containsString("500"));
+		}
+		assertThat(msearches.size(), equalTo(1));
+	}
+
+	private List<CompletableFuture<SearchResponse<Doc>>> searchConcurrently(
+			List<String> indexNames) {
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<SearchResponse<Doc>>> results = new ArrayList<>();
+		for (String indexName : indexNames) {
+			SearchRequest request = SearchRequest.of(s -> s.index(indexName)
+					.query(q -> q.matchAll(m -> m)));
+			results.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					start.await();
+					return msearchBatcher.search(request, Doc.class);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException(e);
+				} catch (IOException e) {
+					throw new IllegalStateException(e.getMessage(), e);
+				}
+			}, callers));
+		}
+		start.countDown();
+		return results;
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String[] lines = new String(exchange.getRequestBody().readAllBytes(),
+				StandardCharsets.UTF_8).split("\n");
+
+		// header和body两行一个查询，只看header里的索引名
+		List<String> indexNames = new ArrayList<>();
+		for (int i = 0; i < lines.length; i += 2) {
+			indexNames.add(OBJECT_MAPPER.readTree(lines[i]).get("index").get(0).asText());
+		}
+		msearches.add(indexNames);
+
+		if (indexNames.contains("down")) {
+			respond(exchange, 500, "{\"error\":{\"type\":\"exception\",\"reason\":\"down\"},"
+					+ "\"status\":500}");
+			return;
+		}
+
+		List<String> responses = new ArrayList<>();
+		for (String indexName : indexNames) {
+			responses.add(response(indexName));
+		}
+		respond(exchange, 200, "{\"took\":1,\"responses\":[" + String.join(",", responses) + "]}");
+	}
+
+	private static String response(String indexName) {
+		if (indexName.startsWith("broken")) {
+			return "{\"error\":{\"type\":\"index_not_found_exception\",\"reason\":\"no such index ["
+					+ indexName + "]\"},\"status\":404}";
+		}
+		return "{\"took\":1,\"timed_out\":false,"
+				+ "\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},"
+				+ "\"hits\":{\"total\":{\"value\":1,\"relation\":\"eq\"},\"max_score\":1.0,"
+				+ "\"hits\":[{\"_index\":\"" + indexName + "\",\"_id\":\"1\",\"_score\":1.0,"
+				+ "\"_source\":{\"name\":\"" + indexName + "\"}}]},\"status\":200}";
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body)
+			throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * 测试用的文档
+	 *
+	 * @param name 名称
+	 */
+	record Doc(String name) {
+	}
+}
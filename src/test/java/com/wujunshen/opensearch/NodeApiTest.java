@@ -1,12 +1,15 @@
 package com.wujunshen.opensearch;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 
 import com.wujunshen.ApplicationTests;
 import com.wujunshen.opensearch.api.NodeApi;
+import com.wujunshen.opensearch.config.SnifferConfigProperties;
+import com.wujunshen.opensearch.sniff.NodeSniffer;
 import java.io.IOException;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +23,8 @@ import org.junit.jupiter.api.TestClassOrder;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.opensearch.client.Node;
+import org.opensearch.client.RestClient;
 import org.opensearch.client.opensearch.cat.nodes.NodesRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -42,6 +47,9 @@ class NodeApiTest {
 	@Autowired
 	private NodeApi nodeApi;
 
+	@Autowired
+	private RestClient restClient;
+
 	@BeforeAll
 	void setUp() {
 	}
@@ -65,4 +73,25 @@ class NodeApiTest {
 		assertThat(nodesRecords, notNullValue());
 		assertThat(nodesRecords, hasSize(equalTo(4)));
 	}
+
+	/**
+	 * 嗅探节点，替换RestClient的节点后再恢复，不影响其它测试
+	 */
+	@Order(10)
+	@Test
+	void sniff() throws IOException {
+		List<Node> original = restClient.getNodes();
+
+		try (NodeSniffer nodeSniffer = new NodeSniffer(restClient, nodeApi,
+				new SnifferConfigProperties())) {
+			List<Node> nodes = nodeSniffer.sniff();
+
+			log.info("sniffed nodes: {}", nodes);
+
+			assertThat(nodes.isEmpty(), is(false));
+			assertThat(restClient.getNodes(), equalTo(nodes));
+		} finally {
+			restClient.setNodes(original);
+		}
+	}
 }
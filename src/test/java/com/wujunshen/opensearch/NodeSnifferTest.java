@@ -0,0 +1,77 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import com.wujunshen.opensearch.api.NodeApi;
+import com.wujunshen.opensearch.config.SnifferConfigProperties;
+import com.wujunshen.opensearch.sniff.NodeSniffer;
+import java.io.IOException;
+import java.util.List;
+import org.apache.http.HttpHost;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.Node;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.opensearch.cat.nodes.NodesRecord;
+
+/**
+ * 节点嗅探的http地址解析测试，用固定的cat nodes结果代替集群，不需要连接集群
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/27 15:20<br>
+ */
+class NodeSnifferTest {
+
+	private RestClient restClient;
+
+	@BeforeEach
+	void setUp() {
+		// 只用来保存节点列表，不会发出请求
+		restClient = RestClient.builder(new HttpHost("127.0.0.1", 9200, "http")).build();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		restClient.close();
+	}
+
+	@Test
+	void httpAddressFormats() throws IOException {
+		NodeApi nodeApi = nodeApi(
+				node("10.0.0.1", "node-1/10.0.0.1:9201"),
+				node("10.0.0.2", "10.0.0.2:9202"),
+				// 没有端口时用初始地址的端口
+				node("10.0.0.3", "10.0.0.3"),
+				node("::1", "[::1]:9204"),
+				node("::2", "node-5/[::2]:9205"),
+				node("::3", "::3"),
+				// 没有http地址时用ip
+				node("10.0.0.7", null));
+
+		try (NodeSniffer nodeSniffer = new NodeSniffer(restClient, nodeApi,
+				new SnifferConfigProperties())) {
+			List<Node> nodes = nodeSniffer.sniff();
+
+			assertThat(nodes.stream().map(node -> node.getHost().toURI()).toList(), contains(
+					"http://10.0.0.1:9201", "http://10.0.0.2:9202", "http://10.0.0.3:9200",
+					"http://[::1]:9204", "http://[::2]:9205", "http://[::3]:9200",
+					"http://10.0.0.7:9200"));
+		}
+	}
+
+	private static NodesRecord node(String ip, String httpAddress) {
+		return NodesRecord.of(n -> n.ip(ip).httpAddress(httpAddress).name(ip).nodeRole("dimr"));
+	}
+
+	private static NodeApi nodeApi(NodesRecord... nodesRecords) {
+		return new NodeApi(null) {
+			@Override
+			public List<NodesRecord> getAllNodes() {
+				return List.of(nodesRecords);
+			}
+		};
+	}
+}
@@ -1,17 +1,30 @@
 package com.wujunshen.opensearch;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 
 import com.wujunshen.ApplicationTests;
 import com.wujunshen.entity.product.Sku;
+import com.wujunshen.opensearch.api.AsyncQueryApi;
 import com.wujunshen.opensearch.api.DocumentApi;
 import com.wujunshen.opensearch.api.IndexApi;
+import com.wujunshen.opensearch.api.MultiSearchResult;
+import com.wujunshen.opensearch.api.Projection;
 import com.wujunshen.opensearch.api.QueryApi;
+import com.wujunshen.opensearch.api.SearchPage;
+import com.wujunshen.opensearch.api.SearchSpec;
 import com.wujunshen.opensearch.config.OpenSearchConfigProperties;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -23,8 +36,10 @@ import org.junit.jupiter.api.TestClassOrder;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.junit.jupiter.api.TestMethodOrder;
+import org.opensearch.client.opensearch._types.aggregations.CompositeBucket;
 import org.opensearch.client.opensearch._types.aggregations.HistogramBucket;
 import org.opensearch.client.opensearch._types.mapping.TypeMapping;
+import org.opensearch.client.opensearch._types.query_dsl.Query;
 import org.opensearch.client.opensearch.core.GetResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -56,6 +71,9 @@ class QueryApiTest {
 	@Autowired
 	private IndexApi indexApi;
 
+	@Autowired
+	private AsyncQueryApi asyncQueryApi;
+
 	private Sku sku;
 
 	private List<Sku> skuList;
@@ -130,6 +148,131 @@ class QueryApiTest {
 		assertThat(response, notNullValue());
 	}
 
+	/**
+	 * 指定id列表批量检索数据
+	 */
+	@Order(75)
+	@Test
+	void searchByIds() throws IOException {
+		List<Sku> skus = queryApi.searchByIds(indexName,
+				List.of(String.valueOf(sku.getId()), "not-existed-id"), Sku.class);
+
+		log.info("skus: {}", skus);
+
+		assertThat(skus, hasSize(2));
+		assertThat(skus.get(0).getId(), equalTo(sku.getId()));
+		assertThat(skus.get(1), nullValue());
+	}
+
+	/**
+	 * 异步检索，和同步版本发送的请求相同
+	 */
+	@Order(80)
+	@Test
+	void matchQueryAsync() throws Exception {
+		CompletableFuture<List<Sku>> future = asyncQueryApi.matchQuery(indexName, "bike", "skuName",
+				"skuPrice", 0, 10, true, Sku.class);
+
+		List<Sku> skus = future.get(10, TimeUnit.SECONDS);
+
+		log.info("skus: {}", skus);
+
+		assertThat(skus, equalTo(queryApi.matchQuery(indexName, "bike", "skuName", "skuPrice", 0, 10,
+				true, Sku.class)));
+	}
+
+	/**
+	 * search_after游标分页，逐页取完所有文档
+	 */
+	@Order(85)
+	@Test
+	void searchAfter() throws IOException {
+		Query query = Query.of(q -> q.matchAll(m -> m));
+
+		Set<Long> ids = new HashSet<>();
+		int pages = 0;
+		String cursor = null;
+		do {
+			SearchPage<Sku> page = queryApi.searchAfter(indexName, query, "skuPrice", true, "id", 30,
+					cursor, Sku.class);
+			page.getDocuments().forEach(document -> ids.add(document.getId()));
+			cursor = page.getCursor();
+			pages++;
+		} while (cursor != null);
+
+		log.info("pages: {}, documents: {}", pages, ids.size());
+
+		// id为1的文档被写入了两次，所以一共100个文档
+		assertThat(ids, hasSize(100));
+		assertThat(pages, equalTo(4));
+	}
+
+	/**
+	 * 一次msearch请求取回文档、聚合和高亮
+	 */
+	@Order(90)
+	@Test
+	void msearch() throws IOException {
+		Query query = Query.of(q -> q.match(m -> m.field("skuName").query(v -> v.stringValue("bike"))));
+
+		SearchSpec<Sku> main = SearchSpec.page(indexName, query, "skuPrice", 0, 10, true, Sku.class);
+		SearchSpec<Void> facets = SearchSpec.histogram(indexName, "bike", "skuName", "skuPrice",
+				"price-histogram", 50.0);
+		SearchSpec<Sku> highlights = SearchSpec.highlight(indexName, query, "skuName", "<em>",
+				"</em>", "skuPrice", 0, 5, true, Sku.class);
+
+		MultiSearchResult result = queryApi.msearch(List.of(main, facets, highlights));
+
+		assertThat(result.getSources(main), hasSize(10));
+		assertThat(result.get(facets).aggregations().get("price-histogram").histogram().buckets()
+				.array(), notNullValue());
+		assertThat(result.get(highlights).hits().hits().get(0).highlight().get("skuName"),
+				notNullValue());
+	}
+
+	/**
+	 * 字段投影，只返回需要的字段
+	 */
+	@Order(95)
+	@Test
+	void projection() throws IOException {
+		List<Sku> skus = queryApi.withProjection(Projection.includes("id", "skuName"))
+				.matchQuery(indexName, "bike", "skuName", "id", 0, 10, true, Sku.class);
+
+		log.info("skus: {}", skus);
+
+		assertThat(skus, hasSize(10));
+		assertThat(skus.get(0).getSkuName(), notNullValue());
+		assertThat(skus.stream().allMatch(s -> s.getSkuPrice() == 0), equalTo(true));
+
+		// 不取_source，只从doc_values读取
+		skus = queryApi.withProjection(Projection.docvalueFields("id", "skuPrice"))
+				.matchQuery(indexName, "bike", "skuName", "id", 0, 10, true, Sku.class);
+
+		assertThat(skus, hasSize(10));
+		assertThat(skus.get(0).getId(), notNullValue());
+		assertThat(skus.get(0).getSkuName(), nullValue());
+	}
+
+	/**
+	 * composite聚合按after_key分页遍历所有价格分组
+	 */
+	@Order(100)
+	@Test
+	void streamCompositeBuckets() {
+		List<CompositeBucket> buckets;
+		try (Stream<CompositeBucket> stream = queryApi.streamCompositeBuckets(indexName,
+				List.of("skuPrice"), 7)) {
+			buckets = stream.toList();
+		}
+
+		log.info("buckets: {}", buckets.size());
+
+		assertThat(buckets.stream().mapToLong(CompositeBucket::docCount).sum(), equalTo(100L));
+		assertThat(buckets.stream().map(b -> b.key().get("skuPrice").to(Long.class)).distinct()
+				.count(), equalTo((long) buckets.size()));
+	}
+
 	private List<Sku> bulkWriteProducts() {
 		List<Sku> result = new ArrayList<>();
 
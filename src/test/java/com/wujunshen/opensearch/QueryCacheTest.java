@@ -0,0 +1,237 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.wujunshen.entity.product.Sku;
+import com.wujunshen.opensearch.cache.CacheStats;
+import com.wujunshen.opensearch.cache.QueryCache;
+import com.wujunshen.opensearch.cache.SearchCoalescer;
+import com.wujunshen.opensearch.config.CacheConfigProperties;
+import jakarta.json.stream.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.core.search.TotalHitsRelation;
+
+/**
+ * 查询结果缓存和相同查询合并测试，不需要连接集群
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/17 16:40<br>
+ */
+@Slf4j
+class QueryCacheTest {
+
+	private QueryCache queryCache;
+
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void setUp() {
+		CacheConfigProperties cacheConfigProperties = new CacheConfigProperties();
+		cacheConfigProperties.setTtl(60000);
+		// 放得下一个6条文档的响应，放不下两个
+		cacheConfigProperties.setMaxWeight(weight(6) * 3 / 2);
+
+		queryCache = new QueryCache(new JacksonJsonpMapper(), cacheConfigProperties);
+		loads = new AtomicInteger();
+	}
+
+	@Test
+	void hitAndInvalidate() throws IOException {
+		SearchResponse<Sku> first = search("products", "bike", 2);
+		SearchResponse<Sku> second = search("products", "bike", 2);
+
+		assertThat(loads.get(), equalTo(1));
+		assertThat(second.hits().hits().size(), equalTo(2));
+		assertThat(second.hits().hits().get(1).source(),
+				equalTo(first.hits().hits().get(1).source()));
+		assertThat(second.hits().total().value(), equalTo(2L));
+
+		// 每次命中都是新的对象，修改返回结果不影响缓存
+		assertThat(second.hits().hits().get(0).source(),
+				not(sameInstance(first.hits().hits().get(0).source())));
+		second.hits().hits().get(0).source().setSkuName("changed");
+		assertThat(search("products", "bike", 2).hits().hits().get(0).source().getSkuName(),
+				equalTo("City bike 0"));
+
+		// 其它索引的写入不影响缓存
+		queryCache.invalidate("orders");
+		search("products", "bike", 2);
+		assertThat(loads.get(), equalTo(1));
+
+		queryCache.invalidate("products");
+		search("products", "bike", 2);
+		assertThat(loads.get(), equalTo(2));
+
+		CacheStats stats = queryCache.getStats();
+		log.info("stats: {}", stats);
+
+		assertThat(stats.getHits(), equalTo(3L));
+		assertThat(stats.getMisses(), equalTo(2L));
+	}
+
+	@Test
+	void evictByWeight() throws IOException {
+		search("products", "bike", 6);
+		search("products", "car", 6);
+
+		CacheStats stats = queryCache.getStats();
+		log.info("stats: {}", stats);
+
+		assertThat(stats.getEvictions(), equalTo(1L));
+		assertThat(stats.getSize(), equalTo(1));
+		assertThat(stats.getWeight(), equalTo(weight(6)));
+
+		// 最久未访问的bike查询已被淘汰
+		search("products", "bike", 6);
+		assertThat(loads.get(), equalTo(3));
+	}
+
+	@Test
+	void wildcardInvalidate() throws IOException {
+		search("prod*", "bike", 1);
+
+		queryCache.invalidate("products");
+		search("prod*", "bike", 1);
+
+		assertThat(loads.get(), equalTo(2));
+	}
+
+	@Test
+	void commaSeparatedInvalidate() throws IOException {
+		search("orders,products", "bike", 1);
+
+		queryCache.invalidate("products");
+		search("orders,products", "bike", 1);
+
+		assertThat(loads.get(), equalTo(2));
+	}
+
+	/**
+	 * 缓存不知道别名指向哪些索引，别名查询的条目在写入别名指向的索引或者任何其它索引时都会被清掉
+	 */
+	@Test
+	void aliasInvalidate() throws IOException {
+		search("sku", "bike", 1, "products-v2");
+		queryCache.invalidate("products-v2");
+		search("sku", "bike", 1, "products-v2");
+		assertThat(loads.get(), equalTo(2));
+
+		// 结果为空时也无法知道别名指向哪个索引
+		search("sku", "car", 0, "products-v2");
+		queryCache.invalidate("orders");
+		search("sku", "car", 0, "products-v2");
+		assertThat(loads.get(), equalTo(4));
+
+		// 具体索引的条目不受其它索引写入的影响
+		search("products", "bike", 1);
+		queryCache.invalidate("orders");
+		search("products", "bike", 1);
+		assertThat(loads.get(), equalTo(5));
+	}
+
+	/**
+	 * 同时在途的相同查询只发送一次
+	 */
+	@Test
+	void coalesce() throws Exception {
+		SearchCoalescer searchCoalescer = new SearchCoalescer(new JacksonJsonpMapper());
+		SearchRequest request = SearchRequest.of(s -> s.index("products")
+				.query(q -> q.match(m -> m.field("skuName").query(v -> v.stringValue("bike")))));
+
+		int threads = 8;
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<SearchResponse<Sku>>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> searchCoalescer.search(request, Sku.class, () -> {
+					loads.incrementAndGet();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException();
+					}
+					return response(1);
+				})));
+			}
+
+			// 等所有线程都进入查询后再让第一个请求返回
+			while (searchCoalescer.getCoalesced() < threads - 1) {
+				Thread.sleep(10);
+			}
+			release.countDown();
+
+			SearchResponse<Sku> first = futures.get(0).get();
+			for (Future<SearchResponse<Sku>> future : futures) {
+				assertThat(future.get(), sameInstance(first));
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(loads.get(), equalTo(1));
+		assertThat(searchCoalescer.getCalls(), equalTo(1L));
+	}
+
+	private SearchResponse<Sku> search(String indexName, String searchText, int hits)
+			throws IOException {
+		return search(indexName, searchText, hits, "products");
+	}
+
+	private SearchResponse<Sku> search(String indexName, String searchText, int hits,
+			String hitIndex) throws IOException {
+		SearchRequest request = SearchRequest.of(s -> s.index(indexName)
+				.query(q -> q.match(m -> m.field("skuName").query(v -> v.stringValue(searchText)))));
+
+		return queryCache.get(request, Sku.class, () -> {
+			loads.incrementAndGet();
+			return response(hits, hitIndex);
+		});
+	}
+
+	private static long weight(int hits) {
+		JacksonJsonpMapper jsonpMapper = new JacksonJsonpMapper();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (JsonGenerator generator = jsonpMapper.jsonProvider().createGenerator(out)) {
+			response(hits, "products").serialize(generator, jsonpMapper);
+		}
+		return out.size();
+	}
+
+	private static SearchResponse<Sku> response(int size) {
+		return response(size, "products");
+	}
+
+	private static SearchResponse<Sku> response(int size, String hitIndex) {
+		List<Hit<Sku>> hits = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			Sku sku = Sku.builder().id((long) i).skuName("City bike " + i).skuPrice(i).build();
+			hits.add(Hit.of(h -> h.index(hitIndex).id(String.valueOf(sku.getId())).source(sku)));
+		}
+
+		return SearchResponse.searchResponseOf(r -> r.took(1).timedOut(false)
+				.shards(s -> s.total(1).successful(1).failed(0))
+				.hits(h -> h.total(t -> t.value(size).relation(TotalHitsRelation.Eq)).hits(hits)));
+	}
+}
@@ -0,0 +1,120 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.wujunshen.opensearch.batch.RefreshCoalescer;
+import com.wujunshen.opensearch.config.BatchConfigProperties;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * refresh合并测试，不需要连接集群
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 19:30<br>
+ */
+class RefreshCoalescerTest {
+
+	private static final int CALLERS = 50;
+
+	private RefreshCoalescer refreshCoalescer;
+
+	private ExecutorService executor;
+
+	private AtomicInteger refreshes;
+
+	@BeforeEach
+	void setUp() {
+		BatchConfigProperties batchConfigProperties = new BatchConfigProperties();
+		batchConfigProperties.setRefreshInterval(200);
+
+		refreshCoalescer = new RefreshCoalescer(batchConfigProperties);
+		executor = Executors.newFixedThreadPool(CALLERS);
+		refreshes = new AtomicInteger();
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentRefreshesAreCoalesced() throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<Boolean>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					start.await();
+					return refreshCoalescer.refresh("products", this::refresh);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}, executor));
+		}
+		start.countDown();
+
+		for (CompletableFuture<Boolean> result : results) {
+			assertThat(result.get(), is(true));
+		}
+
+		// 第一次refresh开始后到达的调用方最多再合并成一次
+		assertThat(refreshes.get(), lessThanOrEqualTo(2));
+		assertThat(refreshCoalescer.getRefreshes() + refreshCoalescer.getCoalesced(),
+				equalTo((long) CALLERS));
+	}
+
+	@Test
+	void refreshesAreSpacedByInterval() throws IOException {
+		long start = System.nanoTime();
+		refreshCoalescer.refresh("products", this::refresh);
+		refreshCoalescer.refresh("products", this::refresh);
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		assertThat(refreshes.get(), equalTo(2));
+		assertThat(elapsedMillis >= 200, is(true));
+
+		// 不同索引互不影响
+		refreshCoalescer.refresh("orders", this::refresh);
+		assertThat(refreshes.get(), equalTo(3));
+	}
+
+	@Test
+	void stateIsClearedAfterFailure() throws IOException {
+		IOException failure = new IOException("refresh failed");
+
+		IOException thrown = assertThrows(IOException.class,
+				() -> refreshCoalescer.refresh("products", () -> {
+					throw failure;
+				}));
+		assertThat(thrown, is(failure));
+
+		// 失败后状态已经清理，下一次refresh可以正常执行
+		assertThat(refreshCoalescer.refresh("products", this::refresh), is(true));
+	}
+
+	private boolean refresh() throws IOException {
+		refreshes.incrementAndGet();
+		try {
+			Thread.sleep(50);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+		return true;
+	}
+}
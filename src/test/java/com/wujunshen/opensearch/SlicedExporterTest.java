@@ -0,0 +1,169 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.wujunshen.ApplicationTests;
+import com.wujunshen.entity.product.Sku;
+import com.wujunshen.opensearch.api.DocumentApi;
+import com.wujunshen.opensearch.api.IndexApi;
+import com.wujunshen.opensearch.config.OpenSearchConfigProperties;
+import com.wujunshen.opensearch.export.CheckpointStore;
+import com.wujunshen.opensearch.export.ExportProgress;
+import com.wujunshen.opensearch.export.ExportRequest;
+import com.wujunshen.opensearch.export.SlicedExporter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestClassOrder;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.opensearch.client.opensearch._types.mapping.TypeMapping;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/27 16:00<br>
+ */
+@Slf4j
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ActiveProfiles(value = "local")
+@TestInstance(Lifecycle.PER_CLASS)
+@SpringBootTest(classes = {ApplicationTests.class})//这里加启动类
+@Order(26)
+class SlicedExporterTest {
+
+	@Autowired
+	private OpenSearchConfigProperties openSearchConfigProperties;
+
+	@Autowired
+	private IndexApi indexApi;
+
+	@Autowired
+	private DocumentApi documentApi;
+
+	@Autowired
+	private SlicedExporter slicedExporter;
+
+	@Autowired
+	private CheckpointStore checkpointStore;
+
+	private List<Sku> skuList;
+
+	private String indexName;
+
+	@BeforeAll
+	void setUp() throws IOException {
+		indexName = openSearchConfigProperties.getIndex();
+
+		skuList = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			skuList.add(Sku.builder().id((long) i).skuName("City bike " + i).skuPrice(i).build());
+		}
+
+		TypeMapping typeMapping = new TypeMapping.Builder()
+				.properties("id", id -> id.long_(longProperty -> longProperty.index(true)))
+				.build();
+
+		indexApi.createIndexWithMapping(indexName, typeMapping);
+		documentApi.batchAddDocument(indexName, skuList);
+		indexApi.refresh(indexName);
+	}
+
+	@AfterAll
+	void tearDown() throws IOException {
+		skuList = null;
+
+		indexApi.deleteIndex(indexName);
+
+		indexName = null;
+	}
+
+	/**
+	 * 分片并行导出，消费方失败后用同一个导出id从检查点继续
+	 */
+	@Order(10)
+	@Test
+	void export() throws IOException {
+		ExportRequest request = ExportRequest.builder().exportId("sku-export").indexName(indexName)
+				.slices(2).pageSize(10).resumeField("id").build();
+
+		Set<String> ids = new HashSet<>();
+		assertThrows(IOException.class, () -> slicedExporter.export(request, Sku.class, hit -> {
+			if (ids.size() == 30) {
+				throw new IllegalStateException("sink failed");
+			}
+			ids.add(hit.id());
+		}));
+
+		ExportProgress progress = slicedExporter.export(request, Sku.class,
+				hit -> assertThat(ids.add(hit.id()), is(true)));
+
+		log.info("export progress: {}", progress);
+
+		assertThat(ids.size(), equalTo(skuList.size()));
+		assertThat(progress.getExported(), equalTo((long) skuList.size()));
+		assertThat(progress.getSlicesDone(), equalTo(2));
+	}
+
+	/**
+	 * 没有恢复字段时未完成的slice从头导出，导出数不重复计算
+	 */
+	@Order(20)
+	@Test
+	void exportWithoutResumeField() throws IOException {
+		ExportRequest request = ExportRequest.builder().exportId("sku-export-doc")
+				.indexName(indexName).slices(2).pageSize(10).build();
+
+		Set<String> ids = new HashSet<>();
+		assertThrows(IOException.class, () -> slicedExporter.export(request, Sku.class, hit -> {
+			if (ids.size() == 30) {
+				throw new IllegalStateException("sink failed");
+			}
+			ids.add(hit.id());
+		}));
+
+		ExportProgress progress = slicedExporter.export(request, Sku.class,
+				hit -> ids.add(hit.id()));
+
+		log.info("export progress: {}", progress);
+
+		assertThat(ids.size(), equalTo(skuList.size()));
+		assertThat(progress.getExported(), equalTo((long) skuList.size()));
+		assertThat(progress.getTotal(), equalTo((long) skuList.size()));
+	}
+
+	/**
+	 * 恢复字段有重复值时导出失败，避免恢复时漏掉文档
+	 */
+	@Order(30)
+	@Test
+	void duplicateResumeValueFails() throws IOException {
+		// 所有文档的_index都相同
+		ExportRequest request = ExportRequest.builder().exportId("sku-export-index")
+				.indexName(indexName).slices(1).pageSize(10).resumeField("_index").build();
+
+		IOException exception = assertThrows(IOException.class,
+				() -> slicedExporter.export(request, Sku.class, hit -> {
+				}));
+		assertThat(exception.getCause().getMessage().contains("not unique"), is(true));
+
+		checkpointStore.delete(request.getExportId());
+	}
+}
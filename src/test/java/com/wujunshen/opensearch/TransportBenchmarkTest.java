@@ -0,0 +1,164 @@
+package com.wujunshen.opensearch;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.wujunshen.opensearch.client.JdkHttpClientTransport;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.opensearch.client.transport.rest_client.RestClientTransport;
+
+/**
+ * RestClientTransport和JdkHttpClientTransport对比测试，用本地桩服务返回固定响应，不需要连接集群。
+ * 两种transport解析出的结果必须一致。吞吐量对比耗时较长，只在加上-Dbenchmark=true时运行，结果只打印到日志，不做断言
+ *
+ * @author frank woo(吴峻申) <br> email:<a
+ * href="mailto:frank_wjs@hotmail.com">frank_wjs@hotmail.com</a> <br>
+ * @date 2026/10/18 21:30<br>
+ */
+@Slf4j
+class TransportBenchmarkTest {
+
+	private static final int WARM_UP = 200;
+
+	private static final int REQUESTS = 2000;
+
+	private static final String NODELAY = "sun.net.httpserver.nodelay";
+
+	private static final String COUNT_RESPONSE = """
+			{"count":42,"_shards":{"total":1,"successful":1,"skipped":0,"failed":0}}""";
+
+	private static final String ERROR_RESPONSE = """
+			{"error":{"type":"index_not_found_exception","reason":"no such index [missing]"},\
+			"status":404}""";
+
+	private static HttpServer server;
+
+	private static RestClient restClient;
+
+	private static OpenSearchTransport restClientTransport;
+
+	private static OpenSearchTransport jdkTransport;
+
+	private static String nodelay;
+
+	@BeforeAll
+	static void setUp() throws IOException {
+		// 桩服务的响应头和响应体分开写出，不关闭Nagle算法时每个请求都要等延迟ACK
+		nodelay = System.setProperty(NODELAY, "true");
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", TransportBenchmarkTest::handle);
+		server.setExecutor(Executors.newFixedThreadPool(4));
+		server.start();
+
+		int port = server.getAddress().getPort();
+		restClient = RestClient.builder(new HttpHost("127.0.0.1", port, "http")).build();
+		restClientTransport = new RestClientTransport(restClient, new JacksonJsonpMapper());
+
+		ExecutorService executor = JdkHttpClientTransport.newExecutor();
+		HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.executor(executor).build();
+		jdkTransport = new JdkHttpClientTransport(httpClient,
+				List.of(URI.create("http://127.0.0.1:" + port)), new JacksonJsonpMapper(),
+				Duration.ofSeconds(10), executor);
+	}
+
+	@AfterAll
+	static void tearDown() throws IOException {
+		jdkTransport.close();
+		restClient.close();
+		server.stop(0);
+		((ExecutorService) server.getExecutor()).shutdownNow();
+
+		// 还原成测试前的值，不影响同一个JVM里的其它测试
+		if (nodelay == null) {
+			System.clearProperty(NODELAY);
+		} else {
+			System.setProperty(NODELAY, nodelay);
+		}
+	}
+
+	@Test
+	void sameResults() throws Exception {
+		OpenSearchClient restClientClient = new OpenSearchClient(restClientTransport);
+		OpenSearchClient jdkClient = new OpenSearchClient(jdkTransport);
+
+		assertThat(jdkClient.count(c -> c.index("products")).count(),
+				equalTo(restClientClient.count(c -> c.index("products")).count()));
+		assertThat(jdkClient.indices().exists(e -> e.index("products")).value(), is(true));
+		assertThat(jdkClient.indices().exists(e -> e.index("missing")).value(), is(false));
+
+		OpenSearchException exception = assertThrows(OpenSearchException.class,
+				() -> jdkClient.count(c -> c.index("missing")));
+		assertThat(exception.status(), equalTo(404));
+
+		OpenSearchAsyncClient jdkAsyncClient = new OpenSearchAsyncClient(jdkTransport);
+		assertThat(jdkAsyncClient.count(c -> c.index("products")).get().count(), equalTo(42L));
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmark() throws IOException {
+		long restClientNanos = run(new OpenSearchClient(restClientTransport));
+		long jdkNanos = run(new OpenSearchClient(jdkTransport));
+
+		log.info("rest-client transport: {} ops/s, jdk transport: {} ops/s",
+				REQUESTS * 1_000_000_000L / restClientNanos, REQUESTS * 1_000_000_000L / jdkNanos);
+	}
+
+	private static long run(OpenSearchClient client) throws IOException {
+		for (int i = 0; i < WARM_UP; i++) {
+			client.count(c -> c.index("products"));
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < REQUESTS; i++) {
+			assertThat(client.count(c -> c.index("products")).count(), equalTo(42L));
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static void handle(HttpExchange exchange) throws IOException {
+		exchange.getRequestBody().readAllBytes();
+
+		boolean missing = exchange.getRequestURI().getPath().startsWith("/missing");
+		int status = missing ? 404 : 200;
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+
+		if ("HEAD".equals(exchange.getRequestMethod())) {
+			exchange.sendResponseHeaders(status, -1);
+			exchange.close();
+			return;
+		}
+
+		byte[] body = (missing ? ERROR_RESPONSE : COUNT_RESPONSE).getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}